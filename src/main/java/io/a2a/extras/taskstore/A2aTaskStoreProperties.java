@@ -1,5 +1,7 @@
 package io.a2a.extras.taskstore;
 
+import io.a2a.extras.taskstore.jdbc.CompressionCodec;
+import io.a2a.extras.taskstore.jdbc.ContentFormat;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
@@ -11,9 +13,19 @@ public class A2aTaskStoreProperties {
     private boolean storeArtifacts = true;
     private boolean storeMetadata = true;
     private boolean chatMemoryEnabled = true;
+    /** Locks serializing chat memory writes per conversation within this instance */
+    private int chatMemoryLockStripes = 64;
     private int batchSize = 100;
     private String tablePrefix = "a2a_";
+    private ContentFormat contentFormat = ContentFormat.JSON;
     private CacheProperties cache = new CacheProperties();
+    private JsonProperties json = new JsonProperties();
+    private CompressionProperties compression = new CompressionProperties();
+    private ChatMemoryCacheProperties chatMemoryCache = new ChatMemoryCacheProperties();
+    private AsyncProperties async = new AsyncProperties();
+    private SaveQueueProperties saveQueue = new SaveQueueProperties();
+    private AdmissionProperties admission = new AdmissionProperties();
+    private ReplicaProperties replica = new ReplicaProperties();
 
     @Data
     public static class CacheProperties {
@@ -22,5 +34,129 @@ public class A2aTaskStoreProperties {
         private int finalizedTtlMinutes = 60;
         private int maxSize = 1000;
         private boolean recordStats = true;
+        private boolean writeThrough = false;
+        private boolean incrementalUpdates = true;
+        private boolean finalizedOnly = false;
+        private int finalizedReadExtensionMinutes = 0;
+        private int finalizedMaxTtlMinutes = 240;
+        private OffHeapProperties offHeap = new OffHeapProperties();
+        private InvalidationMode invalidation = InvalidationMode.NONE;
+        private boolean validateOnRead = false;
+        private WarmupProperties warmup = new WarmupProperties();
+    }
+
+    @Data
+    public static class JsonProperties {
+        private boolean doubleEncodedFallback = true;
+        private boolean migrateDoubleEncoded = false;
+        private int migrationBatchSize = 500;
+        private long migrationPauseMillis = 100;
+    }
+
+    @Data
+    public static class CompressionProperties {
+        private boolean enabled = false;
+        private CompressionCodec codec = CompressionCodec.ZSTD;
+        private int level = 3;
+        /** Encoded parts of at least this size are compressed */
+        private int thresholdBytes = 8192;
+    }
+
+    @Data
+    public static class ChatMemoryCacheProperties {
+        private boolean enabled = true;
+        /** Bound on the cached conversations, weighed by their estimated size */
+        private long maxWeightBytes = 32L * 1024 * 1024;
+        private int expireAfterAccessMinutes = 30;
+    }
+
+    @Data
+    public static class AsyncProperties {
+        private boolean enabled = false;
+        /** Calls running against the database at once; 0 uses the Hikari pool size, or 10 for other pools */
+        private int maxConcurrency = 0;
+        /** Run calls on virtual threads where the JDK has them (21+) */
+        private boolean virtualThreads = true;
+    }
+
+    @Data
+    public static class SaveQueueProperties {
+        /**
+         * Queue concurrent saves of a task made outside transactions behind a single writer within this instance,
+         * merging queued snapshots; queued saves hold no connection
+         */
+        private boolean enabled = true;
+        private int lockStripes = 64;
+        /** Wait for the writer before failing the save with TaskStoreOverloadedException, without saving */
+        private long maxWaitMillis = 1000;
+    }
+
+    @Data
+    public static class AdmissionProperties {
+        /** Bound the store calls using the database at once, rejecting the excess with TaskStoreOverloadedException */
+        private boolean enabled = false;
+        private BulkheadProperties read = new BulkheadProperties();
+        private BulkheadProperties write = new BulkheadProperties();
+        private AdaptiveProperties adaptive = new AdaptiveProperties();
+    }
+
+    @Data
+    public static class BulkheadProperties {
+        /** 0 splits the Hikari pool size (10 for other pools): a quarter for writes, the rest for reads */
+        private int maxConcurrency = 0;
+        /** Calls waiting for a permit; further calls are rejected at once */
+        private int maxQueue = 100;
+        /** Deadline for a queued call to get a permit */
+        private long maxWaitMillis = 1000;
+    }
+
+    @Data
+    public static class AdaptiveProperties {
+        /** Lower the limits on slow calls and raise them back on fast ones (AIMD), within max-concurrency */
+        private boolean enabled = false;
+        private int minConcurrency = 1;
+        private long targetLatencyMillis = 100;
+        private double backoffRatio = 0.9;
+    }
+
+    @Data
+    public static class ReplicaProperties {
+        /**
+         * Send read-only transactions to a replica, reads of tasks written lately excepted. With {@code url} set
+         * this routes the application's {@code dataSource}, hence all its read-only transactions, not only the
+         * store's; the replica pool takes Hikari settings from {@code a2a.taskstore.replica.hikari}
+         */
+        private boolean enabled = false;
+        /** Replica connection; if unset, the application routes with its own ReplicaRoutingDataSource */
+        private String url;
+        private String username;
+        private String password;
+        /** Reads of a task written within this window stay on the primary; above the usual replication lag */
+        private long stickyWindowMillis = 5000;
+    }
+
+    public enum InvalidationMode {
+        /** Single instance, nothing to notify */
+        NONE,
+        /** Nodes sharing one JVM (H2, tests) */
+        IN_PROCESS,
+        /** PostgreSQL LISTEN/NOTIFY */
+        POSTGRES
+    }
+
+    @Data
+    public static class OffHeapProperties {
+        private boolean enabled = false;
+        private int capacityMb = 256;
+        private int blockSizeBytes = 1024;
+    }
+
+    @Data
+    public static class WarmupProperties {
+        private boolean snapshotEnabled = false;
+        private String snapshotFile = "a2a-task-cache.snapshot";
+        private boolean fromDatabase = false;
+        private int updatedWithinMinutes = 60;
+        private int maxTasks = 500;
     }
 }
@@ -0,0 +1,67 @@
+package io.a2a.extras.taskstore.admission;
+
+import io.a2a.extras.taskstore.jdbc.JdbcTaskStore;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.StaticMethodMatcherPointcutAdvisor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.function.SingletonSupplier;
+
+import java.lang.reflect.Method;
+import java.util.function.Supplier;
+
+/**
+ * Admits the transactional calls of {@link JdbcTaskStore} through an {@link AdmissionController}: read-only
+ * transactions through its read bulkhead and the others through its write bulkhead, so that a burst of reads cannot
+ * take the connections that writes need, or the reverse.
+ * <p>
+ * The advisor runs outside the transaction interceptor, so a call waits for its permit before it takes a connection
+ * from the pool. Calls made within an active transaction pass straight through: they already hold a connection.
+ */
+public class AdmissionControlAdvisor extends StaticMethodMatcherPointcutAdvisor {
+
+    private final Supplier<AdmissionController> controller;
+
+    public AdmissionControlAdvisor(AdmissionController controller) {
+        this(() -> controller);
+    }
+
+    /**
+     * @param controller looked up on the first call, so that the advisor does not create the pool's beans early
+     */
+    public AdmissionControlAdvisor(Supplier<AdmissionController> controller) {
+        this.controller = SingletonSupplier.of(controller);
+        setAdvice((MethodInterceptor) this::invoke);
+        setOrder(Ordered.HIGHEST_PRECEDENCE);
+    }
+
+    @Override
+    public boolean matches(Method method, Class<?> targetClass) {
+        return JdbcTaskStore.class.isAssignableFrom(targetClass) && transactional(method, targetClass) != null;
+    }
+
+    private Object invoke(MethodInvocation invocation) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return invocation.proceed();
+        }
+        Transactional transactional = transactional(invocation.getMethod(), AopUtils.getTargetClass(invocation.getThis()));
+        Bulkhead.Permit permit = controller.get().acquire(transactional != null && transactional.readOnly());
+        boolean overloaded = false;
+        try {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            overloaded = AdmissionController.isOverload(e);
+            throw e;
+        } finally {
+            permit.release(overloaded);
+        }
+    }
+
+    private static Transactional transactional(Method method, Class<?> targetClass) {
+        return AnnotatedElementUtils.findMergedAnnotation(AopUtils.getMostSpecificMethod(method, targetClass), Transactional.class);
+    }
+}
@@ -0,0 +1,47 @@
+package io.a2a.extras.taskstore.admission;
+
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+
+import java.util.List;
+
+/**
+ * The read and write {@link Bulkhead}s guarding the connection pool of the task store.
+ */
+public class AdmissionController {
+
+    private final Bulkhead reads;
+    private final Bulkhead writes;
+
+    public AdmissionController(Bulkhead reads, Bulkhead writes) {
+        this.reads = reads;
+        this.writes = writes;
+    }
+
+    /**
+     * @throws TaskStoreOverloadedException if no permit is available in time
+     */
+    public Bulkhead.Permit acquire(boolean readOnly) {
+        return (readOnly ? reads : writes).acquire();
+    }
+
+    /**
+     * Whether a call failed for lack of database capacity, e.g. timed out waiting for a connection or on a query,
+     * which lowers an adaptive limit.
+     */
+    public static boolean isOverload(Throwable failure) {
+        return failure instanceof TransientDataAccessException || failure instanceof DataAccessResourceFailureException;
+    }
+
+    public Bulkhead getReads() {
+        return reads;
+    }
+
+    public Bulkhead getWrites() {
+        return writes;
+    }
+
+    public List<Bulkhead> getBulkheads() {
+        return List.of(reads, writes);
+    }
+}
@@ -0,0 +1,211 @@
+package io.a2a.extras.taskstore.admission;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Caps the store calls of one kind running at once. A call over the limit waits in a bounded queue, in arrival order,
+ * until a running call releases its permit; it is rejected with {@link TaskStoreOverloadedException} right away when
+ * the queue is full, or once it has waited {@code maxWait}. Callers thus fail fast under a spike instead of piling up
+ * on the connection pool until its own timeout.
+ * <p>
+ * With an {@link AdaptiveLimit} the limit follows the latency of the calls (AIMD): each call finishing within the
+ * target latency raises it by {@code 1/limit}, i.e. by about one per limit's worth of calls, up to
+ * {@code maxConcurrency}; a slower or overloaded call cuts it by the backoff ratio, down to the minimum.
+ */
+public final class Bulkhead {
+
+    /**
+     * @param minConcurrency lowest limit the backoff may reach
+     * @param targetLatency  calls slower than this lower the limit
+     * @param backoffRatio   factor applied to the limit on a slow call, in (0, 1)
+     */
+    public record AdaptiveLimit(int minConcurrency, Duration targetLatency, double backoffRatio) {
+
+        public AdaptiveLimit {
+            if (minConcurrency < 1) {
+                throw new IllegalArgumentException("minConcurrency must be positive");
+            }
+            if (backoffRatio <= 0 || backoffRatio >= 1) {
+                throw new IllegalArgumentException("backoffRatio must be between 0 and 1");
+            }
+        }
+    }
+
+    private final String name;
+    private final int maxConcurrency;
+    private final int maxQueue;
+    private final long maxWaitNanos;
+    private final AdaptiveLimit adaptive;
+    private final long targetLatencyNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    /** Guarded by lock */
+    private double limit;
+    private int inFlight;
+    private int queued;
+
+    private final LongAdder queueFullRejections = new LongAdder();
+    private final LongAdder deadlineRejections = new LongAdder();
+
+    public Bulkhead(String name, int maxConcurrency, int maxQueue, Duration maxWait) {
+        this(name, maxConcurrency, maxQueue, maxWait, null);
+    }
+
+    /**
+     * @param maxQueue calls that may wait for a permit; 0 rejects every call over the limit
+     * @param adaptive adjusts the limit to the observed latency, or null for a fixed limit of {@code maxConcurrency}
+     */
+    public Bulkhead(String name, int maxConcurrency, int maxQueue, Duration maxWait, AdaptiveLimit adaptive) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be positive");
+        }
+        this.name = name;
+        this.maxConcurrency = maxConcurrency;
+        this.maxQueue = Math.max(0, maxQueue);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.adaptive = adaptive;
+        this.targetLatencyNanos = adaptive != null ? adaptive.targetLatency().toNanos() : Long.MAX_VALUE;
+        this.limit = maxConcurrency;
+    }
+
+    /**
+     * Takes a permit, waiting for one in the queue if needed. The caller must release it once its call is done.
+     *
+     * @throws TaskStoreOverloadedException if no permit is available in time
+     */
+    public Permit acquire() {
+        lock.lock();
+        try {
+            // Calls already queued go first
+            if (queued == 0 && inFlight < currentLimit()) {
+                inFlight++;
+                return new Permit();
+            }
+            if (queued >= maxQueue) {
+                throw reject(TaskStoreOverloadedException.Reason.QUEUE_FULL);
+            }
+            queued++;
+            try {
+                long remaining = maxWaitNanos;
+                while (inFlight >= currentLimit()) {
+                    if (remaining <= 0) {
+                        throw reject(TaskStoreOverloadedException.Reason.DEADLINE_EXCEEDED);
+                    }
+                    remaining = released.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TaskStoreOverloadedException(name, TaskStoreOverloadedException.Reason.INTERRUPTED);
+            } finally {
+                queued--;
+            }
+            inFlight++;
+            return new Permit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(long latencyNanos, boolean overloaded) {
+        lock.lock();
+        try {
+            inFlight--;
+            int before = currentLimit();
+            if (adaptive != null) {
+                if (overloaded || latencyNanos > targetLatencyNanos) {
+                    limit = Math.max(adaptive.minConcurrency(), limit * adaptive.backoffRatio());
+                } else {
+                    limit = Math.min(maxConcurrency, limit + 1 / limit);
+                }
+            }
+            if (currentLimit() > before) {
+                released.signalAll();
+            } else if (inFlight < currentLimit()) {
+                released.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private TaskStoreOverloadedException reject(TaskStoreOverloadedException.Reason reason) {
+        (reason == TaskStoreOverloadedException.Reason.QUEUE_FULL ? queueFullRejections : deadlineRejections).increment();
+        return new TaskStoreOverloadedException(name, reason);
+    }
+
+    /** Guarded by lock */
+    private int currentLimit() {
+        return (int) limit;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** Calls allowed to run at once right now */
+    public int getLimit() {
+        lock.lock();
+        try {
+            return currentLimit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Calls waiting for a permit */
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getRejections(TaskStoreOverloadedException.Reason reason) {
+        return switch (reason) {
+            case QUEUE_FULL -> queueFullRejections.sum();
+            case DEADLINE_EXCEEDED -> deadlineRejections.sum();
+            case INTERRUPTED -> 0;
+        };
+    }
+
+    /** Right to run one call; released once, further releases are ignored */
+    public final class Permit {
+
+        private final long startNanos = System.nanoTime();
+        private boolean released;
+
+        private Permit() {
+        }
+
+        public void release() {
+            release(false);
+        }
+
+        /**
+         * @param overloaded the call failed for lack of database capacity, e.g. timed out waiting for a connection
+         */
+        public void release(boolean overloaded) {
+            if (released) {
+                return;
+            }
+            released = true;
+            Bulkhead.this.release(System.nanoTime() - startNanos, overloaded);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package io.a2a.extras.taskstore.admission;
+
+import org.springframework.dao.TransientDataAccessException;
+
+/**
+ * Thrown instead of running a store call when its {@link Bulkhead} has no permit to give in time: the wait queue is
+ * full, or the call waited past the queue deadline. Nothing has been read or written; the call may be retried later.
+ */
+public class TaskStoreOverloadedException extends TransientDataAccessException {
+
+    public enum Reason {
+        /** As many calls are queued as the bulkhead allows */
+        QUEUE_FULL,
+        /** The call waited {@code max-wait-millis} without getting a permit */
+        DEADLINE_EXCEEDED,
+        /** The waiting thread was interrupted */
+        INTERRUPTED
+    }
+
+    private final String bulkhead;
+    private final Reason reason;
+
+    public TaskStoreOverloadedException(String bulkhead, Reason reason) {
+        super("Task store overloaded: no " + bulkhead + " permit (" + reason + ")");
+        this.bulkhead = bulkhead;
+        this.reason = reason;
+    }
+
+    /** Name of the bulkhead that rejected the call, {@code read} or {@code write}, or {@code save-queue} */
+    public String getBulkhead() {
+        return bulkhead;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,23 @@
+package io.a2a.extras.taskstore.async;
+
+import io.a2a.spec.Task;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking view of a task store for callers that must not block their own threads, e.g. reactive front ends.
+ * The futures complete on the store's executor; failures complete them exceptionally with the store's exception.
+ */
+public interface AsyncTaskStore {
+
+    CompletableFuture<Void> saveAsync(Task task);
+
+    /**
+     * @return a future of the task, or of null if it does not exist
+     */
+    CompletableFuture<Task> getAsync(String taskId);
+
+    CompletableFuture<Void> deleteAsync(String taskId);
+
+    CompletableFuture<Boolean> isTaskActiveAsync(String taskId);
+}
@@ -0,0 +1,151 @@
+package io.a2a.extras.taskstore.async;
+
+import io.a2a.extras.taskstore.jdbc.JdbcTaskStore;
+import io.a2a.server.tasks.TaskStateProvider;
+import io.a2a.server.tasks.TaskStore;
+import io.a2a.spec.Task;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * {@link AsyncTaskStore} running the blocking calls of a task store on an executor.
+ * <p>
+ * By default each call gets a virtual thread when the JDK has them (21+), so any number of requests can be in flight
+ * without tying up platform threads; a semaphore caps the calls that use the database at once, normally at the
+ * connection pool size, and the rest wait on it cheaply. On older JDKs the calls run on a fixed pool of that many
+ * platform threads and wait in its queue instead.
+ */
+public class ExecutorAsyncTaskStore implements AsyncTaskStore, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ExecutorAsyncTaskStore.class);
+
+    private final TaskStore taskStore;
+    private final TaskStateProvider stateProvider;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final boolean virtualThreads;
+    private final boolean ownsExecutor;
+
+    public ExecutorAsyncTaskStore(JdbcTaskStore taskStore, int maxConcurrency) {
+        this(taskStore, taskStore, maxConcurrency, true);
+    }
+
+    /**
+     * @param maxConcurrency calls running against the store at once, e.g. the connection pool size
+     * @param useVirtualThreads false to use platform threads even when virtual threads are available
+     */
+    public ExecutorAsyncTaskStore(TaskStore taskStore, TaskStateProvider stateProvider, int maxConcurrency,
+                                  boolean useVirtualThreads) {
+        ExecutorService virtual = useVirtualThreads ? newVirtualThreadExecutor() : null;
+        this.taskStore = taskStore;
+        this.stateProvider = stateProvider;
+        this.executor = virtual != null ? virtual : Executors.newFixedThreadPool(maxConcurrency, new PlatformThreadFactory());
+        this.permits = new Semaphore(maxConcurrency);
+        this.virtualThreads = virtual != null;
+        this.ownsExecutor = true;
+        if (useVirtualThreads && virtual == null) {
+            log.info("Virtual threads are not available on Java {}, running task store calls on {} platform threads",
+                    Runtime.version().feature(), maxConcurrency);
+        }
+    }
+
+    /**
+     * @param executor runs the calls; it is not shut down by {@link #close()}
+     */
+    public ExecutorAsyncTaskStore(TaskStore taskStore, TaskStateProvider stateProvider, ExecutorService executor,
+                                  int maxConcurrency) {
+        this.taskStore = taskStore;
+        this.stateProvider = stateProvider;
+        this.executor = executor;
+        this.permits = new Semaphore(maxConcurrency);
+        this.virtualThreads = false;
+        this.ownsExecutor = false;
+    }
+
+    @Override
+    public CompletableFuture<Void> saveAsync(Task task) {
+        return submit(() -> {
+            taskStore.save(task);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Task> getAsync(String taskId) {
+        return submit(() -> taskStore.get(taskId));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteAsync(String taskId) {
+        return submit(() -> {
+            taskStore.delete(taskId);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> isTaskActiveAsync(String taskId) {
+        return submit(() -> stateProvider.isTaskActive(taskId));
+    }
+
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> call) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Interrupted while waiting for a task store permit");
+            }
+            try {
+                return call.get();
+            } finally {
+                permits.release();
+            }
+        }, executor);
+    }
+
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * {@code Executors.newVirtualThreadPerTaskExecutor()}, looked up reflectively so that the library still runs on
+     * Java 17.
+     *
+     * @return the executor, or null if virtual threads are not available
+     */
+    static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static final class PlatformThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "a2a-taskstore-async-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -1,33 +1,82 @@
 package io.a2a.extras.taskstore.autoconfigure;
 
+import com.zaxxer.hikari.HikariDataSource;
 import io.a2a.extras.taskstore.A2aTaskStoreProperties;
+import io.a2a.extras.taskstore.admission.AdmissionControlAdvisor;
+import io.a2a.extras.taskstore.admission.AdmissionController;
+import io.a2a.extras.taskstore.admission.Bulkhead;
+import io.a2a.extras.taskstore.async.AsyncTaskStore;
+import io.a2a.extras.taskstore.async.ExecutorAsyncTaskStore;
 import io.a2a.extras.taskstore.cache.CacheConfig;
+import io.a2a.extras.taskstore.cache.TaskCacheWarmer;
+import io.a2a.extras.taskstore.cache.TaskInvalidationBus;
+import io.a2a.extras.taskstore.jdbc.DoubleEncodedJsonMigration;
 import io.a2a.extras.taskstore.jdbc.JdbcTaskStore;
+import io.a2a.extras.taskstore.jdbc.ReplicaRoutingDataSource;
+import io.a2a.extras.taskstore.metrics.AdmissionMeterBinder;
+import io.a2a.extras.taskstore.metrics.MicrometerTaskStoreMetrics;
+import io.a2a.extras.taskstore.metrics.TaskCacheMeterBinder;
+import io.a2a.extras.taskstore.metrics.TaskStoreMetrics;
 import io.a2a.extras.taskstore.jdbc.JsonbAdapter;
 import io.a2a.extras.taskstore.jdbc.JsonbAdapterFactory;
+import io.a2a.extras.taskstore.jdbc.TokenEstimator;
 import io.a2a.extras.taskstore.repository.ArtifactRepository;
 import io.a2a.extras.taskstore.repository.HistoryRepository;
 import io.a2a.extras.taskstore.repository.TaskRepository;
 import io.a2a.extras.taskstore.springai.TaskStoreChatMemoryAdapter;
+import io.a2a.extras.taskstore.springai.TaskStoreChatMemoryRepository;
 import io.a2a.server.tasks.TaskStateProvider;
 import io.a2a.server.tasks.TaskStore;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.memory.ChatMemoryRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.env.Environment;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
 
-@AutoConfiguration
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Optional;
+
+@AutoConfiguration(
+        afterName = {
+                "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration",
+                "org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration"},
+        beforeName = "org.springframework.ai.model.chat.memory.autoconfigure.ChatMemoryAutoConfiguration")
 @ConditionalOnClass({TaskStore.class, JdbcTemplate.class})
+@ConditionalOnBean(JdbcTemplate.class)
 @ConditionalOnProperty(prefix = "a2a.taskstore", name = "enabled", havingValue = "true", matchIfMissing = true)
 @EnableConfigurationProperties(A2aTaskStoreProperties.class)
 @Import(CacheConfig.class)
 public class A2aTaskStoreAutoConfiguration {
 
+    private static final String HIKARI_DATA_SOURCE = "com.zaxxer.hikari.HikariDataSource";
+    private static final int DEFAULT_ASYNC_CONCURRENCY = 10;
+    private static final int DEFAULT_POOL_SIZE = 10;
+
     @Bean
     @ConditionalOnMissingBean
     public JsonbAdapter jsonbAdapter(JdbcTemplate jdbcTemplate) {
@@ -36,20 +85,25 @@ public class A2aTaskStoreAutoConfiguration {
 
     @Bean
     @ConditionalOnMissingBean
-    public TaskRepository taskRepository(JdbcTemplate jdbcTemplate, JsonbAdapter jsonbAdapter) {
-        return new TaskRepository(jdbcTemplate, jsonbAdapter);
+    public TaskRepository taskRepository(JdbcTemplate jdbcTemplate, JsonbAdapter jsonbAdapter, A2aTaskStoreProperties properties,
+                                         ObjectProvider<TaskStoreMetrics> metrics) {
+        return new TaskRepository(jdbcTemplate, jsonbAdapter, properties, resolveMetrics(metrics));
     }
 
     @Bean
     @ConditionalOnMissingBean
-    public HistoryRepository historyRepository(JdbcTemplate jdbcTemplate, JsonbAdapter jsonbAdapter, A2aTaskStoreProperties properties) {
-        return new HistoryRepository(jdbcTemplate, jsonbAdapter, properties);
+    public HistoryRepository historyRepository(JdbcTemplate jdbcTemplate, JsonbAdapter jsonbAdapter, A2aTaskStoreProperties properties,
+                                               ObjectProvider<TaskStoreMetrics> metrics,
+                                               ObjectProvider<TokenEstimator> tokenEstimator) {
+        return new HistoryRepository(jdbcTemplate, jsonbAdapter, properties, resolveMetrics(metrics),
+                tokenEstimator.getIfAvailable(() -> TokenEstimator.DEFAULT));
     }
 
     @Bean
     @ConditionalOnMissingBean
-    public ArtifactRepository artifactRepository(JdbcTemplate jdbcTemplate, JsonbAdapter jsonbAdapter, A2aTaskStoreProperties properties) {
-        return new ArtifactRepository(jdbcTemplate, jsonbAdapter, properties);
+    public ArtifactRepository artifactRepository(JdbcTemplate jdbcTemplate, JsonbAdapter jsonbAdapter, A2aTaskStoreProperties properties,
+                                                 ObjectProvider<TaskStoreMetrics> metrics) {
+        return new ArtifactRepository(jdbcTemplate, jsonbAdapter, properties, resolveMetrics(metrics));
     }
 
     @Bean
@@ -58,8 +112,56 @@ public class A2aTaskStoreAutoConfiguration {
             TaskRepository taskRepository,
             HistoryRepository historyRepository,
             ArtifactRepository artifactRepository,
-            A2aTaskStoreProperties properties) {
-        return new JdbcTaskStore(taskRepository, historyRepository, artifactRepository, properties);
+            A2aTaskStoreProperties properties,
+            ObjectProvider<CacheManager> cacheManager,
+            ObjectProvider<TaskInvalidationBus> invalidationBus,
+            ObjectProvider<TaskStoreMetrics> metrics,
+            ObjectProvider<PlatformTransactionManager> transactionManager,
+            ObjectProvider<AdmissionController> admissionController) {
+        Cache taskCache = resolveTaskCache(properties, cacheManager);
+        TaskInvalidationBus bus = invalidationBus.getIfAvailable(() -> TaskInvalidationBus.NONE);
+        if (taskCache != null) {
+            bus.subscribe(TaskInvalidationBus.evicting(taskCache));
+        }
+        return new JdbcTaskStore(taskRepository, historyRepository, artifactRepository, properties, taskCache, bus,
+                resolveMetrics(metrics),
+                transactionManager.getIfUnique(() -> new DataSourceTransactionManager(taskRepository.getDataSource())),
+                admissionController.getIfAvailable());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnExpression("${a2a.taskstore.cache.warmup.snapshot-enabled:false} or ${a2a.taskstore.cache.warmup.from-database:false}")
+    public TaskCacheWarmer taskCacheWarmer(
+            JdbcTaskStore jdbcTaskStore,
+            A2aTaskStoreProperties properties,
+            ObjectProvider<CacheManager> cacheManager) {
+        Cache taskCache = resolveTaskCache(properties, cacheManager);
+        if (taskCache == null) {
+            throw new IllegalStateException("a2a.taskstore.cache.warmup requires the task cache to be enabled");
+        }
+        return new TaskCacheWarmer(jdbcTaskStore, taskCache, properties.getCache().getWarmup());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "a2a.taskstore.json", name = "migrate-double-encoded", havingValue = "true")
+    public DoubleEncodedJsonMigration doubleEncodedJsonMigration(JdbcTemplate jdbcTemplate, JsonbAdapter jsonbAdapter,
+                                                                 A2aTaskStoreProperties properties) {
+        A2aTaskStoreProperties.JsonProperties json = properties.getJson();
+        return new DoubleEncodedJsonMigration(jdbcTemplate, jsonbAdapter, json.getMigrationBatchSize(), json.getMigrationPauseMillis());
+    }
+
+    private static Cache resolveTaskCache(A2aTaskStoreProperties properties, ObjectProvider<CacheManager> cacheManager) {
+        if (!properties.getCache().isEnabled()) {
+            return null;
+        }
+        CacheManager manager = cacheManager.getIfAvailable();
+        return manager != null ? manager.getCache(CacheConfig.TASK_CACHE) : null;
+    }
+
+    private static TaskStoreMetrics resolveMetrics(ObjectProvider<TaskStoreMetrics> metrics) {
+        return metrics.getIfAvailable(() -> TaskStoreMetrics.NOOP);
     }
 
     @Bean
@@ -68,6 +170,88 @@ public class A2aTaskStoreAutoConfiguration {
         return jdbcTaskStore;
     }
 
+    @Bean
+    @ConditionalOnMissingBean(AsyncTaskStore.class)
+    @ConditionalOnProperty(prefix = "a2a.taskstore.async", name = "enabled", havingValue = "true")
+    public ExecutorAsyncTaskStore asyncTaskStore(JdbcTaskStore jdbcTaskStore, JdbcTemplate jdbcTemplate,
+                                                 A2aTaskStoreProperties properties) {
+        A2aTaskStoreProperties.AsyncProperties async = properties.getAsync();
+        int maxConcurrency = async.getMaxConcurrency() > 0
+                ? async.getMaxConcurrency()
+                : poolSize(jdbcTemplate.getDataSource(), DEFAULT_ASYNC_CONCURRENCY);
+        return new ExecutorAsyncTaskStore(jdbcTaskStore, jdbcTaskStore, maxConcurrency, async.isVirtualThreads());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "a2a.taskstore.admission", name = "enabled", havingValue = "true")
+    public AdmissionController admissionController(JdbcTemplate jdbcTemplate, A2aTaskStoreProperties properties) {
+        A2aTaskStoreProperties.AdmissionProperties admission = properties.getAdmission();
+        int pool = poolSize(jdbcTemplate.getDataSource(), DEFAULT_POOL_SIZE);
+        int writeConcurrency = admission.getWrite().getMaxConcurrency() > 0
+                ? admission.getWrite().getMaxConcurrency()
+                : Math.max(1, pool / 4);
+        int readConcurrency = admission.getRead().getMaxConcurrency() > 0
+                ? admission.getRead().getMaxConcurrency()
+                : Math.max(1, pool - writeConcurrency);
+        A2aTaskStoreProperties.AdaptiveProperties adaptive = admission.getAdaptive();
+        Bulkhead.AdaptiveLimit limit = adaptive.isEnabled()
+                ? new Bulkhead.AdaptiveLimit(adaptive.getMinConcurrency(),
+                        Duration.ofMillis(adaptive.getTargetLatencyMillis()), adaptive.getBackoffRatio())
+                : null;
+        return new AdmissionController(
+                bulkhead("read", readConcurrency, admission.getRead(), limit),
+                bulkhead("write", writeConcurrency, admission.getWrite(), limit));
+    }
+
+    private static Bulkhead bulkhead(String name, int maxConcurrency, A2aTaskStoreProperties.BulkheadProperties properties,
+                                     Bulkhead.AdaptiveLimit adaptive) {
+        return new Bulkhead(name, maxConcurrency, properties.getMaxQueue(), Duration.ofMillis(properties.getMaxWaitMillis()),
+                adaptive);
+    }
+
+    /**
+     * Static and lazy on the controller: advisors are created while the bean post-processors are being set up.
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "a2a.taskstore.admission", name = "enabled", havingValue = "true")
+    public static AdmissionControlAdvisor admissionControlAdvisor(ObjectProvider<AdmissionController> admissionController) {
+        return new AdmissionControlAdvisor(admissionController::getObject);
+    }
+
+    /**
+     * Wraps the application's {@code dataSource} in a {@link ReplicaRoutingDataSource} with a replica pool built from
+     * {@code a2a.taskstore.replica} and tuned by {@code a2a.taskstore.replica.hikari}, unless no replica url is set.
+     * The task store joins the application's transactions, so the routing applies to the whole application: any of
+     * its read-only transactions goes to the replica. Static, as bean post-processors are created before the other
+     * beans.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "a2a.taskstore.replica", name = "enabled", havingValue = "true")
+    public static BeanPostProcessor replicaRoutingDataSourcePostProcessor(Environment environment) {
+        Binder binder = Binder.get(environment);
+        A2aTaskStoreProperties.ReplicaProperties replica = binder
+                .bindOrCreate("a2a.taskstore.replica", A2aTaskStoreProperties.ReplicaProperties.class);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!StringUtils.hasText(replica.getUrl()) || !"dataSource".equals(beanName)
+                        || !(bean instanceof DataSource primary) || bean instanceof ReplicaRoutingDataSource) {
+                    return bean;
+                }
+                DataSource replicaPool = DataSourceBuilder.create()
+                        .url(replica.getUrl())
+                        .username(replica.getUsername())
+                        .password(replica.getPassword())
+                        .build();
+                binder.bind("a2a.taskstore.replica.hikari", Bindable.ofInstance(replicaPool));
+                return new ReplicaRoutingDataSource(primary, replicaPool);
+            }
+        };
+    }
+
     @Bean
     @ConditionalOnMissingBean(TaskStateProvider.class)
     public TaskStateProvider taskStateProvider(JdbcTaskStore jdbcTaskStore) {
@@ -83,4 +267,62 @@ public class A2aTaskStoreAutoConfiguration {
             A2aTaskStoreProperties properties) {
         return new TaskStoreChatMemoryAdapter(taskStore, properties);
     }
+
+    @Bean
+    @ConditionalOnClass(ChatMemoryRepository.class)
+    @ConditionalOnMissingBean(ChatMemoryRepository.class)
+    @ConditionalOnProperty(prefix = "a2a.taskstore", name = "chat-memory-enabled", havingValue = "true", matchIfMissing = true)
+    public TaskStoreChatMemoryRepository taskStoreChatMemoryRepository(JdbcTaskStore jdbcTaskStore) {
+        return new TaskStoreChatMemoryRepository(jdbcTaskStore);
+    }
+
+    /**
+     * Maximum size of the Hikari pool behind {@code dataSource}, or {@code fallback} for other pools.
+     */
+    private static int poolSize(DataSource dataSource, int fallback) {
+        if (dataSource == null || !ClassUtils.isPresent(HIKARI_DATA_SOURCE, A2aTaskStoreAutoConfiguration.class.getClassLoader())) {
+            return fallback;
+        }
+        // Unset (-1) until the pool starts, Hikari then applying its default of 10
+        return HikariPoolSize.of(dataSource).filter(size -> size > 0).orElse(fallback);
+    }
+
+    /** Kept apart so that Hikari classes are only loaded when Hikari is present */
+    private static final class HikariPoolSize {
+        static Optional<Integer> of(DataSource dataSource) {
+            try {
+                if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                    return Optional.of(dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize());
+                }
+            } catch (SQLException ignored) {
+                // not a Hikari pool
+            }
+            return Optional.empty();
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+    static class MetricsConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnBean(MeterRegistry.class)
+        public TaskStoreMetrics taskStoreMetrics(MeterRegistry meterRegistry) {
+            return new MicrometerTaskStoreMetrics(meterRegistry);
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        public TaskCacheMeterBinder taskCacheMeterBinder(A2aTaskStoreProperties properties, ObjectProvider<CacheManager> cacheManager) {
+            return new TaskCacheMeterBinder(resolveTaskCache(properties, cacheManager), "cacheManager");
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnProperty(prefix = "a2a.taskstore.admission", name = "enabled", havingValue = "true")
+        public AdmissionMeterBinder admissionMeterBinder(AdmissionController admissionController) {
+            return new AdmissionMeterBinder(admissionController);
+        }
+    }
 }
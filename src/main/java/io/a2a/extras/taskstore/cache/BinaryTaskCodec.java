@@ -0,0 +1,44 @@
+package io.a2a.extras.taskstore.cache;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.a2a.spec.Task;
+
+import java.io.IOException;
+
+/**
+ * Compact binary (Jackson Smile) form of a {@link Task}, used where tasks are kept outside the heap.
+ */
+public final class BinaryTaskCodec {
+
+    private static final SmileMapper SMILE_MAPPER = SmileMapper.builder()
+        .addModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .disable(DeserializationFeature.ADJUST_DATES_TO_CONTEXT_TIME_ZONE)
+        .build();
+    private static final ObjectWriter WRITER = SMILE_MAPPER.writerFor(Task.class);
+    private static final ObjectReader READER = SMILE_MAPPER.readerFor(Task.class);
+
+    private BinaryTaskCodec() {
+    }
+
+    public static byte[] toBytes(Task task) {
+        try {
+            return WRITER.writeValueAsBytes(task);
+        } catch (IOException e) {
+            throw new IllegalStateException("Task serialize failed: " + task.getId(), e);
+        }
+    }
+
+    public static Task fromBytes(byte[] bytes) {
+        try {
+            return READER.readValue(bytes);
+        } catch (IOException e) {
+            throw new IllegalStateException("Task deserialize failed", e);
+        }
+    }
+}
@@ -2,18 +2,24 @@ package io.a2a.extras.taskstore.cache;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
 import io.a2a.extras.taskstore.A2aTaskStoreProperties;
-import io.a2a.spec.Task;
-import io.a2a.spec.TaskState;
+import io.a2a.extras.taskstore.jdbc.VersionedTask;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
-import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
 
-import java.util.EnumSet;
-import java.util.Set;
+import java.time.Duration;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 @Configuration
@@ -21,9 +27,6 @@ import java.util.concurrent.TimeUnit;
 public class CacheConfig {
 
     public static final String TASK_CACHE = "a2a-tasks";
-    private static final Set<TaskState> FINAL_STATES = EnumSet.of(
-        TaskState.COMPLETED, TaskState.CANCELED, TaskState.FAILED, TaskState.REJECTED
-    );
 
     private final A2aTaskStoreProperties properties;
 
@@ -32,46 +35,149 @@ public class CacheConfig {
     }
 
     @Bean
-    public CacheManager cacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager(TASK_CACHE);
-        cacheManager.setCaffeine(caffeineConfig());
+    @ConditionalOnMissingBean
+    public TaskCachePolicy taskCachePolicy() {
+        return new StateAwareTaskCachePolicy(properties.getCache());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "a2a.taskstore.cache.off-heap", name = "enabled", havingValue = "true")
+    public OffHeapTaskCache offHeapTaskCache() {
+        A2aTaskStoreProperties.OffHeapProperties offHeap = properties.getCache().getOffHeap();
+        return new OffHeapTaskCache(offHeap.getCapacityMb() * 1024L * 1024L, offHeap.getBlockSizeBytes());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(TaskInvalidationBus.class)
+    @ConditionalOnProperty(prefix = "a2a.taskstore.cache", name = "invalidation", havingValue = "in-process")
+    public InProcessTaskInvalidationBus inProcessTaskInvalidationBus() {
+        return new InProcessTaskInvalidationBus();
+    }
+
+    @Bean
+    public CacheManager cacheManager(TaskCachePolicy taskCachePolicy, ObjectProvider<OffHeapTaskCache> offHeapTaskCache) {
+        OffHeapTaskCache l2 = offHeapTaskCache.getIfAvailable();
+        CaffeineCacheManager cacheManager = new PolicyAwareCacheManager(taskCachePolicy, l2);
+        cacheManager.setCacheNames(List.of(TASK_CACHE));
+        cacheManager.setCaffeine(caffeineConfig(taskCachePolicy, l2));
         cacheManager.setAllowNullValues(false);
         return cacheManager;
     }
 
-    private Caffeine<Object, Object> caffeineConfig() {
+    /**
+     * Listens over a JDBC connection of the PostgreSQL driver, so it is left out of applications without them, e.g.
+     * R2DBC-only ones.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "org.postgresql.PGConnection")
+    @ConditionalOnBean(JdbcTemplate.class)
+    @ConditionalOnProperty(prefix = "a2a.taskstore.cache", name = "invalidation", havingValue = "postgres")
+    static class PostgresInvalidationConfig {
+
+        @Bean
+        @ConditionalOnMissingBean(TaskInvalidationBus.class)
+        public PostgresTaskInvalidationBus postgresTaskInvalidationBus(JdbcTemplate jdbcTemplate) {
+            return new PostgresTaskInvalidationBus(jdbcTemplate);
+        }
+    }
+
+    private Caffeine<Object, Object> caffeineConfig(TaskCachePolicy taskCachePolicy, OffHeapTaskCache l2) {
         Caffeine<Object, Object> caffeine = Caffeine.newBuilder()
             .maximumSize(properties.getCache().getMaxSize())
-            .expireAfter(new TaskExpiry());
-        
+            .expireAfter(new TaskExpiry(taskCachePolicy));
+
+        if (l2 != null) {
+            // Runs atomically with the eviction, so a concurrent evict() cannot leave a stale copy in L2
+            caffeine.evictionListener((Object key, Object value, RemovalCause cause) -> {
+                if (cause == RemovalCause.SIZE && value instanceof VersionedTask entry && taskCachePolicy.admit(entry.header())) {
+                    l2.put(key, entry, taskCachePolicy.timeToLive(entry.header()));
+                }
+            });
+        }
         if (properties.getCache().isRecordStats()) {
             caffeine.recordStats();
         }
-        
+
         return caffeine;
     }
 
     private class TaskExpiry implements Expiry<Object, Object> {
+        private final TaskCachePolicy policy;
+
+        TaskExpiry(TaskCachePolicy policy) {
+            this.policy = policy;
+        }
+
         @Override
         public long expireAfterCreate(Object key, Object value, long currentTime) {
-            if (value instanceof Task task) {
-                boolean isFinalized = FINAL_STATES.contains(task.getStatus().state());
-                int ttlMinutes = isFinalized 
-                    ? properties.getCache().getFinalizedTtlMinutes() 
-                    : properties.getCache().getTtlMinutes();
-                return TimeUnit.MINUTES.toNanos(ttlMinutes);
+            if (value instanceof VersionedTask entry) {
+                return policy.timeToLive(entry.header()).toNanos();
             }
             return TimeUnit.MINUTES.toNanos(properties.getCache().getTtlMinutes());
         }
 
         @Override
         public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
-            return currentDuration;
+            return expireAfterCreate(key, value, currentTime);
         }
 
         @Override
         public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+            if (value instanceof VersionedTask entry) {
+                return policy.afterRead(entry.header(), Duration.ofNanos(currentDuration)).toNanos();
+            }
             return currentDuration;
         }
     }
+
+    /**
+     * Caffeine cache manager whose caches consult {@link TaskCachePolicy#admit} before storing a task,
+     * backed by the off-heap tier when one is configured.
+     */
+    private static class PolicyAwareCacheManager extends CaffeineCacheManager {
+        private final TaskCachePolicy policy;
+        private final OffHeapTaskCache l2;
+
+        PolicyAwareCacheManager(TaskCachePolicy policy, OffHeapTaskCache l2) {
+            this.policy = policy;
+            this.l2 = l2;
+        }
+
+        @Override
+        protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+            Cache l1 = new PolicyAwareCache(name, cache, isAllowNullValues(), policy);
+            return l2 != null ? new TieredTaskCache(l1, l2) : l1;
+        }
+    }
+
+    private static class PolicyAwareCache extends CaffeineCache {
+        private final TaskCachePolicy policy;
+
+        PolicyAwareCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache,
+                         boolean allowNullValues, TaskCachePolicy policy) {
+            super(name, cache, allowNullValues);
+            this.policy = policy;
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            if (isRejected(value)) {
+                evict(key);
+                return;
+            }
+            super.put(key, value);
+        }
+
+        @Override
+        public ValueWrapper putIfAbsent(Object key, Object value) {
+            if (isRejected(value)) {
+                return get(key);
+            }
+            return super.putIfAbsent(key, value);
+        }
+
+        private boolean isRejected(Object value) {
+            return value instanceof VersionedTask entry && !policy.admit(entry.header());
+        }
+    }
 }
@@ -0,0 +1,44 @@
+package io.a2a.extras.taskstore.cache;
+
+import io.a2a.extras.taskstore.jdbc.TransactionCallbacks;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * {@link TaskInvalidationBus} connecting nodes that live in the same JVM, e.g. for H2 and tests.
+ * Each instance is one node; {@link #join()} attaches another node to the same channel.
+ */
+public class InProcessTaskInvalidationBus implements TaskInvalidationBus {
+
+    private final List<InProcessTaskInvalidationBus> nodes;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    public InProcessTaskInvalidationBus() {
+        this(new CopyOnWriteArrayList<>());
+    }
+
+    private InProcessTaskInvalidationBus(List<InProcessTaskInvalidationBus> nodes) {
+        this.nodes = nodes;
+        nodes.add(this);
+    }
+
+    /**
+     * Creates another node on the same channel.
+     */
+    public InProcessTaskInvalidationBus join() {
+        return new InProcessTaskInvalidationBus(nodes);
+    }
+
+    @Override
+    public void publish(String taskId) {
+        TransactionCallbacks.afterCommit(() -> nodes.stream()
+                .filter(node -> node != this)
+                .forEach(node -> node.listeners.forEach(listener -> listener.onTaskChanged(taskId))));
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+}
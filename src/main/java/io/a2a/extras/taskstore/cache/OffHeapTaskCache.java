@@ -0,0 +1,199 @@
+package io.a2a.extras.taskstore.cache;
+
+import io.a2a.extras.taskstore.jdbc.VersionedTask;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Second-tier task cache that keeps tasks in {@link BinaryTaskCodec} form in direct memory, outside the Java heap.
+ * <p>
+ * Memory is carved into fixed-size blocks from direct {@link ByteBuffer} slabs, allocated lazily as the cache fills.
+ * An entry occupies as many blocks as its serialized form needs; when too few blocks are free, least recently used
+ * entries are dropped. Only the key index lives on the heap.
+ */
+public class OffHeapTaskCache {
+
+    private static final int SLAB_SIZE = 16 * 1024 * 1024;
+
+    private final int blockSize;
+    private final int blocksPerSlab;
+    private final int totalBlocks;
+    private final ByteBuffer[] slabs;
+    private final int[] freeBlocks;
+    private int freeCount;
+    private final LinkedHashMap<Object, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public OffHeapTaskCache(long capacityBytes, int blockSize) {
+        if (blockSize <= 0 || SLAB_SIZE % blockSize != 0) {
+            throw new IllegalArgumentException("Block size must divide " + SLAB_SIZE + ": " + blockSize);
+        }
+        this.blockSize = blockSize;
+        this.blocksPerSlab = SLAB_SIZE / blockSize;
+        this.totalBlocks = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, capacityBytes / blockSize));
+        this.slabs = new ByteBuffer[(totalBlocks + blocksPerSlab - 1) / blocksPerSlab];
+        this.freeBlocks = new int[totalBlocks];
+        for (int i = 0; i < totalBlocks; i++) {
+            freeBlocks[i] = totalBlocks - 1 - i;
+        }
+        this.freeCount = totalBlocks;
+    }
+
+    /**
+     * Stores the task, replacing any previous entry for the key.
+     * Tasks larger than the whole cache are not stored.
+     */
+    public void put(Object key, VersionedTask entry, Duration timeToLive) {
+        byte[] bytes = BinaryTaskCodec.toBytes(entry.task());
+        int needed = Math.max(1, (bytes.length + blockSize - 1) / blockSize);
+        long expiresAt = System.nanoTime() + timeToLive.toNanos();
+
+        lock.lock();
+        try {
+            release(entries.remove(key));
+            if (needed > totalBlocks) {
+                return;
+            }
+            evictUntilFree(needed);
+            int[] blocks = new int[needed];
+            for (int i = 0; i < needed; i++) {
+                blocks[i] = freeBlocks[--freeCount];
+                int offset = i * blockSize;
+                slabFor(blocks[i]).put(offsetOf(blocks[i]), bytes, offset, Math.min(blockSize, bytes.length - offset));
+            }
+            entries.put(key, new Entry(blocks, bytes.length, expiresAt, entry.version()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the cached task, or null if absent or expired
+     */
+    public VersionedTask get(Object key) {
+        return read(key, false);
+    }
+
+    /**
+     * Removes the entry and returns its task, or null if absent or expired.
+     */
+    public VersionedTask take(Object key) {
+        return read(key, true);
+    }
+
+    public void remove(Object key) {
+        lock.lock();
+        try {
+            release(entries.remove(key));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            entries.values().forEach(this::release);
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long usedBytes() {
+        lock.lock();
+        try {
+            return (long) (totalBlocks - freeCount) * blockSize;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    private VersionedTask read(Object key, boolean remove) {
+        byte[] bytes;
+        long version;
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry == null || entry.expiresAt() - System.nanoTime() <= 0) {
+                if (entry != null) {
+                    release(entries.remove(key));
+                }
+                misses.increment();
+                return null;
+            }
+            bytes = new byte[entry.length()];
+            version = entry.version();
+            int[] blocks = entry.blocks();
+            for (int i = 0; i < blocks.length; i++) {
+                int offset = i * blockSize;
+                slabFor(blocks[i]).get(offsetOf(blocks[i]), bytes, offset, Math.min(blockSize, bytes.length - offset));
+            }
+            if (remove) {
+                release(entries.remove(key));
+            }
+            hits.increment();
+        } finally {
+            lock.unlock();
+        }
+        return new VersionedTask(BinaryTaskCodec.fromBytes(bytes), version);
+    }
+
+    private void evictUntilFree(int needed) {
+        Iterator<Map.Entry<Object, Entry>> eldest = entries.entrySet().iterator();
+        while (freeCount < needed && eldest.hasNext()) {
+            release(eldest.next().getValue());
+            eldest.remove();
+        }
+    }
+
+    private void release(Entry entry) {
+        if (entry == null) {
+            return;
+        }
+        for (int block : entry.blocks()) {
+            freeBlocks[freeCount++] = block;
+        }
+    }
+
+    private ByteBuffer slabFor(int block) {
+        int slab = block / blocksPerSlab;
+        if (slabs[slab] == null) {
+            int blocksInSlab = Math.min(blocksPerSlab, totalBlocks - slab * blocksPerSlab);
+            slabs[slab] = ByteBuffer.allocateDirect(blocksInSlab * blockSize);
+        }
+        return slabs[slab];
+    }
+
+    private int offsetOf(int block) {
+        return (block % blocksPerSlab) * blockSize;
+    }
+
+    private record Entry(int[] blocks, int length, long expiresAt, long version) {
+    }
+}
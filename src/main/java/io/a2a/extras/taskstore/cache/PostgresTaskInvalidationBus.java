@@ -0,0 +1,191 @@
+package io.a2a.extras.taskstore.cache;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.a2a.extras.taskstore.jdbc.ReplicaRoutingDataSource;
+import io.a2a.extras.taskstore.jdbc.SqlConstants;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * {@link TaskInvalidationBus} over PostgreSQL {@code LISTEN/NOTIFY}.
+ * <p>
+ * {@link #publish} issues {@code pg_notify} in the caller's transaction, so PostgreSQL delivers it only on commit.
+ * A daemon thread holds a dedicated connection listening on {@link #CHANNEL}. Notifications carry the publishing
+ * node's id so a node ignores its own changes. After the listener connection is lost and re-established,
+ * listeners get {@link Listener#onChangesMissed()}. A listener that throws is logged and does not stop the others
+ * or the thread; any other failure of the thread is handled like a lost connection.
+ */
+public class PostgresTaskInvalidationBus implements TaskInvalidationBus, SmartLifecycle {
+
+    public static final String CHANNEL = "a2a_task_changed";
+
+    private static final Logger log = LoggerFactory.getLogger(PostgresTaskInvalidationBus.class);
+    private static final int POLL_TIMEOUT_MILLIS = 1000;
+    private static final long RECONNECT_DELAY_MILLIS = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private volatile boolean running;
+    private Thread listenerThread;
+    private DataSource listenerDataSource;
+
+    public PostgresTaskInvalidationBus(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void publish(String taskId) {
+        jdbcTemplate.query(SqlConstants.NOTIFY_TASK_CHANGED, (ResultSetExtractor<Object>) rs -> null,
+                CHANNEL, nodeId + ":" + taskId);
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        listenerThread = new Thread(this::listen, "a2a-task-invalidation");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+            listenerThread = null;
+        }
+        if (listenerDataSource instanceof HikariDataSource pool) {
+            pool.close();
+        }
+        listenerDataSource = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = openListenerConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                if (reconnecting) {
+                    notifyListeners(Listener::onChangesMissed);
+                }
+                reconnecting = true;
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            dispatch(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Task invalidation listener failed, reconnecting in {} ms", RECONNECT_DELAY_MILLIS, e);
+                reconnecting = true;
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void dispatch(String payload) {
+        int separator = payload.indexOf(':');
+        if (separator < 0 || payload.substring(0, separator).equals(nodeId)) {
+            return;
+        }
+        String taskId = payload.substring(separator + 1);
+        notifyListeners(listener -> listener.onTaskChanged(taskId));
+    }
+
+    private void notifyListeners(Consumer<Listener> notification) {
+        for (Listener listener : listeners) {
+            try {
+                notification.accept(listener);
+            } catch (RuntimeException e) {
+                log.warn("Task invalidation listener {} failed", listener, e);
+            }
+        }
+    }
+
+    /**
+     * Opens a connection outside the pool when possible, so the long-lived listener neither occupies
+     * a pool slot nor trips leak detection.
+     */
+    private Connection openListenerConnection() throws SQLException {
+        return listenerDataSource().getConnection();
+    }
+
+    /**
+     * For a Hikari pool, a pool of one connection with the same configuration (driver properties, init SQL,
+     * schema...), created on first use; otherwise the data source itself.
+     */
+    private synchronized DataSource listenerDataSource() throws SQLException {
+        if (!running) {
+            throw new SQLException("Task invalidation bus is stopped");
+        }
+        if (listenerDataSource != null) {
+            return listenerDataSource;
+        }
+        DataSource dataSource = jdbcTemplate.getDataSource();
+        if (dataSource instanceof ReplicaRoutingDataSource routing) {
+            // Notifications are sent on the primary
+            dataSource = routing.getPrimary();
+        }
+        if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+            return dataSource;
+        }
+        HikariConfig config = new HikariConfig();
+        dataSource.unwrap(HikariDataSource.class).copyStateTo(config);
+        config.setPoolName("a2a-task-invalidation");
+        config.setMaximumPoolSize(1);
+        // LISTEN takes effect on commit
+        config.setAutoCommit(true);
+        config.setMinimumIdle(0);
+        config.setLeakDetectionThreshold(0);
+        config.setRegisterMbeans(false);
+        config.setMetricRegistry(null);
+        config.setMetricsTrackerFactory(null);
+        config.setHealthCheckRegistry(null);
+        // Connect on first use, so that an unreachable database is retried by the listener loop
+        config.setInitializationFailTimeout(-1);
+        listenerDataSource = new HikariDataSource(config);
+        return listenerDataSource;
+    }
+}
@@ -0,0 +1,61 @@
+package io.a2a.extras.taskstore.cache;
+
+import io.a2a.extras.taskstore.A2aTaskStoreProperties;
+import io.a2a.spec.Task;
+import io.a2a.spec.TaskState;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Default {@link TaskCachePolicy}.
+ * <ul>
+ *   <li>Active tasks live for {@code ttl-minutes}, finalized tasks for {@code finalized-ttl-minutes}.</li>
+ *   <li>With {@code finalized-only}, active tasks are cached only when {@code write-through} keeps them current.</li>
+ *   <li>Every read of a finalized task adds {@code finalized-read-extension-minutes},
+ *       capped at {@code finalized-max-ttl-minutes}.</li>
+ * </ul>
+ */
+public class StateAwareTaskCachePolicy implements TaskCachePolicy {
+
+    private static final Set<TaskState> FINAL_STATES = EnumSet.of(
+        TaskState.COMPLETED, TaskState.CANCELED, TaskState.FAILED, TaskState.REJECTED
+    );
+
+    private final A2aTaskStoreProperties.CacheProperties cacheProperties;
+
+    public StateAwareTaskCachePolicy(A2aTaskStoreProperties.CacheProperties cacheProperties) {
+        this.cacheProperties = cacheProperties;
+    }
+
+    @Override
+    public boolean admit(Task task) {
+        return isFinalized(task) || !cacheProperties.isFinalizedOnly() || cacheProperties.isWriteThrough();
+    }
+
+    @Override
+    public Duration timeToLive(Task task) {
+        return Duration.ofMinutes(isFinalized(task)
+            ? cacheProperties.getFinalizedTtlMinutes()
+            : cacheProperties.getTtlMinutes());
+    }
+
+    @Override
+    public Duration afterRead(Task task, Duration remaining) {
+        int extensionMinutes = cacheProperties.getFinalizedReadExtensionMinutes();
+        if (extensionMinutes <= 0 || !isFinalized(task)) {
+            return remaining;
+        }
+        Duration cap = Duration.ofMinutes(cacheProperties.getFinalizedMaxTtlMinutes());
+        Duration extended = remaining.plusMinutes(extensionMinutes);
+        if (extended.compareTo(cap) <= 0) {
+            return extended;
+        }
+        return remaining.compareTo(cap) > 0 ? remaining : cap;
+    }
+
+    private static boolean isFinalized(Task task) {
+        return task.getStatus() != null && FINAL_STATES.contains(task.getStatus().state());
+    }
+}
@@ -0,0 +1,40 @@
+package io.a2a.extras.taskstore.cache;
+
+import io.a2a.spec.Task;
+
+import java.time.Duration;
+
+/**
+ * Decides which tasks enter the {@link CacheConfig#TASK_CACHE} cache and how long they stay there.
+ * Register a bean of this type to replace the default {@link StateAwareTaskCachePolicy}.
+ * <p>
+ * Tasks are passed as {@link io.a2a.extras.taskstore.jdbc.VersionedTask#header()}, which may omit the history.
+ */
+public interface TaskCachePolicy {
+
+    /**
+     * Whether the task may be stored in the cache at all.
+     *
+     * @param task the task about to be cached
+     * @return false to skip caching (any existing entry for the task is evicted)
+     */
+    boolean admit(Task task);
+
+    /**
+     * Lifetime of an entry that was just created or replaced.
+     * Called again on every replacement, so a task changing state gets a fresh TTL.
+     *
+     * @param task the cached task
+     * @return time until the entry expires
+     */
+    Duration timeToLive(Task task);
+
+    /**
+     * Lifetime of an entry after it was read.
+     *
+     * @param task the cached task
+     * @param remaining the time left before the read
+     * @return time until the entry expires, {@code remaining} to keep the current expiry
+     */
+    Duration afterRead(Task task, Duration remaining);
+}
@@ -0,0 +1,84 @@
+package io.a2a.extras.taskstore.cache;
+
+import io.a2a.extras.taskstore.jdbc.VersionedTask;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * File form of the task cache, written on shutdown and read back on startup.
+ * <p>
+ * Layout: magic {@code A2TC}, format version, entry count, then per entry the task version and the
+ * {@link BinaryTaskCodec} bytes prefixed by their length. Files with another magic or format version are rejected.
+ */
+public final class TaskCacheSnapshot {
+
+    private static final int MAGIC = 0x41325443;
+    private static final int FORMAT_VERSION = 1;
+
+    private TaskCacheSnapshot() {
+    }
+
+    /**
+     * Writes the entries to a temporary file next to {@code file}, then moves it in place,
+     * so a crash mid-write never leaves a truncated snapshot behind.
+     */
+    public static void write(Path file, Collection<VersionedTask> entries) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tmp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(entries.size());
+                for (VersionedTask entry : entries) {
+                    byte[] bytes = BinaryTaskCodec.toBytes(entry.task());
+                    out.writeLong(entry.version());
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * @return the entries in the snapshot, or an empty list if the file does not exist
+     * @throws IOException if the file cannot be read or was not written by this format version
+     */
+    public static List<VersionedTask> read(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return List.of();
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a task cache snapshot: " + file);
+            }
+            int formatVersion = in.readInt();
+            if (formatVersion != FORMAT_VERSION) {
+                throw new IOException("Unsupported task cache snapshot version " + formatVersion + ": " + file);
+            }
+            int count = in.readInt();
+            List<VersionedTask> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                long version = in.readLong();
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                entries.add(new VersionedTask(BinaryTaskCodec.fromBytes(bytes), version));
+            }
+            return entries;
+        }
+    }
+}
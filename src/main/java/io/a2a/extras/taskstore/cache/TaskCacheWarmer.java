@@ -0,0 +1,135 @@
+package io.a2a.extras.taskstore.cache;
+
+import io.a2a.extras.taskstore.A2aTaskStoreProperties;
+import io.a2a.extras.taskstore.jdbc.JdbcTaskStore;
+import io.a2a.extras.taskstore.jdbc.VersionedTask;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fills the task cache in the background at startup and saves it on graceful shutdown.
+ * <p>
+ * With {@code snapshot-enabled}, the cache is written to a {@link TaskCacheSnapshot} on stop and restored on the next
+ * start; restored tasks are checked against their database version first and the file is deleted once read.
+ * With {@code from-database}, recently updated active tasks are then preloaded in bulk.
+ * Warmup failures are logged and never fail startup.
+ */
+public class TaskCacheWarmer implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskCacheWarmer.class);
+
+    private final JdbcTaskStore taskStore;
+    private final Cache taskCache;
+    private final A2aTaskStoreProperties.WarmupProperties warmup;
+    private volatile boolean running;
+    private Thread warmupThread;
+
+    public TaskCacheWarmer(JdbcTaskStore taskStore, Cache taskCache, A2aTaskStoreProperties.WarmupProperties warmup) {
+        this.taskStore = taskStore;
+        this.taskCache = taskCache;
+        this.warmup = warmup;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        warmupThread = new Thread(this::warm, "a2a-cache-warmup");
+        warmupThread.setDaemon(true);
+        warmupThread.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        if (warmupThread != null) {
+            warmupThread.interrupt();
+            warmupThread = null;
+        }
+        if (warmup.isSnapshotEnabled()) {
+            saveSnapshot();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Restores the snapshot and preloads from the database, in that order. Runs on the warmup thread.
+     */
+    void warm() {
+        try {
+            if (warmup.isSnapshotEnabled()) {
+                restoreSnapshot();
+            }
+            if (warmup.isFromDatabase() && running) {
+                int loaded = taskStore.warmCache(Duration.ofMinutes(warmup.getUpdatedWithinMinutes()), warmup.getMaxTasks());
+                log.info("Preloaded {} recently updated tasks into the task cache", loaded);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Task cache warmup failed", e);
+        }
+    }
+
+    private void restoreSnapshot() {
+        Path file = Path.of(warmup.getSnapshotFile());
+        try {
+            List<VersionedTask> entries = TaskCacheSnapshot.read(file);
+            if (!entries.isEmpty()) {
+                int restored = taskStore.restoreCache(entries);
+                log.info("Restored {} of {} tasks from cache snapshot {}", restored, entries.size(), file);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable task cache snapshot {}", file, e);
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete task cache snapshot {}", file, e);
+        }
+    }
+
+    void saveSnapshot() {
+        Path file = Path.of(warmup.getSnapshotFile());
+        List<VersionedTask> entries = cachedEntries();
+        try {
+            TaskCacheSnapshot.write(file, entries);
+            log.info("Saved {} cached tasks to {}", entries.size(), file);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not save task cache snapshot {}", file, e);
+        }
+    }
+
+    /**
+     * Entries of the heap tier; tasks spilled to the off-heap tier are not part of the snapshot.
+     */
+    private List<VersionedTask> cachedEntries() {
+        Object nativeCache = taskCache.getNativeCache();
+        Map<?, ?> entries = Map.of();
+        if (nativeCache instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+            entries = caffeine.asMap();
+        } else if (nativeCache instanceof Map<?, ?> map) {
+            entries = map;
+        }
+        return entries.values().stream()
+                .filter(VersionedTask.class::isInstance)
+                .map(VersionedTask.class::cast)
+                .toList();
+    }
+}
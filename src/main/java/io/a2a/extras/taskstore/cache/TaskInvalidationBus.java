@@ -0,0 +1,58 @@
+package io.a2a.extras.taskstore.cache;
+
+import org.springframework.cache.Cache;
+
+/**
+ * Tells other application instances that a task changed so they can drop their cached copy.
+ * Selected with {@code a2a.taskstore.cache.invalidation}.
+ */
+public interface TaskInvalidationBus {
+
+    TaskInvalidationBus NONE = new TaskInvalidationBus() {
+        @Override
+        public void publish(String taskId) {
+        }
+
+        @Override
+        public void subscribe(Listener listener) {
+        }
+    };
+
+    /**
+     * Announces a change to the task. Called inside the writing transaction;
+     * other nodes are notified only if it commits.
+     */
+    void publish(String taskId);
+
+    /**
+     * Registers a listener for changes published by other nodes.
+     */
+    void subscribe(Listener listener);
+
+    interface Listener {
+
+        void onTaskChanged(String taskId);
+
+        /**
+         * Called when changes may have been missed, e.g. after the bus reconnected.
+         */
+        void onChangesMissed();
+    }
+
+    /**
+     * Listener that keeps the given cache consistent with the published changes.
+     */
+    static Listener evicting(Cache cache) {
+        return new Listener() {
+            @Override
+            public void onTaskChanged(String taskId) {
+                cache.evict(taskId);
+            }
+
+            @Override
+            public void onChangesMissed() {
+                cache.clear();
+            }
+        };
+    }
+}
@@ -0,0 +1,127 @@
+package io.a2a.extras.taskstore.cache;
+
+import io.a2a.extras.taskstore.jdbc.VersionedTask;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * {@link CacheConfig#TASK_CACHE} view over the Caffeine cache (L1) and an {@link OffHeapTaskCache} (L2).
+ * <p>
+ * L2 is filled with tasks L1 drops for size (see {@link CacheConfig}). An L1 miss moves the task from L2 back
+ * into L1 before the caller falls back to the database. Writes and evictions always apply to both levels.
+ * <p>
+ * A promotion never overwrites an entry a writer put into L1 meanwhile, and is undone when the key was evicted
+ * while it was under way, as the promoted copy may predate the change that evicted it. Evictions are counted in
+ * a fixed number of stripes by key hash, so an eviction of another key in the same stripe only costs a miss.
+ */
+public class TieredTaskCache implements Cache {
+
+    private static final int EVICTION_STRIPES = 64;
+
+    private final Cache l1;
+    private final OffHeapTaskCache l2;
+    private final AtomicLongArray evictions = new AtomicLongArray(EVICTION_STRIPES);
+
+    public TieredTaskCache(Cache l1, OffHeapTaskCache l2) {
+        this.l1 = l1;
+        this.l2 = l2;
+    }
+
+    @Override
+    public String getName() {
+        return l1.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return l1.getNativeCache();
+    }
+
+    public OffHeapTaskCache getOffHeapCache() {
+        return l2;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper hit = l1.get(key);
+        if (hit != null) {
+            return hit;
+        }
+        int stripe = stripe(key);
+        long evictionsBefore = evictions.get(stripe);
+        VersionedTask promoted = l2.take(key);
+        if (promoted == null) {
+            return null;
+        }
+        ValueWrapper existing = l1.putIfAbsent(key, promoted);
+        if (existing != null) {
+            return existing;
+        }
+        if (evictions.get(stripe) != evictionsBefore) {
+            l1.evict(key);
+            return null;
+        }
+        return new SimpleValueWrapper(promoted);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        return l1.get(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        l2.remove(key);
+        l1.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = get(key);
+        if (existing != null) {
+            return existing;
+        }
+        return l1.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        // Counted before the removal, so a promotion that misses the count has put its entry before it is removed
+        evictions.incrementAndGet(stripe(key));
+        l1.evict(key);
+        l2.remove(key);
+    }
+
+    @Override
+    public void clear() {
+        for (int stripe = 0; stripe < EVICTION_STRIPES; stripe++) {
+            evictions.incrementAndGet(stripe);
+        }
+        l1.clear();
+        l2.clear();
+    }
+
+    private static int stripe(Object key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (EVICTION_STRIPES - 1);
+    }
+}
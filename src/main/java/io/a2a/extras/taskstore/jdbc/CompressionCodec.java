@@ -0,0 +1,98 @@
+package io.a2a.extras.taskstore.jdbc;
+
+import com.github.luben.zstd.Zstd;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compression of large parts payloads, recorded per row in {@code content_codec}; compressed payloads are stored
+ * in {@code content_bin}.
+ * <p>
+ * {@link #ZSTD} needs {@code com.github.luben:zstd-jni} on the classpath; {@link #DEFLATE} only the JDK.
+ */
+public enum CompressionCodec {
+
+    ZSTD {
+        @Override
+        public byte[] compress(byte[] data, int level) {
+            return Zstd.compress(data, level);
+        }
+
+        @Override
+        public byte[] decompress(byte[] data) {
+            long size = Zstd.decompressedSize(data);
+            if (size <= 0 || size > Integer.MAX_VALUE) {
+                throw new IllegalStateException("ZSTD frame without a usable content size: " + size);
+            }
+            return Zstd.decompress(data, (int) size);
+        }
+    },
+    DEFLATE {
+        @Override
+        public byte[] compress(byte[] data, int level) {
+            Deflater deflater = new Deflater(Math.max(Deflater.BEST_SPEED, Math.min(level, Deflater.BEST_COMPRESSION)));
+            try {
+                deflater.setInput(data);
+                deflater.finish();
+                ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2);
+                byte[] buffer = new byte[8192];
+                while (!deflater.finished()) {
+                    out.write(buffer, 0, deflater.deflate(buffer));
+                }
+                return out.toByteArray();
+            } finally {
+                deflater.end();
+            }
+        }
+
+        @Override
+        public byte[] decompress(byte[] data) {
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(data);
+                ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+                byte[] buffer = new byte[8192];
+                while (!inflater.finished()) {
+                    int inflated = inflater.inflate(buffer);
+                    if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        throw new IllegalStateException("Truncated DEFLATE payload");
+                    }
+                    out.write(buffer, 0, inflated);
+                }
+                return out.toByteArray();
+            } catch (DataFormatException e) {
+                throw new IllegalStateException("Corrupt DEFLATE payload", e);
+            } finally {
+                inflater.end();
+            }
+        }
+    };
+
+    public abstract byte[] compress(byte[] data, int level);
+
+    public abstract byte[] decompress(byte[] data);
+
+    /**
+     * Fails fast if the codec's library is missing, instead of on the first large payload.
+     */
+    public void checkAvailable() {
+        if (this == ZSTD) {
+            try {
+                Class.forName("com.github.luben.zstd.Zstd");
+            } catch (ClassNotFoundException | LinkageError e) {
+                throw new IllegalStateException(
+                        "ZSTD compression requires com.github.luben:zstd-jni on the classpath", e);
+            }
+        }
+    }
+
+    /**
+     * @param marker the {@code content_codec} column value; null for uncompressed rows
+     */
+    public static CompressionCodec fromMarker(String marker) {
+        return marker == null ? null : valueOf(marker);
+    }
+}
@@ -0,0 +1,98 @@
+package io.a2a.extras.taskstore.jdbc;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.a2a.spec.Part;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Encoding of the message and artifact parts, recorded per row in {@code content_format}.
+ * {@link #JSON} parts are stored in {@code content_json}; the binary formats in the {@code content_bin} column.
+ */
+public enum ContentFormat {
+
+    JSON(null),
+    SMILE(SmileMapper.builder().addModule(new JavaTimeModule()).build()),
+    CBOR(CBORMapper.builder().addModule(new JavaTimeModule()).build());
+
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+
+    ContentFormat(ObjectMapper mapper) {
+        this.reader = mapper != null ? mapper.readerFor(JsonUtils.PARTS_TYPE) : null;
+        this.writer = mapper != null ? mapper.writerFor(JsonUtils.PARTS_TYPE) : null;
+    }
+
+    public boolean isBinary() {
+        return this != JSON;
+    }
+
+    /**
+     * @param marker the {@code content_format} column value; rows written before the column existed hold null
+     */
+    public static ContentFormat fromMarker(String marker) {
+        return marker == null ? JSON : valueOf(marker);
+    }
+
+    public byte[] write(List<Part<?>> parts) {
+        if (!isBinary()) {
+            return JsonUtils.PARTS.writeBytes(parts);
+        }
+        try {
+            return writer.writeValueAsBytes(parts);
+        } catch (IOException e) {
+            throw new RuntimeException(name() + " serialize failed: parts", e);
+        }
+    }
+
+    public List<Part<?>> read(byte[] bytes) {
+        return read(bytes, JsonUtils.PARTS);
+    }
+
+    /**
+     * @param json reads the parts in the {@link #JSON} format
+     */
+    public List<Part<?>> read(byte[] bytes, JsonUtils.JsonCodec<List<Part<?>>> json) {
+        if (!isBinary()) {
+            return json.read(bytes).orElse(null);
+        }
+        try {
+            return reader.readValue(bytes);
+        } catch (IOException e) {
+            throw new RuntimeException(name() + " deserialize failed: parts", e);
+        }
+    }
+
+    /**
+     * Copies stored parts to {@code generator} as JSON without binding them to {@link Part}s.
+     *
+     * @return false if {@code bytes} holds no parts, in which case nothing was written
+     */
+    public boolean copy(byte[] bytes, JsonGenerator generator) throws IOException {
+        return copy(bytes, generator, JsonUtils.PARTS);
+    }
+
+    /**
+     * @param json copies the parts in the {@link #JSON} format
+     */
+    public boolean copy(byte[] bytes, JsonGenerator generator, JsonUtils.JsonCodec<List<Part<?>>> json) throws IOException {
+        if (!isBinary()) {
+            return json.copy(bytes, generator);
+        }
+        try (JsonParser parser = reader.createParser(bytes)) {
+            if (parser.nextToken() == null) {
+                return false;
+            }
+            generator.copyCurrentStructure(parser);
+            return true;
+        }
+    }
+}
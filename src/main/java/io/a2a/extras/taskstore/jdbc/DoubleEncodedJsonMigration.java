@@ -0,0 +1,223 @@
+package io.a2a.extras.taskstore.jdbc;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.core.StatementCreatorUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static io.a2a.extras.taskstore.jdbc.SqlConstants.*;
+
+/**
+ * Rewrites JSON columns that were stored double-encoded, as a JSON string holding the document, into the document
+ * itself, so {@link JsonUtils#setDoubleEncodedFallback the read fallback} can be turned off afterwards.
+ * <p>
+ * Runs online in the background: each column is walked in primary key order, {@code batchSize} legacy rows at a time,
+ * and a row is only rewritten if it still holds the value that was read, so concurrent saves always win.
+ * Values that do not unwrap to valid JSON are left alone and logged.
+ */
+public class DoubleEncodedJsonMigration implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(DoubleEncodedJsonMigration.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JsonbAdapter jsonbAdapter;
+    private final int batchSize;
+    private final long pauseMillis;
+    private final List<Column> columns = List.of(
+            new Column(TABLE_TASKS, COL_STATUS_MESSAGE_JSON, COL_TASK_ID),
+            new Column(TABLE_TASKS, COL_METADATA_JSON, COL_TASK_ID),
+            new Column(TABLE_HISTORY, COL_CONTENT_JSON, COL_MESSAGE_ID, COL_TASK_ID),
+            new Column(TABLE_HISTORY, COL_METADATA_JSON, COL_MESSAGE_ID, COL_TASK_ID),
+            new Column(TABLE_ARTIFACTS, COL_CONTENT_JSON, COL_ARTIFACT_ID, COL_TASK_ID),
+            new Column(TABLE_ARTIFACTS, COL_METADATA_JSON, COL_ARTIFACT_ID, COL_TASK_ID),
+            new Column(TABLE_ARTIFACTS, COL_EXTENSIONS_JSON, COL_ARTIFACT_ID, COL_TASK_ID));
+    private volatile boolean running;
+    private Thread migrationThread;
+
+    public DoubleEncodedJsonMigration(JdbcTemplate jdbcTemplate, JsonbAdapter jsonbAdapter, int batchSize, long pauseMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.jsonbAdapter = jsonbAdapter;
+        this.batchSize = batchSize;
+        this.pauseMillis = pauseMillis;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        migrationThread = new Thread(this::run, "a2a-json-migration");
+        migrationThread.setDaemon(true);
+        migrationThread.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (migrationThread != null) {
+            migrationThread.interrupt();
+            migrationThread = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        long rewritten = 0;
+        try {
+            while (running && !isComplete()) {
+                rewritten += migrateBatch();
+                Thread.sleep(pauseMillis);
+            }
+            if (isComplete()) {
+                log.info("Double-encoded JSON migration finished, {} values rewritten", rewritten);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("Double-encoded JSON migration failed after {} values", rewritten, e);
+        }
+    }
+
+    /**
+     * Rewrites the next batch of each column that is not done yet.
+     *
+     * @return number of values rewritten
+     */
+    public int migrateBatch() {
+        int rewritten = 0;
+        for (Column column : columns) {
+            if (!column.done) {
+                rewritten += migrateBatch(column);
+            }
+        }
+        return rewritten;
+    }
+
+    /**
+     * Whether every column has been walked to the end.
+     */
+    public boolean isComplete() {
+        return columns.stream().allMatch(column -> column.done);
+    }
+
+    private int migrateBatch(Column column) {
+        List<Object> args = new ArrayList<>();
+        String keys = String.join(", ", column.keys);
+        StringBuilder sql = new StringBuilder("SELECT ").append(keys).append(", CAST(").append(column.name)
+                .append(" AS VARCHAR) FROM ").append(column.table)
+                .append(" WHERE CAST(").append(column.name).append(" AS VARCHAR) LIKE '\"%'");
+        if (column.lastKey != null) {
+            sql.append(" AND (").append(keys).append(") > (")
+                    .append(String.join(", ", column.keys.stream().map(key -> "?").toList())).append(')');
+            args.addAll(Arrays.asList(column.lastKey));
+        }
+        sql.append(" ORDER BY ").append(keys).append(" LIMIT ?");
+        args.add(batchSize);
+
+        int keyCount = column.keys.size();
+        List<Object[]> rows = jdbcTemplate.query(sql.toString(), (rs, rowNum) -> {
+            Object[] row = new Object[keyCount + 1];
+            for (int i = 0; i < row.length; i++) {
+                row[i] = rs.getObject(i + 1);
+            }
+            return row;
+        }, args.toArray());
+
+        List<Rewrite> rewrites = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            String stored = (String) row[keyCount];
+            String document = unwrap(stored);
+            if (document == null) {
+                log.warn("Skipping {}.{} {}: not double-encoded JSON", column.table, column.name,
+                        Arrays.toString(Arrays.copyOf(row, keyCount)));
+                continue;
+            }
+            rewrites.add(new Rewrite(Arrays.copyOf(row, keyCount), document.getBytes(StandardCharsets.UTF_8), stored));
+        }
+
+        int rewritten = 0;
+        if (!rewrites.isEmpty()) {
+            String update = "UPDATE " + column.table + " SET " + column.name + " = ? WHERE "
+                    + String.join(" AND ", column.keys.stream().map(key -> key + " = ?").toList())
+                    + " AND CAST(" + column.name + " AS VARCHAR) = ?";
+            for (int count : jdbcTemplate.batchUpdate(update, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    Rewrite rewrite = rewrites.get(i);
+                    jsonbAdapter.bind(ps, 1, rewrite.document());
+                    for (int key = 0; key < keyCount; key++) {
+                        StatementCreatorUtils.setParameterValue(ps, key + 2, SqlTypeValue.TYPE_UNKNOWN, rewrite.key()[key]);
+                    }
+                    ps.setString(keyCount + 2, rewrite.stored());
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return rewrites.size();
+                }
+            })) {
+                rewritten += Math.max(count, 0);
+            }
+        }
+        if (rows.size() < batchSize) {
+            column.done = true;
+        } else {
+            column.lastKey = Arrays.copyOf(rows.get(rows.size() - 1), keyCount);
+        }
+        return rewritten;
+    }
+
+    /**
+     * The document inside a double-encoded value, unwrapping repeatedly encoded values too;
+     * null if the value does not hold valid JSON.
+     */
+    private static String unwrap(String stored) {
+        String document = stored;
+        String inner;
+        while ((inner = JsonUtils.unwrapDoubleEncoded(document)) != null) {
+            document = inner;
+        }
+        if (document.equals(stored)) {
+            return null;
+        }
+        try {
+            JsonUtils.MAPPER.readTree(document);
+            return document;
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private record Rewrite(Object[] key, byte[] document, String stored) {
+    }
+
+    private static final class Column {
+        private final String table;
+        private final String name;
+        private final List<String> keys;
+        private Object[] lastKey;
+        private boolean done;
+
+        private Column(String table, String name, String... keys) {
+            this.table = table;
+            this.name = name;
+            this.keys = List.of(keys);
+        }
+    }
+}
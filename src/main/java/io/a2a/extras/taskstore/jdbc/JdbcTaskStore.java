@@ -1,45 +1,172 @@
 package io.a2a.extras.taskstore.jdbc;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import io.a2a.extras.taskstore.A2aTaskStoreProperties;
+import io.a2a.extras.taskstore.admission.AdmissionController;
+import io.a2a.extras.taskstore.admission.Bulkhead;
 import io.a2a.extras.taskstore.cache.CacheConfig;
+import io.a2a.extras.taskstore.cache.TaskInvalidationBus;
+import io.a2a.extras.taskstore.metrics.TaskStoreMetrics;
 import io.a2a.extras.taskstore.repository.ArtifactRepository;
 import io.a2a.extras.taskstore.repository.HistoryRepository;
 import io.a2a.extras.taskstore.repository.TaskRepository;
 import io.a2a.server.tasks.TaskStateProvider;
 import io.a2a.server.tasks.TaskStore;
+import io.a2a.spec.Artifact;
+import io.a2a.spec.Message;
 import io.a2a.spec.Task;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.Cache;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
 public class JdbcTaskStore implements TaskStore, TaskStateProvider {
 
+    /** Upper bound for ids in one {@code IN} list of the bulk cache loads */
+    private static final int BULK_LOAD_CHUNK_SIZE = 500;
+
     private final TaskRepository taskRepository;
     private final HistoryRepository historyRepository;
     private final ArtifactRepository artifactRepository;
     private final A2aTaskStoreProperties properties;
+    private final JsonUtils.JsonCodec<Map<String, Object>> metadataCodec;
+    private final Cache taskCache;
+    private final TaskInvalidationBus invalidationBus;
+    private final TaskStoreMetrics metrics;
+    private final TaskSaveQueue saveQueue;
+    private final TransactionTemplate transactionTemplate;
+    private final AdmissionController admissionController;
+    private final RecentWrites recentWrites;
 
     public JdbcTaskStore(
             TaskRepository taskRepository,
             HistoryRepository historyRepository,
             ArtifactRepository artifactRepository,
             A2aTaskStoreProperties properties) {
+        this(taskRepository, historyRepository, artifactRepository, properties, null, TaskInvalidationBus.NONE);
+    }
+
+    /**
+     * @param taskCache the {@link CacheConfig#TASK_CACHE} cache, or null to always read from the database
+     * @param invalidationBus notifies other nodes of saved and deleted tasks
+     */
+    public JdbcTaskStore(
+            TaskRepository taskRepository,
+            HistoryRepository historyRepository,
+            ArtifactRepository artifactRepository,
+            A2aTaskStoreProperties properties,
+            Cache taskCache,
+            TaskInvalidationBus invalidationBus) {
+        this(taskRepository, historyRepository, artifactRepository, properties, taskCache, invalidationBus,
+                TaskStoreMetrics.NOOP);
+    }
+
+    /**
+     * @param metrics times database loads after cache misses
+     */
+    public JdbcTaskStore(
+            TaskRepository taskRepository,
+            HistoryRepository historyRepository,
+            ArtifactRepository artifactRepository,
+            A2aTaskStoreProperties properties,
+            Cache taskCache,
+            TaskInvalidationBus invalidationBus,
+            TaskStoreMetrics metrics) {
+        this(taskRepository, historyRepository, artifactRepository, properties, taskCache, invalidationBus, metrics,
+                new DataSourceTransactionManager(taskRepository.getDataSource()), null);
+    }
+
+    /**
+     * @param transactionManager runs the transactions of saves made outside a transaction
+     * @param admissionController admits those saves through its write bulkhead, or null to not limit them
+     */
+    public JdbcTaskStore(
+            TaskRepository taskRepository,
+            HistoryRepository historyRepository,
+            ArtifactRepository artifactRepository,
+            A2aTaskStoreProperties properties,
+            Cache taskCache,
+            TaskInvalidationBus invalidationBus,
+            TaskStoreMetrics metrics,
+            PlatformTransactionManager transactionManager,
+            AdmissionController admissionController) {
         this.taskRepository = taskRepository;
         this.historyRepository = historyRepository;
         this.artifactRepository = artifactRepository;
         this.properties = properties;
+        this.metadataCodec = JsonUtils.METADATA_MAP.withDoubleEncodedFallback(properties.getJson().isDoubleEncodedFallback());
+        this.taskCache = taskCache;
+        this.invalidationBus = invalidationBus;
+        this.metrics = metrics;
+        A2aTaskStoreProperties.SaveQueueProperties saveQueueProperties = properties.getSaveQueue();
+        this.saveQueue = saveQueueProperties.isEnabled()
+                ? new TaskSaveQueue(saveQueueProperties.getLockStripes(), Duration.ofMillis(saveQueueProperties.getMaxWaitMillis()))
+                : null;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.admissionController = admissionController;
+        A2aTaskStoreProperties.ReplicaProperties replica = properties.getReplica();
+        this.recentWrites = replica.isEnabled() ? new RecentWrites(Duration.ofMillis(replica.getStickyWindowMillis())) : null;
+        if (recentWrites != null) {
+            invalidationBus.subscribe(recentWrites);
+        }
     }
 
+    /**
+     * Saves the task, in the caller's transaction if one is active and otherwise in a transaction of its own.
+     * Concurrent saves of a task outside transactions are queued within this instance, holding no connection, behind
+     * the one being written and written together by its thread, with snapshots that a later one supersedes skipped;
+     * see {@code a2a.taskstore.save-queue}.
+     */
     @Override
-    @Transactional
-    @CacheEvict(value = CacheConfig.TASK_CACHE, key = "#task.id")
     public void save(Task task) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // Part of the caller's unit of work, ordered by the task lock alone
+            write(task);
+        } else if (saveQueue != null) {
+            saveQueue.save(task, this::writeInTransaction);
+        } else {
+            writeInTransaction(List.of(task));
+        }
+    }
+
+    private void writeInTransaction(List<Task> snapshots) {
+        Bulkhead.Permit permit = admissionController != null ? admissionController.acquire(false) : null;
+        boolean overloaded = false;
+        try {
+            transactionTemplate.executeWithoutResult(status -> snapshots.forEach(this::write));
+        } catch (RuntimeException e) {
+            overloaded = AdmissionController.isOverload(e);
+            throw e;
+        } finally {
+            if (permit != null) {
+                permit.release(overloaded);
+            }
+        }
+    }
+
+    private void write(Task task) {
         String taskId = task.getId();
+        // Serializes concurrent saves of the task, including two that create it
+        taskRepository.lock(taskId);
         taskRepository.save(task);
-        historyRepository.saveAll(taskId, task.getHistory());
+        HistoryRepository.SavedHistory storedHistory = historyRepository.saveAll(taskId, task.getHistory());
 
         if (properties.isStoreArtifacts()) {
             artifactRepository.saveAll(taskId, task.getArtifacts());
@@ -47,40 +174,552 @@ public class JdbcTaskStore implements TaskStore, TaskStateProvider {
         if (properties.isStoreMetadata() && task.getMetadata() != null) {
             taskRepository.updateMetadata(taskId, task.getMetadata());
         }
+        invalidationBus.publish(taskId);
+        markWritten(taskId);
+        refreshCache(task, storedHistory);
+    }
+
+    /**
+     * Appends messages to the history of a task without rewriting the task. Only the new messages are written; the
+     * stored history is neither read nor counted, so the cost does not grow with the history. A cached copy of the
+     * task is patched instead of evicted.
+     *
+     * @param newTask creates the task if it does not exist yet; its history is ignored
+     * @return the version of the task after the append, or -1 if there was nothing to append
+     */
+    @Transactional
+    public long appendHistory(String taskId, List<Message> messages, Supplier<Task> newTask) {
+        if (messages.isEmpty()) {
+            return -1;
+        }
+        taskRepository.lock(taskId);
+        boolean existed = taskRepository.touch(taskId);
+        if (!existed) {
+            taskRepository.save(newTask.get());
+        }
+        int firstSequence = historyRepository.append(taskId, messages);
+        long version = taskRepository.findVersion(taskId).orElseThrow();
+        invalidationBus.publish(taskId);
+        markWritten(taskId);
+        if (existed) {
+            appendToCache(taskId, messages, firstSequence, version);
+        } else {
+            evict(taskId);
+        }
+        return version;
+    }
+
+    /**
+     * Replaces the history of a task, writing only the difference to the stored history when {@code messages} keeps
+     * its tail: older messages are deleted and new ones appended, as when a chat memory window slides. A pure append
+     * patches a cached copy of the task; any other change evicts it.
+     *
+     * @param newTask creates the task if it does not exist yet; its history is ignored
+     * @see HistoryRepository#replace
+     */
+    @Transactional
+    public void replaceHistory(String taskId, List<Message> messages, Supplier<Task> newTask) {
+        taskRepository.lock(taskId);
+        boolean existed = taskRepository.touch(taskId);
+        if (!existed) {
+            taskRepository.save(newTask.get());
+        }
+        HistoryRepository.HistoryDiff diff = historyRepository.replace(taskId, messages);
+        invalidationBus.publish(taskId);
+        markWritten(taskId);
+        Optional<Long> version = existed && diff.isAppendOnly() && taskCache != null
+                ? taskRepository.findVersion(taskId)
+                : Optional.empty();
+        if (version.isPresent()) {
+            appendToCache(taskId, messages.subList(diff.kept(), messages.size()), diff.firstSequence(), version.get());
+        } else {
+            evict(taskId);
+        }
+    }
+
+    /**
+     * Deletes the history of a task, keeping the task itself.
+     *
+     * @return false if the task does not exist
+     */
+    @Transactional
+    public boolean deleteHistory(String taskId) {
+        taskRepository.lock(taskId);
+        if (!taskRepository.touch(taskId)) {
+            return false;
+        }
+        historyRepository.deleteByTaskId(taskId);
+        invalidationBus.publish(taskId);
+        markWritten(taskId);
+        evict(taskId);
+        return true;
+    }
+
+    /**
+     * Returns the last {@code lastN} messages of the history of a task, from the cache if it holds the task and
+     * otherwise by reading only those history rows.
+     *
+     * @return the messages oldest first; empty if the task does not exist
+     */
+    @Transactional(readOnly = true)
+    public List<Message> getHistory(String taskId, int lastN) {
+        return read(taskId, () -> {
+            VersionedTask cached = cachedIfCurrent(taskId);
+            if (cached != null && cached.exists()) {
+                List<Message> history = cached.task().getHistory();
+                return history.subList(Math.max(0, history.size() - lastN), history.size());
+            }
+            return historyRepository.findLastByTaskId(taskId, lastN);
+        });
+    }
+
+    /**
+     * Returns the newest messages of the history of a task that fit into {@code maxTokens}, as estimated by the
+     * {@link TokenEstimator} when the messages were stored. Only the rows in the window are read.
+     *
+     * @return the messages oldest first; empty if the task does not exist or the newest message alone exceeds the budget
+     */
+    @Transactional(readOnly = true)
+    public List<Message> getWithinTokenBudget(String taskId, int maxTokens) {
+        return read(taskId, () -> historyRepository.findWithinTokenBudget(taskId, maxTokens));
+    }
+
+    /**
+     * Returns the last {@code lastN} messages of the histories of several tasks, reading only those rows with one
+     * query per 500 tasks. The cache is not consulted.
+     *
+     * @return the messages per task id, oldest first; tasks without history or that do not exist are absent
+     */
+    @Transactional(readOnly = true)
+    public Map<String, List<Message>> getHistories(Collection<String> taskIds, int lastN) {
+        List<String> distinctIds = taskIds.stream().distinct().toList();
+        if (recentWrites != null && recentWrites.containsAny(distinctIds)) {
+            return ReplicaRoutingDataSource.onPrimary(() -> loadHistories(distinctIds, lastN));
+        }
+        return loadHistories(distinctIds, lastN);
+    }
+
+    private Map<String, List<Message>> loadHistories(List<String> distinctIds, int lastN) {
+        if (distinctIds.size() <= BULK_LOAD_CHUNK_SIZE) {
+            return historyRepository.findLastByTaskIds(distinctIds, lastN);
+        }
+        Map<String, List<Message>> histories = new HashMap<>();
+        for (List<String> chunk : chunks(distinctIds)) {
+            histories.putAll(historyRepository.findLastByTaskIds(chunk, lastN));
+        }
+        return histories;
+    }
+
+    /**
+     * Lists the ids of the tasks that have history.
+     */
+    @Transactional(readOnly = true)
+    public List<String> getTaskIdsWithHistory() {
+        return historyRepository.findTaskIds();
     }
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = CacheConfig.TASK_CACHE, key = "#taskId", unless = "#result == null")
     public Task get(String taskId) {
+        VersionedTask versioned = getVersioned(taskId);
+        return versioned != null ? versioned.task() : null;
+    }
+
+    /**
+     * Same as {@link #get} but also returns the row version, for use with {@link #getIfModified}.
+     *
+     * @return the task and its version, or null if the task does not exist
+     */
+    @Transactional(readOnly = true)
+    public VersionedTask getVersioned(String taskId) {
+        return read(taskId, () -> {
+            VersionedTask cached = cachedIfCurrent(taskId);
+            if (cached != null) {
+                return cached;
+            }
+            if (taskCache == null) {
+                return load(taskId);
+            }
+            VersionedTask loaded = metrics.timeCacheLoad(taskCache.getName(), () -> load(taskId));
+            if (loaded != null) {
+                taskCache.put(taskId, loaded);
+            }
+            return loaded;
+        });
+    }
+
+    /**
+     * Conditional read for callers that keep their own copy of a task.
+     * Costs a single version lookup when the task has not changed.
+     *
+     * @param knownVersion the version of the caller's copy
+     * @return empty if the stored version still equals {@code knownVersion}, otherwise the current task,
+     *         or {@link VersionedTask#ABSENT} if it was deleted
+     */
+    @Transactional(readOnly = true)
+    public Optional<VersionedTask> getIfModified(String taskId, long knownVersion) {
+        Optional<Long> currentVersion = read(taskId, () -> taskRepository.findVersion(taskId));
+        if (currentVersion.isEmpty()) {
+            return Optional.of(VersionedTask.ABSENT);
+        }
+        if (currentVersion.get() == knownVersion) {
+            return Optional.empty();
+        }
+        VersionedTask cached = taskCache != null ? taskCache.get(taskId, VersionedTask.class) : null;
+        if (cached != null && cached.version() == currentVersion.get()) {
+            return Optional.of(cached);
+        }
+        VersionedTask loaded = load(taskId);
+        if (loaded == null) {
+            return Optional.of(VersionedTask.ABSENT);
+        }
+        if (taskCache != null) {
+            taskCache.put(taskId, loaded);
+        }
+        return Optional.of(loaded);
+    }
+
+    /**
+     * The task as A2A JSON, as {@link #get} followed by serialization would produce it.
+     *
+     * @return the JSON, or null if the task does not exist
+     * @see #writeTaskJson
+     */
+    @Transactional(readOnly = true)
+    public String getRawJson(String taskId) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            return writeTaskJson(taskId, out) ? out.toString(StandardCharsets.UTF_8) : null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Streams the task as A2A JSON to {@code out}, for serving tasks without a parse and re-serialize round trip.
+     * A cached task is serialized directly; otherwise the document is assembled from the stored task row, history
+     * and artifact columns with a {@link JsonGenerator}, copying the stored JSON without building domain objects
+     * and without populating the cache. {@code out} is flushed but not closed.
+     *
+     * @return false if the task does not exist, in which case nothing was written
+     */
+    @Transactional(readOnly = true)
+    public boolean writeTaskJson(String taskId, OutputStream out) throws IOException {
+        VersionedTask cached = read(taskId, () -> cachedIfCurrent(taskId));
+        Optional<TaskRepository.TaskRow> taskRow = cached == null
+                ? read(taskId, () -> taskRepository.findById(taskId))
+                : Optional.empty();
+        if (cached == null && taskRow.isEmpty()) {
+            return false;
+        }
+        try (JsonGenerator generator = JsonUtils.MAPPER.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            if (cached != null) {
+                JsonUtils.MAPPER.writeValue(generator, cached.task());
+            } else {
+                writeTaskJson(taskRow.get(), generator);
+            }
+        }
+        return true;
+    }
+
+    private void writeTaskJson(TaskRepository.TaskRow taskRow, JsonGenerator generator) throws IOException {
+        String taskId = taskRow.taskId();
+        generator.writeStartObject();
+        generator.writeStringField("id", taskId);
+        generator.writeStringField("contextId", taskRow.contextId() != null ? taskRow.contextId() : taskId);
+        generator.writeFieldName("status");
+        taskRepository.writeStatusJson(taskRow, generator);
+        generator.writeFieldName("artifacts");
+        if (properties.isStoreArtifacts()) {
+            artifactRepository.writeJson(taskId, generator);
+        } else {
+            generator.writeStartArray();
+            generator.writeEndArray();
+        }
+        generator.writeFieldName("history");
+        historyRepository.writeJson(taskId, generator);
+        generator.writeFieldName("metadata");
+        if (!properties.isStoreMetadata() || !metadataCodec.copy(taskRow.metadataJson(), generator)) {
+            generator.writeStartObject();
+            generator.writeEndObject();
+        }
+        generator.writeStringField("kind", Task.TASK);
+        generator.writeEndObject();
+    }
+
+    /**
+     * Returns the cached entry, checking its version against the database first when
+     * {@code validate-on-read} is enabled.
+     */
+    private VersionedTask cachedIfCurrent(String taskId) {
+        if (taskCache == null) {
+            return null;
+        }
+        VersionedTask cached = taskCache.get(taskId, VersionedTask.class);
+        if (cached == null || !properties.getCache().isValidateOnRead()) {
+            return cached;
+        }
+        Optional<Long> currentVersion = taskRepository.findVersion(taskId);
+        if (currentVersion.isPresent() && currentVersion.get() == cached.version()) {
+            return cached;
+        }
+        taskCache.evict(taskId);
+        return null;
+    }
+
+    private VersionedTask load(String taskId) {
         return taskRepository.findById(taskId)
-                .map(taskRow -> new Task.Builder()
-                        .id(taskId)
-                        .contextId(taskRow.contextId() != null ? taskRow.contextId() : taskId)
-                        .status(taskRepository.buildTaskStatus(taskRow))
-                        .history(historyRepository.findByTaskId(taskId))
-                        .artifacts(properties.isStoreArtifacts() ? artifactRepository.findByTaskId(taskId) : List.of())
-                        .metadata(properties.isStoreMetadata() ? taskRepository.loadMetadata(taskRow) : Map.of())
-                        .build())
+                .map(taskRow -> toVersionedTask(taskRow,
+                        historyRepository.findByTaskId(taskId),
+                        properties.isStoreArtifacts() ? artifactRepository.findByTaskId(taskId) : List.of()))
                 .orElse(null);
     }
 
+    private VersionedTask toVersionedTask(TaskRepository.TaskRow taskRow, List<Message> history, List<Artifact> artifacts) {
+        String taskId = taskRow.taskId();
+        return new VersionedTask(new Task.Builder()
+                .id(taskId)
+                .contextId(taskRow.contextId() != null ? taskRow.contextId() : taskId)
+                .status(taskRepository.buildTaskStatus(taskRow))
+                .history(history)
+                .artifacts(artifacts)
+                .metadata(properties.isStoreMetadata() ? taskRepository.loadMetadata(taskRow) : Map.of())
+                .build(), taskRow.version());
+    }
+
+    /**
+     * Puts previously cached tasks, e.g. from a {@link io.a2a.extras.taskstore.cache.TaskCacheSnapshot},
+     * back into the cache. Tasks whose version changed since, or that were deleted, are skipped.
+     *
+     * @return number of tasks put into the cache
+     */
+    @Transactional(readOnly = true)
+    public int restoreCache(Collection<VersionedTask> entries) {
+        if (taskCache == null) {
+            return 0;
+        }
+        int restored = 0;
+        for (List<VersionedTask> chunk : chunks(List.copyOf(entries))) {
+            Map<String, Long> versions = taskRepository.findVersions(chunk.stream().map(entry -> entry.task().getId()).toList());
+            for (VersionedTask entry : chunk) {
+                Long version = versions.get(entry.task().getId());
+                if (version != null && version == entry.version()) {
+                    taskCache.putIfAbsent(entry.task().getId(), entry);
+                    restored++;
+                }
+            }
+        }
+        return restored;
+    }
+
+    /**
+     * Preloads active tasks updated within {@code updatedWithin}, most recent first. Task rows come from a single
+     * query; histories and artifacts are fetched in bulk for all of them. Tasks already cached are left as they are.
+     *
+     * @return number of tasks loaded
+     */
+    @Transactional(readOnly = true)
+    public int warmCache(Duration updatedWithin, int maxTasks) {
+        if (taskCache == null || maxTasks <= 0) {
+            return 0;
+        }
+        List<TaskRepository.TaskRow> taskRows = taskRepository.findRecentlyUpdatedActive(
+                OffsetDateTime.now().minus(updatedWithin), maxTasks);
+        for (List<TaskRepository.TaskRow> chunk : chunks(taskRows)) {
+            List<String> taskIds = chunk.stream().map(TaskRepository.TaskRow::taskId).toList();
+            Map<String, List<Message>> histories = historyRepository.findByTaskIds(taskIds);
+            Map<String, List<Artifact>> artifacts = properties.isStoreArtifacts()
+                    ? artifactRepository.findByTaskIds(taskIds)
+                    : Map.of();
+            for (TaskRepository.TaskRow taskRow : chunk) {
+                String taskId = taskRow.taskId();
+                taskCache.putIfAbsent(taskId, toVersionedTask(taskRow,
+                        histories.getOrDefault(taskId, List.of()), artifacts.getOrDefault(taskId, List.of())));
+            }
+        }
+        return taskRows.size();
+    }
+
+    private static <T> List<List<T>> chunks(List<T> items) {
+        return IntStream.iterate(0, start -> start < items.size(), start -> start + BULK_LOAD_CHUNK_SIZE)
+                .mapToObj(start -> items.subList(start, Math.min(start + BULK_LOAD_CHUNK_SIZE, items.size())))
+                .toList();
+    }
+
     @Override
     @Transactional
-    @CacheEvict(value = CacheConfig.TASK_CACHE, key = "#taskId")
     public void delete(String taskId) {
         taskRepository.delete(taskId);
+        invalidationBus.publish(taskId);
+        markWritten(taskId);
+        evict(taskId);
     }
 
     @Override
     @Transactional(readOnly = true)
     public boolean isTaskActive(String taskId) {
-        return taskRepository.isTaskActive(taskId);
+        return read(taskId, () -> taskRepository.isTaskActive(taskId));
     }
 
     @Override
     @Transactional(readOnly = true)
     public boolean isTaskFinalized(String taskId) {
-        return taskRepository.isTaskFinalized(taskId);
+        return read(taskId, () -> taskRepository.isTaskFinalized(taskId));
+    }
+
+    /**
+     * Runs a read of the task on the primary when a {@link ReplicaRoutingDataSource} routes read-only transactions to
+     * a replica and the task was written within {@code a2a.taskstore.replica.sticky-window-millis}, so that
+     * replication lag cannot hide the write. The connection is chosen at the first statement of the transaction.
+     */
+    private <T> T read(String taskId, Supplier<T> read) {
+        return recentWrites != null && recentWrites.contains(taskId) ? ReplicaRoutingDataSource.onPrimary(read) : read.get();
+    }
+
+    private void markWritten(String taskId) {
+        if (recentWrites != null) {
+            recentWrites.written(taskId);
+            // The window counts from the commit, once the write may reach the replica
+            TransactionCallbacks.afterCommit(() -> recentWrites.written(taskId));
+        }
+    }
+
+    /**
+     * Brings the cache up to date with a save, replacing the entry once the transaction commits:
+     * <ul>
+     *     <li>with {@code incremental-updates}, a cached copy of the previous version is patched with the appended
+     *     messages and the new status, artifacts and metadata, at a cost independent of the history length;</li>
+     *     <li>otherwise with write-through, the saved task itself is cached, unless it does not describe the full
+     *     stored state, e.g. when the stored history is longer than the one passed in;</li>
+     *     <li>otherwise the entry is evicted.</li>
+     * </ul>
+     */
+    private void refreshCache(Task task, HistoryRepository.SavedHistory storedHistory) {
+        if (taskCache == null) {
+            return;
+        }
+        String taskId = task.getId();
+        VersionedTask cached = properties.getCache().isIncrementalUpdates()
+                ? taskCache.get(taskId, VersionedTask.class)
+                : null;
+        boolean completeSnapshot = storedHistory.size() == task.getHistory().size()
+                && (!properties.isStoreMetadata() || task.getMetadata() != null);
+        if (cached == null && (!properties.getCache().isWriteThrough() || !completeSnapshot)) {
+            evict(taskId);
+            return;
+        }
+        Optional<Long> version = taskRepository.findVersion(taskId);
+        if (version.isEmpty()) {
+            evict(taskId);
+            return;
+        }
+        VersionedTask entry = cached != null ? patch(cached, task, storedHistory, version.get()) : null;
+        if (entry == null && properties.getCache().isWriteThrough() && completeSnapshot) {
+            entry = new VersionedTask(toStoredSnapshot(task, storedHistory), version.get());
+        }
+        if (entry == null) {
+            evict(taskId);
+            return;
+        }
+        VersionedTask refreshed = entry;
+        taskCache.evict(taskId);
+        TransactionCallbacks.afterCommit(() -> taskCache.put(taskId, refreshed));
+    }
+
+    /**
+     * Applies a save to the cached copy of the previous version.
+     *
+     * @return the entry for {@code version}, or null if {@code cached} is not the previous version
+     *         or its history does not match the stored one
+     */
+    private VersionedTask patch(VersionedTask cached, Task task, HistoryRepository.SavedHistory storedHistory,
+                                long version) {
+        if (!cached.exists() || cached.version() + 1 != version) {
+            return null;
+        }
+        String taskId = task.getId();
+        List<Message> history = task.getHistory();
+        int cachedHistorySize = cached.historySize();
+        Task header = new Task.Builder()
+                .id(taskId)
+                .contextId(task.getContextId() != null ? task.getContextId() : taskId)
+                .status(task.getStatus())
+                .history(List.of())
+                .artifacts(properties.isStoreArtifacts()
+                        ? task.getArtifacts().stream().map(artifactRepository::toStoredArtifact).toList()
+                        : List.of())
+                .metadata(patchedMetadata(cached, task))
+                .build();
+        if (history.isEmpty()) {
+            return cached.withEmptyHistory(header, version);
+        }
+        if (storedHistory.size() != Math.max(cachedHistorySize, history.size())) {
+            return null;
+        }
+        List<Message> appended = IntStream.range(cachedHistorySize, storedHistory.size())
+                .mapToObj(index -> historyRepository.toStoredMessage(taskId, history.get(index),
+                        storedHistory.sequenceOf(index)))
+                .toList();
+        return cached.patch(header, appended, version);
+    }
+
+    private Map<String, Object> patchedMetadata(VersionedTask cached, Task task) {
+        if (!properties.isStoreMetadata()) {
+            return Map.of();
+        }
+        if (task.getMetadata() == null) {
+            return cached.header().getMetadata();
+        }
+        return task.getMetadata();
+    }
+
+    /**
+     * Adds the messages to the end of the cached copy of the previous version, which holds the stored history. The
+     * sequence numbers only name messages without an id; they may skip past deleted ones.
+     */
+    private void appendToCache(String taskId, List<Message> messages, int firstSequence, long version) {
+        if (taskCache == null) {
+            return;
+        }
+        VersionedTask cached = properties.getCache().isIncrementalUpdates()
+                ? taskCache.get(taskId, VersionedTask.class)
+                : null;
+        if (cached == null || !cached.exists() || cached.version() + 1 != version) {
+            evict(taskId);
+            return;
+        }
+        List<Message> appended = IntStream.range(0, messages.size())
+                .mapToObj(index -> historyRepository.toStoredMessage(taskId, messages.get(index), firstSequence + index))
+                .toList();
+        VersionedTask refreshed = cached.patch(cached.header(), appended, version);
+        taskCache.evict(taskId);
+        TransactionCallbacks.afterCommit(() -> taskCache.put(taskId, refreshed));
+    }
+
+    private void evict(String taskId) {
+        if (taskCache == null) {
+            return;
+        }
+        taskCache.evict(taskId);
+        TransactionCallbacks.afterCommit(() -> taskCache.evict(taskId));
+    }
+
+    private Task toStoredSnapshot(Task task, HistoryRepository.SavedHistory storedHistory) {
+        String taskId = task.getId();
+        List<Message> history = task.getHistory();
+        return new Task.Builder()
+                .id(taskId)
+                .contextId(task.getContextId() != null ? task.getContextId() : taskId)
+                .status(task.getStatus())
+                .history(IntStream.range(0, history.size())
+                        .mapToObj(index -> historyRepository.toStoredMessage(taskId, history.get(index),
+                                storedHistory.sequenceOf(index)))
+                        .toList())
+                .artifacts(properties.isStoreArtifacts()
+                        ? task.getArtifacts().stream().map(artifactRepository::toStoredArtifact).toList()
+                        : List.of())
+                .metadata(properties.isStoreMetadata() ? task.getMetadata() : Map.of())
+                .build();
     }
 }
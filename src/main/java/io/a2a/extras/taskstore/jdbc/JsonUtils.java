@@ -1,32 +1,59 @@
 package io.a2a.extras.taskstore.jdbc;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import io.a2a.spec.Artifact;
 import io.a2a.spec.Message;
 import io.a2a.spec.Part;
 
+import java.io.IOException;
+import java.lang.reflect.Type;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 public final class JsonUtils {
 
     public static final ObjectMapper MAPPER = new ObjectMapper()
         .registerModule(new JavaTimeModule());
-    
+
     public static final TypeReference<Artifact> ARTIFACT_TYPE = new TypeReference<>() {};
     public static final TypeReference<Message> MESSAGE_TYPE = new TypeReference<>() {};
     public static final TypeReference<Map<String, Object>> METADATA_MAP_TYPE = new TypeReference<>() {};
     public static final TypeReference<List<Part<?>>> PARTS_TYPE = new TypeReference<>() {};
     public static final TypeReference<Object> OBJECT_TYPE = new TypeReference<>() {};
     public static final TypeReference<List<String>> EXTENSIONS_TYPE = new TypeReference<>() {};
+
+    private static final Map<Type, JsonCodec<?>> CODECS = new ConcurrentHashMap<>();
+    private static final LongAdder DOUBLE_ENCODED_READS = new LongAdder();
+
+    // Precompiled codecs for the column types; use these on hot paths instead of the TypeReference overloads
+    public static final JsonCodec<Artifact> ARTIFACT = codecFor(ARTIFACT_TYPE);
+    public static final JsonCodec<Message> MESSAGE = codecFor(MESSAGE_TYPE);
+    public static final JsonCodec<Map<String, Object>> METADATA_MAP = codecFor(METADATA_MAP_TYPE);
+    public static final JsonCodec<List<Part<?>>> PARTS = codecFor(PARTS_TYPE);
+    public static final JsonCodec<List<String>> EXTENSIONS = codecFor(EXTENSIONS_TYPE);
     
     private JsonUtils() {
     }
 
+    /**
+     * Returns the codec for {@code type}, compiling it on first use.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> JsonCodec<T> codecFor(TypeReference<T> type) {
+        return (JsonCodec<T>) CODECS.computeIfAbsent(type.getType(), key -> new JsonCodec<>(type));
+    }
+
     public static String toJson(Object obj) {
         if (obj == null) return null;
         try {
@@ -37,41 +64,174 @@ public final class JsonUtils {
     }
 
     public static <T> Optional<T> fromJson(String json, TypeReference<T> type) {
-        if (json == null || json.isBlank()) return Optional.empty();
-        try {
-            T value = parse(json, type);
-            return Optional.ofNullable(unwrapIfNeeded(value, type));
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("JSON deserialize failed: " + type.getType(), e);
-        }
+        return codecFor(type).read(json);
     }
-    
-    private static <T> T parse(String json, TypeReference<T> type) throws JsonProcessingException {
-        try {
-            return MAPPER.readValue(json, type);
-        } catch (JsonProcessingException first) {
-            String unwrapped = unwrapString(json);
-            if (unwrapped == null) throw first;
-            return MAPPER.readValue(unwrapped, type);
-        }
-    }
-    
-    @SuppressWarnings("unchecked")
-    private static <T> T unwrapIfNeeded(T value, TypeReference<T> type) {
-        if (!isObjectType(type) || !(value instanceof String)) return value;
-        String unwrapped = unwrapString((String) value);
-        return unwrapped != null ? (T) unwrapped : value;
+
+    /**
+     * Number of double-encoded documents read since startup.
+     */
+    public static long doubleEncodedReads() {
+        return DOUBLE_ENCODED_READS.sum();
     }
-    
-    private static String unwrapString(String json) {
-        try {
-            return MAPPER.readValue(json, String.class);
-        } catch (JsonProcessingException e) {
+
+    /**
+     * The document inside {@code json} if it is stored double-encoded, otherwise null.
+     * Only the first token is inspected; plain documents are not parsed further.
+     */
+    static String unwrapDoubleEncoded(String json) {
+        if (json == null) return null;
+        try (JsonParser parser = MAPPER.createParser(json)) {
+            return parser.nextToken() == JsonToken.VALUE_STRING ? parser.getText() : null;
+        } catch (IOException e) {
             return null;
         }
     }
-    
-    private static boolean isObjectType(TypeReference<?> type) {
-        return type.getType().getTypeName().equals("java.lang.Object");
+
+    /**
+     * Reader and writer for one type, resolved once instead of per call.
+     * Reading also accepts JSON that was stored double-encoded, i.e. as a JSON string holding the document:
+     * the first token tells the two apart, so each document is parsed once. A codec
+     * {@link #withDoubleEncodedFallback without that fallback} rejects such documents instead.
+     */
+    public static final class JsonCodec<T> {
+        private final ObjectReader reader;
+        private final ObjectWriter writer;
+        private final boolean objectType;
+        private final String typeName;
+        private final boolean doubleEncodedFallback;
+
+        private JsonCodec(TypeReference<T> type) {
+            this.reader = MAPPER.readerFor(type);
+            this.writer = MAPPER.writerFor(type);
+            this.objectType = type.getType() == Object.class;
+            this.typeName = type.getType().getTypeName();
+            this.doubleEncodedFallback = true;
+        }
+
+        private JsonCodec(JsonCodec<T> codec, boolean doubleEncodedFallback) {
+            this.reader = codec.reader;
+            this.writer = codec.writer;
+            this.objectType = codec.objectType;
+            this.typeName = codec.typeName;
+            this.doubleEncodedFallback = doubleEncodedFallback;
+        }
+
+        /**
+         * This codec, reading documents stored double-encoded or not. Turn the fallback off once
+         * {@link DoubleEncodedJsonMigration} has rewritten all legacy rows; such rows then fail to read.
+         */
+        public JsonCodec<T> withDoubleEncodedFallback(boolean enabled) {
+            return enabled == doubleEncodedFallback ? this : new JsonCodec<>(this, enabled);
+        }
+
+        public Optional<T> read(String json) {
+            if (json == null || json.isBlank()) return Optional.empty();
+            try {
+                return Optional.ofNullable(parse(MAPPER.createParser(json), true));
+            } catch (IOException e) {
+                throw new RuntimeException("JSON deserialize failed: " + typeName, e);
+            }
+        }
+
+        /**
+         * Reads a column fetched with {@code ResultSet.getBytes}, parsing the UTF-8 bytes directly
+         * instead of decoding them to a {@code String} first.
+         */
+        public Optional<T> read(byte[] json) {
+            if (json == null || json.length == 0) return Optional.empty();
+            // jsonb sent in binary transfer format starts with a version byte
+            int offset = json[0] == 1 ? 1 : 0;
+            try {
+                return Optional.ofNullable(parse(MAPPER.createParser(json, offset, json.length - offset), true));
+            } catch (IOException e) {
+                throw new RuntimeException("JSON deserialize failed: " + typeName, e);
+            }
+        }
+
+        public String write(T value) {
+            if (value == null) return null;
+            try {
+                return writer.writeValueAsString(value);
+            } catch (JsonProcessingException e) {
+                throw new RuntimeException("JSON serialize failed: " + typeName, e);
+            }
+        }
+
+        /**
+         * Serializes to UTF-8 bytes; Jackson builds them in its per-thread recycled buffers.
+         */
+        public byte[] writeBytes(T value) {
+            if (value == null) return null;
+            try {
+                return writer.writeValueAsBytes(value);
+            } catch (JsonProcessingException e) {
+                throw new RuntimeException("JSON serialize failed: " + typeName, e);
+            }
+        }
+
+        /**
+         * Copies a stored document to {@code generator} token by token, without binding it to {@code T}.
+         * Double-encoded documents are unwrapped as on {@link #read(byte[]) read}.
+         *
+         * @return false if the column holds no document or JSON null, in which case nothing was written
+         */
+        public boolean copy(byte[] json, JsonGenerator generator) throws IOException {
+            if (json == null || json.length == 0) return false;
+            int offset = json[0] == 1 ? 1 : 0;
+            return copy(MAPPER.createParser(json, offset, json.length - offset), generator, true);
+        }
+
+        private boolean copy(JsonParser source, JsonGenerator generator, boolean outer) throws IOException {
+            try (JsonParser parser = source) {
+                JsonToken first = parser.nextToken();
+                if (first == null || first == JsonToken.VALUE_NULL) {
+                    return false;
+                }
+                String inner = doubleEncodedDocument(parser, outer);
+                if (inner != null) {
+                    return copy(MAPPER.createParser(inner), generator, false);
+                }
+                generator.copyCurrentStructure(parser);
+                return true;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private T parse(JsonParser source, boolean outer) throws IOException {
+            try (JsonParser parser = source) {
+                JsonToken first = parser.nextToken();
+                if (first == null) {
+                    return null;
+                }
+                if (first != JsonToken.VALUE_STRING) {
+                    return reader.readValue(parser);
+                }
+                String inner = doubleEncodedDocument(parser, outer);
+                if (inner == null) {
+                    return objectType ? (T) parser.getText() : reader.readValue(parser);
+                }
+                return parse(MAPPER.createParser(inner), false);
+            }
+        }
+
+        /**
+         * The document inside the string the parser is positioned on if it was stored double-encoded, otherwise null.
+         */
+        private String doubleEncodedDocument(JsonParser parser, boolean outer) throws IOException {
+            if (parser.currentToken() != JsonToken.VALUE_STRING) {
+                return null;
+            }
+            String inner = parser.getText();
+            // A string is a valid Object value; only a quoted string inside it marks double encoding
+            if (!outer || objectType && !inner.startsWith("\"")) {
+                return null;
+            }
+            if (!doubleEncodedFallback) {
+                throw new IllegalStateException("Double-encoded JSON for " + typeName
+                        + " while the double-encoded fallback is disabled");
+            }
+            DOUBLE_ENCODED_READS.increment();
+            return inner;
+        }
     }
 }
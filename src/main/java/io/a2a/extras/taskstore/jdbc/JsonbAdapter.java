@@ -1,12 +1,17 @@
 package io.a2a.extras.taskstore.jdbc;
 
 import org.postgresql.util.PGobject;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.core.StatementCreatorUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.Types;
 
 /**
- * Converts JSON strings to database-compatible parameter objects.
- * Handles PostgreSQL JSONB columns by wrapping values in PGobject.
+ * Binds JSON documents to parameters of the database's JSON columns. The repositories bind through {@link #bind};
+ * {@link #adapt} builds a parameter object for code that passes JSON as a plain statement argument.
  */
 @FunctionalInterface
 public interface JsonbAdapter {
@@ -15,20 +20,45 @@ public interface JsonbAdapter {
      * Converts a JSON string to a database-compatible parameter.
      *
      * @param json the JSON string, may be null
-     * @return PGobject for PostgreSQL, the original string for other databases, or null if input was null
+     * @return a jsonb PGobject for PostgreSQL, a value the other databases accept for their JSON columns,
+     * or null if input was null
      */
     Object adapt(String json);
 
+    /**
+     * Converts JSON serialized to UTF-8 bytes to a database-compatible parameter.
+     *
+     * @param json the JSON document as UTF-8, may be null
+     * @return the parameter; decodes to a string and delegates to {@link #adapt(String)} unless overridden
+     */
+    default Object adapt(byte[] json) {
+        return adapt(json == null ? null : new String(json, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Binds a JSON document to a statement parameter. The repositories bind JSON through this method from their
+     * own statement setters, so an adapter can set the value directly instead of through a wrapper object.
+     *
+     * @param json the JSON document as UTF-8, may be null
+     */
+    default void bind(PreparedStatement ps, int index, byte[] json) throws SQLException {
+        StatementCreatorUtils.setParameterValue(ps, index, SqlTypeValue.TYPE_UNKNOWN, adapt(json));
+    }
+
     /**
      * Factory method that detects database type from JDBC URL.
      *
      * @param jdbcUrl the JDBC connection URL
-     * @return PostgresJsonbAdapter for PostgreSQL URLs, StandardJsonbAdapter otherwise
+     * @return PostgresJsonbAdapter for PostgreSQL URLs, H2JsonAdapter for H2, StandardJsonbAdapter otherwise
      */
     static JsonbAdapter forDatabase(String jdbcUrl) {
-        return jdbcUrl != null && jdbcUrl.startsWith("jdbc:postgresql:")
-                ? new PostgresJsonbAdapter()
-                : new StandardJsonbAdapter();
+        if (jdbcUrl != null && jdbcUrl.startsWith("jdbc:postgresql:")) {
+            return new PostgresJsonbAdapter();
+        }
+        if (jdbcUrl != null && jdbcUrl.startsWith("jdbc:h2:")) {
+            return new H2JsonAdapter();
+        }
+        return new StandardJsonbAdapter();
     }
 
     /**
@@ -43,10 +73,47 @@ public interface JsonbAdapter {
     }
 
     /**
-     * PostgreSQL adapter that wraps JSON strings in PGobject with type "jsonb".
-     * Required for proper handling of PostgreSQL JSONB columns.
+     * H2 adapter that passes JSON as UTF-8 bytes.
+     * H2 stores a character parameter bound to a JSON column as a JSON string, i.e. double-encoded;
+     * bytes are parsed as the JSON document itself.
+     */
+    final class H2JsonAdapter implements JsonbAdapter {
+        @Override
+        public Object adapt(String json) {
+            return json != null ? json.getBytes(StandardCharsets.UTF_8) : null;
+        }
+
+        @Override
+        public Object adapt(byte[] json) {
+            return json;
+        }
+
+        @Override
+        public void bind(PreparedStatement ps, int index, byte[] json) throws SQLException {
+            if (json == null) {
+                ps.setNull(index, Types.OTHER);
+            } else {
+                ps.setBytes(index, json);
+            }
+        }
+    }
+
+    /**
+     * PostgreSQL adapter. {@link #bind} sends the document as an untyped string ({@link Types#OTHER}), which the
+     * server casts to the column type, so no PGobject is allocated per value. The UTF-8 bytes are still decoded to a
+     * string, as the driver only sends bytes as {@code bytea}, which does not cast to {@code jsonb}.
+     * {@link #adapt} wraps the string in a PGobject with type "jsonb".
      */
     final class PostgresJsonbAdapter implements JsonbAdapter {
+        @Override
+        public void bind(PreparedStatement ps, int index, byte[] json) throws SQLException {
+            if (json == null) {
+                ps.setNull(index, Types.OTHER);
+            } else {
+                ps.setObject(index, new String(json, StandardCharsets.UTF_8), Types.OTHER);
+            }
+        }
+
         @Override
         public Object adapt(String json) {
             if (json == null) {
@@ -0,0 +1,174 @@
+package io.a2a.extras.taskstore.jdbc;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.a2a.extras.taskstore.A2aTaskStoreProperties;
+import io.a2a.extras.taskstore.metrics.TaskStoreMetrics;
+import io.a2a.spec.Part;
+
+import java.io.IOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Writes and reads the parts columns of history and artifact rows: {@code content_json}, {@code content_format},
+ * {@code content_bin} and {@code content_codec}. New rows use the configured {@link ContentFormat}; reads dispatch on
+ * the row's markers, so tables may mix formats and compressed rows after the settings change.
+ * <p>
+ * With compression enabled, encoded parts of at least the threshold size are compressed into {@code content_bin}
+ * and {@code content_json} is left null. Compression is dropped for a payload that does not get smaller.
+ */
+public final class PartsColumnCodec {
+
+    private final ContentFormat format;
+    private final CompressionCodec codec;
+    private final int level;
+    private final int thresholdBytes;
+    private final JsonbAdapter jsonbAdapter;
+    private final TaskStoreMetrics metrics;
+    private final JsonUtils.JsonCodec<List<Part<?>>> jsonParts;
+
+    public PartsColumnCodec(ContentFormat format, JsonbAdapter jsonbAdapter) {
+        this(format, new A2aTaskStoreProperties.CompressionProperties(), jsonbAdapter, TaskStoreMetrics.NOOP);
+    }
+
+    public PartsColumnCodec(ContentFormat format, A2aTaskStoreProperties.CompressionProperties compression,
+                            JsonbAdapter jsonbAdapter, TaskStoreMetrics metrics) {
+        this(format, compression, jsonbAdapter, metrics, JsonUtils.PARTS);
+    }
+
+    /**
+     * With the content format, compression and double-encoded fallback of {@code properties}.
+     */
+    public PartsColumnCodec(A2aTaskStoreProperties properties, JsonbAdapter jsonbAdapter, TaskStoreMetrics metrics) {
+        this(properties.getContentFormat(), properties.getCompression(), jsonbAdapter, metrics,
+                JsonUtils.PARTS.withDoubleEncodedFallback(properties.getJson().isDoubleEncodedFallback()));
+    }
+
+    private PartsColumnCodec(ContentFormat format, A2aTaskStoreProperties.CompressionProperties compression,
+                             JsonbAdapter jsonbAdapter, TaskStoreMetrics metrics,
+                             JsonUtils.JsonCodec<List<Part<?>>> jsonParts) {
+        this.format = format;
+        this.codec = compression.isEnabled() ? compression.getCodec() : null;
+        this.level = compression.getLevel();
+        this.thresholdBytes = compression.getThresholdBytes();
+        this.jsonbAdapter = jsonbAdapter;
+        this.metrics = metrics;
+        this.jsonParts = jsonParts;
+        if (codec != null) {
+            codec.checkAvailable();
+        }
+    }
+
+    /**
+     * Binds the encoded parts to the {@code content_json}, {@code content_format}, {@code content_bin} and
+     * {@code content_codec} parameters.
+     *
+     * @return size of the encoded payload in bytes, before compression
+     */
+    public int bind(PreparedStatement ps, int jsonIndex, int formatIndex, int binIndex, int codecIndex,
+                    List<Part<?>> parts) throws SQLException {
+        EncodedParts encoded = encode(parts);
+        jsonbAdapter.bind(ps, jsonIndex, encoded.json());
+        ps.setBytes(binIndex, encoded.bin());
+        ps.setString(codecIndex, encoded.codec());
+        ps.setString(formatIndex, encoded.format());
+        return encoded.encodedLength();
+    }
+
+    /**
+     * Encodes the parts into the values of the four columns, for writers that do not use JDBC.
+     */
+    public EncodedParts encode(List<Part<?>> parts) {
+        byte[] encoded = format.write(parts);
+        byte[] compressed = compress(encoded);
+        if (compressed != null) {
+            return new EncodedParts(null, format.name(), compressed, codec.name(), encoded.length);
+        } else if (format.isBinary()) {
+            return new EncodedParts(null, format.name(), encoded, null, encoded.length);
+        }
+        return new EncodedParts(encoded, format.name(), null, null, encoded.length);
+    }
+
+    /**
+     * The compressed payload, or null if compression is off, the payload is below the threshold
+     * or compressing did not make it smaller.
+     */
+    private byte[] compress(byte[] encoded) {
+        if (codec == null || encoded.length < thresholdBytes) {
+            return null;
+        }
+        long start = System.nanoTime();
+        byte[] compressed = codec.compress(encoded, level);
+        boolean smaller = compressed.length < encoded.length;
+        metrics.recordCompression(codec.name(), encoded.length, smaller ? compressed.length : encoded.length,
+                System.nanoTime() - start);
+        return smaller ? compressed : null;
+    }
+
+    public List<Part<?>> read(ResultSet rs) throws SQLException {
+        ContentFormat rowFormat = ContentFormat.fromMarker(rs.getString(SqlConstants.COL_CONTENT_FORMAT));
+        byte[] stored = storedContent(rs, rowFormat);
+        List<Part<?>> parts = stored != null ? rowFormat.read(stored, jsonParts) : null;
+        if (parts == null) {
+            throw new SQLException("Parts content is null (format " + rowFormat + ")");
+        }
+        return parts;
+    }
+
+    /**
+     * Decodes parts from the values of the four columns, for readers that do not use JDBC.
+     *
+     * @throws IllegalStateException if the row holds no parts
+     */
+    public List<Part<?>> decode(String formatMarker, String codecMarker, byte[] json, byte[] bin) {
+        ContentFormat rowFormat = ContentFormat.fromMarker(formatMarker);
+        CompressionCodec rowCodec = CompressionCodec.fromMarker(codecMarker);
+        byte[] stored = decompress(rowFormat.isBinary() || rowCodec != null ? bin : json, rowCodec);
+        List<Part<?>> parts = stored != null ? rowFormat.read(stored, jsonParts) : null;
+        if (parts == null) {
+            throw new IllegalStateException("Parts content is null (format " + rowFormat + ")");
+        }
+        return parts;
+    }
+
+    /**
+     * Writes the parts of the current row to {@code generator} as a JSON array, transcoding binary formats,
+     * without building {@link Part}s.
+     */
+    public void copy(ResultSet rs, JsonGenerator generator) throws SQLException, IOException {
+        ContentFormat rowFormat = ContentFormat.fromMarker(rs.getString(SqlConstants.COL_CONTENT_FORMAT));
+        byte[] stored = storedContent(rs, rowFormat);
+        if (stored == null || !rowFormat.copy(stored, generator, jsonParts)) {
+            throw new SQLException("Parts content is null (format " + rowFormat + ")");
+        }
+    }
+
+    private byte[] storedContent(ResultSet rs, ContentFormat rowFormat) throws SQLException {
+        CompressionCodec rowCodec = CompressionCodec.fromMarker(rs.getString(SqlConstants.COL_CONTENT_CODEC));
+        byte[] stored = rowFormat.isBinary() || rowCodec != null
+                ? rs.getBytes(SqlConstants.COL_CONTENT_BIN)
+                : rs.getBytes(SqlConstants.COL_CONTENT_JSON);
+        return decompress(stored, rowCodec);
+    }
+
+    private byte[] decompress(byte[] stored, CompressionCodec rowCodec) {
+        if (stored == null || rowCodec == null) {
+            return stored;
+        }
+        long start = System.nanoTime();
+        byte[] decompressed = rowCodec.decompress(stored);
+        metrics.recordDecompression(rowCodec.name(), System.nanoTime() - start);
+        return decompressed;
+    }
+
+    /**
+     * Column values of encoded parts; {@code json} and {@code bin} are exclusive, {@code codec} is null if
+     * uncompressed.
+     *
+     * @param encodedLength size of the encoded payload in bytes, before compression
+     */
+    public record EncodedParts(byte[] json, String format, byte[] bin, String codec, int encodedLength) {
+    }
+}
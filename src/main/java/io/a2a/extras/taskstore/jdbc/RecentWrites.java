@@ -0,0 +1,56 @@
+package io.a2a.extras.taskstore.jdbc;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.a2a.extras.taskstore.cache.TaskInvalidationBus;
+
+import java.time.Duration;
+import java.util.Collection;
+
+/**
+ * Tasks written lately, by this instance or, as announced on the {@link TaskInvalidationBus}, by others. Their reads
+ * go to the primary for {@code window}, the replication lag the replica is trusted to stay within, so that a reader
+ * does not see a task older than a write it knows of.
+ */
+final class RecentWrites implements TaskInvalidationBus.Listener {
+
+    private final Cache<String, Boolean> written;
+    private final long windowNanos;
+    private final Ticker ticker;
+    /** All tasks count as written until then, after changes may have been missed */
+    private volatile long allWrittenUntil;
+
+    RecentWrites(Duration window) {
+        this(window, Ticker.systemTicker());
+    }
+
+    RecentWrites(Duration window, Ticker ticker) {
+        this.written = Caffeine.newBuilder().expireAfterWrite(window).ticker(ticker).build();
+        this.windowNanos = window.toNanos();
+        this.ticker = ticker;
+        this.allWrittenUntil = ticker.read();
+    }
+
+    void written(String taskId) {
+        written.put(taskId, Boolean.TRUE);
+    }
+
+    boolean contains(String taskId) {
+        return written.getIfPresent(taskId) != null || ticker.read() - allWrittenUntil < 0;
+    }
+
+    boolean containsAny(Collection<String> taskIds) {
+        return taskIds.stream().anyMatch(this::contains);
+    }
+
+    @Override
+    public void onTaskChanged(String taskId) {
+        written(taskId);
+    }
+
+    @Override
+    public void onChangesMissed() {
+        allWrittenUntil = ticker.read() + windowNanos;
+    }
+}
@@ -0,0 +1,76 @@
+package io.a2a.extras.taskstore.jdbc;
+
+import io.a2a.spec.Message;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Immutable, structurally shared task history: an existing message list followed by messages appended since.
+ * <p>
+ * Appended messages go into an array shared by all versions of the history. A version sees only its own prefix of
+ * that array, so appending to the newest version writes in place and costs O(appended). Appending to an older
+ * version, or beyond the array's capacity, copies only the appended part.
+ */
+final class SharedHistory extends AbstractList<Message> implements RandomAccess {
+
+    private static final int MIN_CAPACITY = 8;
+
+    private final List<Message> base;
+    private final Tail tail;
+    private final int tailSize;
+
+    private SharedHistory(List<Message> base, Tail tail, int tailSize) {
+        this.base = base;
+        this.tail = tail;
+        this.tailSize = tailSize;
+    }
+
+    /**
+     * @param base an immutable list, shared rather than copied
+     */
+    static SharedHistory of(List<Message> base) {
+        return base instanceof SharedHistory shared ? shared : new SharedHistory(base, new Tail(MIN_CAPACITY), 0);
+    }
+
+    SharedHistory append(List<Message> messages) {
+        if (messages.isEmpty()) {
+            return this;
+        }
+        int newTailSize = tailSize + messages.size();
+        Tail target = tail;
+        if (newTailSize > tail.messages.length || !tail.claimed.compareAndSet(tailSize, newTailSize)) {
+            target = new Tail(Math.max(MIN_CAPACITY, newTailSize * 2));
+            System.arraycopy(tail.messages, 0, target.messages, 0, tailSize);
+            target.claimed.set(newTailSize);
+        }
+        for (int i = 0; i < messages.size(); i++) {
+            target.messages[tailSize + i] = messages.get(i);
+        }
+        return new SharedHistory(base, target, newTailSize);
+    }
+
+    @Override
+    public Message get(int index) {
+        Objects.checkIndex(index, size());
+        return index < base.size() ? base.get(index) : tail.messages[index - base.size()];
+    }
+
+    @Override
+    public int size() {
+        return base.size() + tailSize;
+    }
+
+    private static final class Tail {
+        final Message[] messages;
+        /** Number of slots taken by the newest history version; only that version may append in place */
+        final AtomicInteger claimed = new AtomicInteger();
+
+        Tail(int capacity) {
+            this.messages = new Message[capacity];
+        }
+    }
+}
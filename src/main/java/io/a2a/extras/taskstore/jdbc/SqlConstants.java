@@ -24,12 +24,17 @@ public final class SqlConstants {
     public static final String COL_FINALIZED_AT = "finalized_at";
     public static final String COL_CREATED_AT = "created_at";
     public static final String COL_UPDATED_AT = "updated_at";
+    public static final String COL_VERSION = "version";
 
     // Column names - History
     public static final String COL_MESSAGE_ID = "message_id";
     public static final String COL_ROLE = "role";
     public static final String COL_CONTENT_JSON = "content_json";
+    public static final String COL_CONTENT_FORMAT = "content_format";
+    public static final String COL_CONTENT_BIN = "content_bin";
+    public static final String COL_CONTENT_CODEC = "content_codec";
     public static final String COL_SEQUENCE_NUM = "sequence_num";
+    public static final String COL_TOKEN_COUNT = "token_count";
 
     // Column names - Artifacts
     public static final String COL_ARTIFACT_ID = "artifact_id";
@@ -40,11 +45,11 @@ public final class SqlConstants {
     // Task SQL
     public static final String UPDATE_TASK = String.format("""
             UPDATE %s
-            SET %s = ?, %s = ?, %s = ?, %s = ?, %s = ?
+            SET %s = ?, %s = ?, %s = ?, %s = ?, %s = ?, %s = %s + 1, %s = CURRENT_TIMESTAMP
             WHERE %s = ?
             """,
             TABLE_TASKS, COL_CONTEXT_ID, COL_STATUS_STATE, COL_STATUS_MESSAGE_JSON,
-            COL_STATUS_TIMESTAMP, COL_FINALIZED_AT, COL_TASK_ID);
+            COL_STATUS_TIMESTAMP, COL_FINALIZED_AT, COL_VERSION, COL_VERSION, COL_UPDATED_AT, COL_TASK_ID);
 
     public static final String INSERT_TASK = String.format("""
             INSERT INTO %s (%s, %s, %s, %s, %s, %s)
@@ -53,6 +58,19 @@ public final class SqlConstants {
             TABLE_TASKS, COL_TASK_ID, COL_CONTEXT_ID, COL_STATUS_STATE,
             COL_STATUS_MESSAGE_JSON, COL_STATUS_TIMESTAMP, COL_FINALIZED_AT);
 
+    public static final String TOUCH_TASK = String.format("""
+            UPDATE %s SET %s = %s + 1, %s = CURRENT_TIMESTAMP WHERE %s = ?
+            """, TABLE_TASKS, COL_VERSION, COL_VERSION, COL_UPDATED_AT, COL_TASK_ID);
+
+    public static final String LOCK_TASK_ROW = String.format("""
+            SELECT %s FROM %s WHERE %s = ? FOR UPDATE
+            """, COL_TASK_ID, TABLE_TASKS, COL_TASK_ID);
+
+    /** PostgreSQL transaction-scoped lock on the task id, held even while the task row does not exist */
+    public static final String LOCK_TASK_ADVISORY = """
+            SELECT pg_advisory_xact_lock(hashtext(?))
+            """;
+
     public static final String SELECT_TASK_BY_ID = String.format("""
             SELECT * FROM %s WHERE %s = ?
             """, TABLE_TASKS, COL_TASK_ID);
@@ -69,6 +87,21 @@ public final class SqlConstants {
             SELECT %s FROM %s WHERE %s = ?
             """, COL_STATUS_STATE, TABLE_TASKS, COL_TASK_ID);
 
+    public static final String SELECT_TASK_VERSION = String.format("""
+            SELECT %s FROM %s WHERE %s = ?
+            """, COL_VERSION, TABLE_TASKS, COL_TASK_ID);
+
+    public static final String SELECT_TASK_VERSIONS = String.format("""
+            SELECT %s, %s FROM %s WHERE %s IN (:taskIds)
+            """, COL_TASK_ID, COL_VERSION, TABLE_TASKS, COL_TASK_ID);
+
+    public static final String SELECT_RECENT_ACTIVE_TASKS = String.format("""
+            SELECT * FROM %s
+            WHERE %s IS NULL AND %s >= ?
+            ORDER BY %s DESC
+            LIMIT ?
+            """, TABLE_TASKS, COL_FINALIZED_AT, COL_UPDATED_AT, COL_UPDATED_AT);
+
     public static final String SELECT_FINALIZED_AT = String.format("""
             SELECT %s FROM %s WHERE %s = ?
             """, COL_FINALIZED_AT, TABLE_TASKS, COL_TASK_ID);
@@ -78,44 +111,133 @@ public final class SqlConstants {
             DELETE FROM %s WHERE %s = ?
             """, TABLE_HISTORY, COL_TASK_ID);
 
-    public static final String COUNT_HISTORY = String.format("""
-            SELECT COUNT(*) FROM %s WHERE %s = ?
-            """, TABLE_HISTORY, COL_TASK_ID);
+    /** Number of stored messages and the sequence number of the next one, which differ once older ones are deleted */
+    public static final String SELECT_HISTORY_EXTENT = String.format("""
+            SELECT COUNT(*), COALESCE(MAX(%s) + 1, 0) FROM %s WHERE %s = ?
+            """, COL_SEQUENCE_NUM, TABLE_HISTORY, COL_TASK_ID);
+
+    public static final String SELECT_NEXT_HISTORY_SEQUENCE = String.format("""
+            SELECT COALESCE(MAX(%s) + 1, 0) FROM %s WHERE %s = ?
+            """, COL_SEQUENCE_NUM, TABLE_HISTORY, COL_TASK_ID);
+
+    public static final String DELETE_HISTORY_BEFORE = String.format("""
+            DELETE FROM %s WHERE %s = ? AND %s < ?
+            """, TABLE_HISTORY, COL_TASK_ID, COL_SEQUENCE_NUM);
+
+    public static final String SELECT_HISTORY_IDS = String.format("""
+            SELECT %s, %s FROM %s WHERE %s = ? ORDER BY %s
+            """, COL_MESSAGE_ID, COL_SEQUENCE_NUM, TABLE_HISTORY, COL_TASK_ID, COL_SEQUENCE_NUM);
+
+    public static final String SELECT_HISTORY_TASK_IDS = String.format("""
+            SELECT DISTINCT %s FROM %s ORDER BY %s
+            """, COL_TASK_ID, TABLE_HISTORY, COL_TASK_ID);
 
     public static final String INSERT_HISTORY = String.format("""
-            INSERT INTO %s (%s, %s, %s, %s, %s, %s)
-            VALUES (?, ?, ?, ?, ?, ?)
+            INSERT INTO %s (%s, %s, %s, %s, %s, %s, %s, %s, %s, %s)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
             """,
             TABLE_HISTORY, COL_TASK_ID, COL_MESSAGE_ID, COL_ROLE,
-            COL_CONTENT_JSON, COL_METADATA_JSON, COL_SEQUENCE_NUM);
+            COL_CONTENT_JSON, COL_METADATA_JSON, COL_SEQUENCE_NUM, COL_CONTENT_FORMAT, COL_CONTENT_BIN, COL_CONTENT_CODEC,
+            COL_TOKEN_COUNT);
 
     public static final String SELECT_HISTORY = String.format("""
-            SELECT %s, %s, %s, %s, %s
+            SELECT %s, %s, %s, %s, %s, %s, %s, %s
             FROM %s
             WHERE %s = ?
             ORDER BY %s
             """,
-            COL_TASK_ID, COL_MESSAGE_ID, COL_ROLE, COL_CONTENT_JSON, COL_METADATA_JSON,
+            COL_TASK_ID, COL_MESSAGE_ID, COL_ROLE, COL_CONTENT_JSON, COL_CONTENT_FORMAT, COL_CONTENT_BIN, COL_CONTENT_CODEC,
+            COL_METADATA_JSON, TABLE_HISTORY, COL_TASK_ID, COL_SEQUENCE_NUM);
+
+    public static final String SELECT_LAST_HISTORY = String.format("""
+            SELECT * FROM (
+                SELECT %s, %s, %s, %s, %s, %s, %s, %s, %s
+                FROM %s
+                WHERE %s = ?
+                ORDER BY %s DESC
+                LIMIT ?
+            ) last_history
+            ORDER BY %s
+            """,
+            COL_TASK_ID, COL_MESSAGE_ID, COL_ROLE, COL_CONTENT_JSON, COL_CONTENT_FORMAT, COL_CONTENT_BIN, COL_CONTENT_CODEC,
+            COL_METADATA_JSON, COL_SEQUENCE_NUM, TABLE_HISTORY, COL_TASK_ID, COL_SEQUENCE_NUM, COL_SEQUENCE_NUM);
+
+    /**
+     * The longest tail of a task's history whose token counts sum to at most the second parameter, oldest first.
+     * The running sum walks the history backwards from the newest message. Rows written before token counts were
+     * stored are estimated from the length of their stored content, at four characters per token plus four per
+     * message as {@link TokenEstimator#DEFAULT} does; the JSON around the parts makes it an overestimate.
+     */
+    public static final String SELECT_HISTORY_WITHIN_TOKENS = String.format("""
+            SELECT * FROM (
+                SELECT %s, %s, %s, %s, %s, %s, %s, %s, %s,
+                       SUM(COALESCE(%s, 4 + (COALESCE(CHAR_LENGTH(CAST(%s AS VARCHAR)), 0)
+                               + COALESCE(OCTET_LENGTH(%s), 0) + 3) / 4))
+                           OVER (ORDER BY %s DESC ROWS UNBOUNDED PRECEDING) AS running_tokens
+                FROM %s
+                WHERE %s = ?
+            ) budgeted_history
+            WHERE running_tokens <= ?
+            ORDER BY %s
+            """,
+            COL_TASK_ID, COL_MESSAGE_ID, COL_ROLE, COL_CONTENT_JSON, COL_CONTENT_FORMAT, COL_CONTENT_BIN, COL_CONTENT_CODEC,
+            COL_METADATA_JSON, COL_SEQUENCE_NUM, COL_TOKEN_COUNT, COL_CONTENT_JSON, COL_CONTENT_BIN, COL_SEQUENCE_NUM,
             TABLE_HISTORY, COL_TASK_ID, COL_SEQUENCE_NUM);
 
+    public static final String SELECT_HISTORY_FOR_TASKS = String.format("""
+            SELECT %s, %s, %s, %s, %s, %s, %s, %s
+            FROM %s
+            WHERE %s IN (:taskIds)
+            ORDER BY %s, %s
+            """,
+            COL_TASK_ID, COL_MESSAGE_ID, COL_ROLE, COL_CONTENT_JSON, COL_CONTENT_FORMAT, COL_CONTENT_BIN, COL_CONTENT_CODEC,
+            COL_METADATA_JSON, TABLE_HISTORY, COL_TASK_ID, COL_TASK_ID, COL_SEQUENCE_NUM);
+
+    public static final String SELECT_LAST_HISTORY_FOR_TASKS = String.format("""
+            SELECT * FROM (
+                SELECT %s, %s, %s, %s, %s, %s, %s, %s, %s,
+                       ROW_NUMBER() OVER (PARTITION BY %s ORDER BY %s DESC) AS position_from_end
+                FROM %s
+                WHERE %s IN (:taskIds)
+            ) last_history
+            WHERE position_from_end <= :lastN
+            ORDER BY %s, %s
+            """,
+            COL_TASK_ID, COL_MESSAGE_ID, COL_ROLE, COL_CONTENT_JSON, COL_CONTENT_FORMAT, COL_CONTENT_BIN, COL_CONTENT_CODEC,
+            COL_METADATA_JSON, COL_SEQUENCE_NUM, COL_TASK_ID, COL_SEQUENCE_NUM, TABLE_HISTORY, COL_TASK_ID,
+            COL_TASK_ID, COL_SEQUENCE_NUM);
+
     // Artifact SQL
     public static final String DELETE_ARTIFACTS = String.format("""
             DELETE FROM %s WHERE %s = ?
             """, TABLE_ARTIFACTS, COL_TASK_ID);
 
     public static final String INSERT_ARTIFACT = String.format("""
-            INSERT INTO %s (%s, %s, %s, %s, %s, %s, %s, %s)
-            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            INSERT INTO %s (%s, %s, %s, %s, %s, %s, %s, %s, %s, %s, %s)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
             """,
             TABLE_ARTIFACTS, COL_TASK_ID, COL_ARTIFACT_ID, COL_NAME, COL_DESCRIPTION,
-            COL_CONTENT_JSON, COL_METADATA_JSON, COL_EXTENSIONS_JSON, COL_SEQUENCE_NUM);
+            COL_CONTENT_JSON, COL_METADATA_JSON, COL_EXTENSIONS_JSON, COL_SEQUENCE_NUM, COL_CONTENT_FORMAT, COL_CONTENT_BIN,
+            COL_CONTENT_CODEC);
 
     public static final String SELECT_ARTIFACTS = String.format("""
-            SELECT %s, %s, %s, %s, %s, %s, %s
+            SELECT %s, %s, %s, %s, %s, %s, %s, %s, %s, %s
             FROM %s
             WHERE %s = ?
             ORDER BY %s
             """,
-            COL_TASK_ID, COL_ARTIFACT_ID, COL_NAME, COL_DESCRIPTION, COL_CONTENT_JSON,
-            COL_METADATA_JSON, COL_EXTENSIONS_JSON, TABLE_ARTIFACTS, COL_TASK_ID, COL_SEQUENCE_NUM);
+            COL_TASK_ID, COL_ARTIFACT_ID, COL_NAME, COL_DESCRIPTION, COL_CONTENT_JSON, COL_CONTENT_FORMAT, COL_CONTENT_BIN,
+            COL_CONTENT_CODEC, COL_METADATA_JSON, COL_EXTENSIONS_JSON, TABLE_ARTIFACTS, COL_TASK_ID, COL_SEQUENCE_NUM);
+
+    public static final String SELECT_ARTIFACTS_FOR_TASKS = String.format("""
+            SELECT %s, %s, %s, %s, %s, %s, %s, %s, %s, %s
+            FROM %s
+            WHERE %s IN (:taskIds)
+            ORDER BY %s, %s
+            """,
+            COL_TASK_ID, COL_ARTIFACT_ID, COL_NAME, COL_DESCRIPTION, COL_CONTENT_JSON, COL_CONTENT_FORMAT, COL_CONTENT_BIN,
+            COL_CONTENT_CODEC, COL_METADATA_JSON, COL_EXTENSIONS_JSON, TABLE_ARTIFACTS, COL_TASK_ID, COL_TASK_ID, COL_SEQUENCE_NUM);
+
+    // Cache invalidation SQL
+    public static final String NOTIFY_TASK_CHANGED = "SELECT pg_notify(?, ?)";
 }
@@ -0,0 +1,208 @@
+package io.a2a.extras.taskstore.jdbc;
+
+import io.a2a.extras.taskstore.admission.TaskStoreOverloadedException;
+import io.a2a.spec.Message;
+import io.a2a.spec.Task;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Orders concurrent saves of a task within this process. One thread at a time writes a task; saves arriving
+ * meanwhile queue in memory, before any transaction or connection is taken, instead of contending for the task's
+ * lock or racing to insert it. The next writer takes all queued snapshots, drops those a later snapshot supersedes,
+ * writes the rest in order in one transaction and releases the queued callers once it committed.
+ * <p>
+ * A caller waits at most {@code maxWait} for its turn; it then leaves the queue without saving and gets a
+ * {@link TaskStoreOverloadedException}, as writing its snapshot out of turn could overwrite a newer one queued after it.
+ */
+final class TaskSaveQueue {
+
+    /** Name of the queue in the {@link TaskStoreOverloadedException} of a caller that waited too long */
+    static final String NAME = "save-queue";
+
+    private final StripedLocks locks;
+    private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+    private final long maxWaitNanos;
+
+    TaskSaveQueue(int stripes, Duration maxWait) {
+        this.locks = new StripedLocks(stripes);
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+    /**
+     * Saves the task with {@code writer}, on this thread together with snapshots queued for the task or by waiting
+     * for the thread writing it. Returns once the write committed.
+     *
+     * @param writer writes the snapshots in order in a transaction of its own, returning once it committed
+     * @throws TaskStoreOverloadedException if the turn did not come within {@code maxWait}; the task was not saved
+     * @throws RuntimeException the exception of the write that included the task
+     */
+    void save(Task task, Consumer<List<Task>> writer) {
+        String taskId = task.getId();
+        Save save = new Save(task);
+        Lane lane = locks.withLock(taskId, () -> {
+            Lane current = lanes.computeIfAbsent(taskId, id -> new Lane());
+            if (current.writer == Thread.currentThread()) {
+                return null;
+            }
+            current.queued.add(save);
+            if (current.writer == null) {
+                current.writer = save.thread;
+                save.turn.complete(true);
+            }
+            return current;
+        });
+        if (lane == null) {
+            // Saved again while this thread writes the task
+            writer.accept(List.of(task));
+            return;
+        }
+        if (awaitTurn(taskId, lane, save)) {
+            write(taskId, lane, writer);
+        }
+    }
+
+    /**
+     * @return true if this thread is to write the queued snapshots, false if its snapshot has been saved
+     */
+    private boolean awaitTurn(String taskId, Lane lane, Save save) {
+        try {
+            return save.turn.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            if (locks.withLock(taskId, () -> !save.turn.isDone() && lane.queued.remove(save))) {
+                throw new TaskStoreOverloadedException(NAME, TaskStoreOverloadedException.Reason.DEADLINE_EXCEEDED);
+            }
+            // Already taken by a writer, or promoted meanwhile
+            return join(save);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (locks.withLock(taskId, () -> !save.turn.isDone() && lane.queued.remove(save))) {
+                throw new IllegalStateException("Interrupted while waiting to save task " + taskId, e);
+            }
+            // Promoted or taken by a writer meanwhile, so the save has to be seen through
+            return join(save);
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    private void write(String taskId, Lane lane, Consumer<List<Task>> writer) {
+        List<Save> batch = locks.withLock(taskId, () -> {
+            List<Save> drained = new ArrayList<>(lane.queued);
+            lane.queued.clear();
+            return drained;
+        });
+        try {
+            writer.accept(coalesce(batch.stream().map(save -> save.task).toList()));
+        } catch (RuntimeException | Error e) {
+            complete(taskId, lane, batch, e);
+            throw e;
+        }
+        complete(taskId, lane, batch, null);
+    }
+
+    /**
+     * Releases the callers of the batch and hands the task to the first caller queued meanwhile.
+     */
+    private void complete(String taskId, Lane lane, List<Save> batch, Throwable failure) {
+        for (Save save : batch) {
+            if (failure == null) {
+                save.turn.complete(false);
+            } else {
+                save.turn.completeExceptionally(failure);
+            }
+        }
+        locks.withLock(taskId, () -> {
+            Save next = lane.queued.peek();
+            if (next == null) {
+                lane.writer = null;
+                lanes.remove(taskId, lane);
+            } else {
+                lane.writer = next.thread;
+                next.turn.complete(true);
+            }
+        });
+    }
+
+    /**
+     * Drops each snapshot that the following one supersedes, i.e. where writing only the following one stores the
+     * same as writing both: its history continues the earlier history, and it replaces the metadata if the earlier
+     * one did. Status and artifacts are replaced by every save.
+     */
+    static List<Task> coalesce(List<Task> snapshots) {
+        List<Task> effective = new ArrayList<>(snapshots.size());
+        for (Task snapshot : snapshots) {
+            int last = effective.size() - 1;
+            if (last >= 0 && supersedes(snapshot, effective.get(last))) {
+                effective.set(last, snapshot);
+            } else {
+                effective.add(snapshot);
+            }
+        }
+        return effective;
+    }
+
+    private static boolean supersedes(Task later, Task earlier) {
+        if (later.getMetadata() == null && earlier.getMetadata() != null) {
+            return false;
+        }
+        List<Message> laterHistory = later.getHistory();
+        List<Message> earlierHistory = earlier.getHistory();
+        // An empty history deletes the stored one, which the later save would not do
+        if (earlierHistory.isEmpty() || laterHistory.size() < earlierHistory.size()) {
+            return earlierHistory.isEmpty() && laterHistory.isEmpty();
+        }
+        for (int i = 0; i < earlierHistory.size(); i++) {
+            Message a = earlierHistory.get(i);
+            Message b = laterHistory.get(i);
+            if (a != b && (a.getMessageId() == null || !Objects.equals(a.getMessageId(), b.getMessageId()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean join(Save save) {
+        try {
+            return save.turn.join();
+        } catch (CompletionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable failure) {
+        if (failure instanceof Error error) {
+            throw error;
+        }
+        return failure instanceof RuntimeException runtime ? runtime : new IllegalStateException(failure);
+    }
+
+    /** Saves of one task; guarded by the task's stripe */
+    private static final class Lane {
+        private final ArrayDeque<Save> queued = new ArrayDeque<>();
+        private Thread writer;
+    }
+
+    private static final class Save {
+        private final Task task;
+        private final Thread thread = Thread.currentThread();
+        /** Completes with true when the caller is to write, false once its snapshot was saved */
+        private final CompletableFuture<Boolean> turn = new CompletableFuture<>();
+
+        Save(Task task) {
+            this.task = task;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package io.a2a.extras.taskstore.jdbc;
+
+import io.a2a.spec.DataPart;
+import io.a2a.spec.Message;
+import io.a2a.spec.Part;
+import io.a2a.spec.TextPart;
+
+/**
+ * Estimates the prompt tokens of a history message. The estimate is stored per row in {@code token_count} when the
+ * message is written, so that token-budgeted reads can sum it in the database. Register a bean to use the tokenizer
+ * of the model in use; changing the estimator does not update rows already stored.
+ */
+@FunctionalInterface
+public interface TokenEstimator {
+
+    /**
+     * About four characters per token for text and data parts plus a fixed overhead per message for the role and
+     * separators, as with most BPE tokenizers on English text. File parts are not counted.
+     */
+    TokenEstimator DEFAULT = new TokenEstimator() {
+
+        private static final int CHARS_PER_TOKEN = 4;
+        private static final int MESSAGE_OVERHEAD = 4;
+
+        @Override
+        public int estimate(Message message) {
+            long chars = 0;
+            if (message.getParts() != null) {
+                for (Part<?> part : message.getParts()) {
+                    if (part instanceof TextPart textPart && textPart.getText() != null) {
+                        chars += textPart.getText().length();
+                    } else if (part instanceof DataPart dataPart && dataPart.getData() != null) {
+                        chars += JsonUtils.toJson(dataPart.getData()).length();
+                    }
+                }
+            }
+            return (int) Math.min(Integer.MAX_VALUE, MESSAGE_OVERHEAD + (chars + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN);
+        }
+    };
+
+    /**
+     * @return estimated number of tokens, not negative
+     */
+    int estimate(Message message);
+}
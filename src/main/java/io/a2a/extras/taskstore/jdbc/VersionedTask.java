@@ -0,0 +1,95 @@
+package io.a2a.extras.taskstore.jdbc;
+
+import io.a2a.spec.Message;
+import io.a2a.spec.Task;
+
+import java.util.List;
+
+/**
+ * A task together with the version of its {@code a2a_tasks} row. The version increases with every save.
+ * <p>
+ * Entries derived with {@link #patch} keep the history in a structurally shared list and build the {@link Task}
+ * (which copies its history) only when {@link #task()} is first called.
+ */
+public final class VersionedTask {
+
+    /**
+     * Stands for a task that does not exist (anymore).
+     */
+    public static final VersionedTask ABSENT = new VersionedTask(null, -1);
+
+    private final Task header;
+    private final SharedHistory history;
+    private final long version;
+    private volatile Task task;
+
+    /**
+     * @param task the task, or null for {@link #ABSENT}
+     * @param version the row version
+     */
+    public VersionedTask(Task task, long version) {
+        this(task, null, version);
+        this.task = task;
+    }
+
+    private VersionedTask(Task header, SharedHistory history, long version) {
+        this.header = header;
+        this.history = history;
+        this.version = version;
+    }
+
+    /**
+     * @return the task, or null for {@link #ABSENT}
+     */
+    public Task task() {
+        Task current = task;
+        if (current == null && history != null) {
+            current = new Task.Builder(header).history(history).build();
+            task = current;
+        }
+        return current;
+    }
+
+    /**
+     * The task, possibly without its history. Cheap to obtain, for callers that only look at the
+     * status, artifacts or metadata.
+     */
+    public Task header() {
+        return header;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public int historySize() {
+        return history != null ? history.size() : header.getHistory().size();
+    }
+
+    public boolean exists() {
+        return header != null;
+    }
+
+    /**
+     * Derives the entry for the next version without copying the history.
+     *
+     * @param header the new task state; its history is ignored
+     * @param appended messages to add to the end of the history, already in stored form
+     * @param version the new row version
+     */
+    VersionedTask patch(Task header, List<Message> appended, long version) {
+        SharedHistory base = history != null ? history : SharedHistory.of(this.header.getHistory());
+        return new VersionedTask(withoutHistory(header), base.append(appended), version);
+    }
+
+    /**
+     * Same as {@link #patch} for a save that cleared the history.
+     */
+    VersionedTask withEmptyHistory(Task header, long version) {
+        return new VersionedTask(withoutHistory(header), SharedHistory.of(List.of()), version);
+    }
+
+    private static Task withoutHistory(Task task) {
+        return task.getHistory().isEmpty() ? task : new Task.Builder(task).history(List.of()).build();
+    }
+}
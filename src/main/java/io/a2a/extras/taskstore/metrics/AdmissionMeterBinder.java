@@ -0,0 +1,52 @@
+package io.a2a.extras.taskstore.metrics;
+
+import io.a2a.extras.taskstore.admission.AdmissionController;
+import io.a2a.extras.taskstore.admission.Bulkhead;
+import io.a2a.extras.taskstore.admission.TaskStoreOverloadedException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.List;
+
+/**
+ * Exports the state of the admission bulkheads, tagged by {@code bulkhead}: {@code a2a.taskstore.admission.queue.depth},
+ * {@code .in.flight} and {@code .limit} gauges, and {@code a2a.taskstore.admission.rejected} counters by
+ * {@code reason}.
+ */
+public class AdmissionMeterBinder implements MeterBinder {
+
+    private final AdmissionController controller;
+
+    public AdmissionMeterBinder(AdmissionController controller) {
+        this.controller = controller;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Bulkhead bulkhead : controller.getBulkheads()) {
+            Tags tags = Tags.of("bulkhead", bulkhead.getName());
+            Gauge.builder("a2a.taskstore.admission.queue.depth", bulkhead, Bulkhead::getQueueDepth)
+                    .description("Store calls waiting for a permit")
+                    .tags(tags)
+                    .register(registry);
+            Gauge.builder("a2a.taskstore.admission.in.flight", bulkhead, Bulkhead::getInFlight)
+                    .description("Store calls holding a permit")
+                    .tags(tags)
+                    .register(registry);
+            Gauge.builder("a2a.taskstore.admission.limit", bulkhead, Bulkhead::getLimit)
+                    .description("Store calls allowed to run at once")
+                    .tags(tags)
+                    .register(registry);
+            for (TaskStoreOverloadedException.Reason reason : List.of(
+                    TaskStoreOverloadedException.Reason.QUEUE_FULL, TaskStoreOverloadedException.Reason.DEADLINE_EXCEEDED)) {
+                FunctionCounter.builder("a2a.taskstore.admission.rejected", bulkhead, b -> b.getRejections(reason))
+                        .description("Store calls rejected for lack of a permit")
+                        .tags(tags).tag("reason", reason.name().toLowerCase())
+                        .register(registry);
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package io.a2a.extras.taskstore.metrics;
+
+import io.a2a.extras.taskstore.jdbc.JsonUtils;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * {@link TaskStoreMetrics} on Micrometer. Meters:
+ * <ul>
+ *     <li>{@code a2a.taskstore.repository} timer, tagged {@code repository} and {@code operation}</li>
+ *     <li>{@code a2a.taskstore.cache.load} timer, tagged {@code cache}</li>
+ *     <li>{@code a2a.taskstore.history.length} summary of saved history sizes</li>
+ *     <li>{@code a2a.taskstore.payload.size} summary of serialized JSON sizes in bytes, tagged {@code payload}</li>
+ *     <li>{@code a2a.taskstore.json.double.encoded} count of documents read through the double-encoded fallback</li>
+ *     <li>{@code a2a.taskstore.compression.ratio} summary of raw to stored size of compressed parts, tagged {@code codec}</li>
+ *     <li>{@code a2a.taskstore.compression.time} timer, tagged {@code codec} and {@code operation}
+ *     ({@code compress}, {@code decompress})</li>
+ * </ul>
+ * Timers and summaries publish the 50th, 95th and 99th percentiles.
+ */
+public class MicrometerTaskStoreMetrics implements TaskStoreMetrics {
+
+    private static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+
+    private final MeterRegistry registry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> payloadSummaries = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> compressionRatios = new ConcurrentHashMap<>();
+    private final DistributionSummary historyLength;
+
+    public MicrometerTaskStoreMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.historyLength = DistributionSummary.builder("a2a.taskstore.history.length")
+                .description("Messages in a saved task history")
+                .baseUnit("messages")
+                .publishPercentiles(PERCENTILES)
+                .register(registry);
+        FunctionCounter.builder("a2a.taskstore.json.double.encoded", this, metrics -> JsonUtils.doubleEncodedReads())
+                .description("JSON documents read through the double-encoded fallback")
+                .register(registry);
+    }
+
+    @Override
+    public <T> T timeRepository(String repository, String operation, Supplier<T> call) {
+        Timer timer = timers.computeIfAbsent(repository + "." + operation, key -> Timer.builder("a2a.taskstore.repository")
+                .description("Task store repository calls")
+                .tag("repository", repository)
+                .tag("operation", operation)
+                .publishPercentiles(PERCENTILES)
+                .register(registry));
+        return timer.record(call);
+    }
+
+    @Override
+    public <T> T timeCacheLoad(String cache, Supplier<T> load) {
+        Timer timer = timers.computeIfAbsent("cache." + cache, key -> Timer.builder("a2a.taskstore.cache.load")
+                .description("Database loads after a task cache miss")
+                .tag("cache", cache)
+                .publishPercentiles(PERCENTILES)
+                .register(registry));
+        return timer.record(load);
+    }
+
+    @Override
+    public void recordHistoryLength(int messages) {
+        historyLength.record(messages);
+    }
+
+    @Override
+    public void recordPayloadBytes(String payload, long bytes) {
+        payloadSummaries.computeIfAbsent(payload, key -> DistributionSummary.builder("a2a.taskstore.payload.size")
+                        .description("Serialized JSON written to the database")
+                        .baseUnit("bytes")
+                        .tag("payload", payload)
+                        .publishPercentiles(PERCENTILES)
+                        .register(registry))
+                .record(bytes);
+    }
+
+    @Override
+    public void recordCompression(String codec, long rawBytes, long storedBytes, long nanos) {
+        compressionRatios.computeIfAbsent(codec, key -> DistributionSummary.builder("a2a.taskstore.compression.ratio")
+                        .description("Raw to stored size of compressed parts payloads")
+                        .tag("codec", codec)
+                        .publishPercentiles(PERCENTILES)
+                        .register(registry))
+                .record(storedBytes == 0 ? 1 : (double) rawBytes / storedBytes);
+        compressionTimer(codec, "compress").record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordDecompression(String codec, long nanos) {
+        compressionTimer(codec, "decompress").record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer compressionTimer(String codec, String operation) {
+        return timers.computeIfAbsent("compression." + codec + "." + operation, key -> Timer.builder("a2a.taskstore.compression.time")
+                .description("Time spent compressing and decompressing parts payloads")
+                .tag("codec", codec)
+                .tag("operation", operation)
+                .publishPercentiles(PERCENTILES)
+                .register(registry));
+    }
+}
@@ -0,0 +1,61 @@
+package io.a2a.extras.taskstore.metrics;
+
+import io.a2a.extras.taskstore.cache.OffHeapTaskCache;
+import io.a2a.extras.taskstore.cache.TieredTaskCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.cache.Cache;
+
+/**
+ * Exports the statistics of the task cache: the standard {@code cache.*} meters (gets by result, puts, evictions,
+ * size) of the Caffeine tier, plus {@code a2a.taskstore.cache.offheap.*} meters when the off-heap tier is enabled.
+ * Tags match those of Spring Boot's own cache metrics, so both binders may run side by side.
+ */
+public class TaskCacheMeterBinder implements MeterBinder {
+
+    private final Cache cache;
+    private final String cacheManagerName;
+
+    /**
+     * @param cache the task cache, or null when caching is disabled
+     */
+    public TaskCacheMeterBinder(Cache cache, String cacheManagerName) {
+        this.cache = cache;
+        this.cacheManagerName = cacheManagerName;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (cache == null) {
+            return;
+        }
+        Tags tags = Tags.of("cache", cache.getName(), "cache.manager", cacheManagerName);
+        if (cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+            CaffeineCacheMetrics.monitor(registry, caffeine, cache.getName(), Tags.of("cache.manager", cacheManagerName));
+        }
+        if (cache instanceof TieredTaskCache tiered) {
+            OffHeapTaskCache offHeap = tiered.getOffHeapCache();
+            FunctionCounter.builder("a2a.taskstore.cache.offheap.gets", offHeap, OffHeapTaskCache::hitCount)
+                    .description("Off-heap tier lookups")
+                    .tags(tags).tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("a2a.taskstore.cache.offheap.gets", offHeap, OffHeapTaskCache::missCount)
+                    .description("Off-heap tier lookups")
+                    .tags(tags).tag("result", "miss")
+                    .register(registry);
+            Gauge.builder("a2a.taskstore.cache.offheap.size", offHeap, OffHeapTaskCache::size)
+                    .description("Tasks held in the off-heap tier")
+                    .tags(tags)
+                    .register(registry);
+            Gauge.builder("a2a.taskstore.cache.offheap.used", offHeap, OffHeapTaskCache::usedBytes)
+                    .description("Direct memory taken by the off-heap tier")
+                    .tags(tags)
+                    .baseUnit("bytes")
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package io.a2a.extras.taskstore.metrics;
+
+import java.util.function.Supplier;
+
+/**
+ * Instrumentation hooks of the task store. Kept free of Micrometer types so the store works without it;
+ * {@link MicrometerTaskStoreMetrics} is registered when Micrometer is on the classpath.
+ */
+public interface TaskStoreMetrics {
+
+    TaskStoreMetrics NOOP = new TaskStoreMetrics() {
+        @Override
+        public <T> T timeRepository(String repository, String operation, Supplier<T> call) {
+            return call.get();
+        }
+
+        @Override
+        public <T> T timeCacheLoad(String cache, Supplier<T> load) {
+            return load.get();
+        }
+
+        @Override
+        public void recordHistoryLength(int messages) {
+        }
+
+        @Override
+        public void recordPayloadBytes(String payload, long bytes) {
+        }
+
+        @Override
+        public void recordCompression(String codec, long rawBytes, long storedBytes, long nanos) {
+        }
+
+        @Override
+        public void recordDecompression(String codec, long nanos) {
+        }
+    };
+
+    /**
+     * Times a repository call.
+     *
+     * @param repository e.g. {@code task}, {@code history}, {@code artifact}
+     * @param operation e.g. {@code save}, {@code findById}
+     */
+    <T> T timeRepository(String repository, String operation, Supplier<T> call);
+
+    default void timeRepository(String repository, String operation, Runnable call) {
+        timeRepository(repository, operation, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    /**
+     * Times the database load after a miss in {@code cache}.
+     */
+    <T> T timeCacheLoad(String cache, Supplier<T> load);
+
+    /**
+     * Records the number of messages in a saved task history.
+     */
+    void recordHistoryLength(int messages);
+
+    /**
+     * Records the size of a serialized JSON document written to the database.
+     *
+     * @param payload what was serialized, e.g. {@code history}, {@code artifact}, {@code metadata}
+     */
+    void recordPayloadBytes(String payload, long bytes);
+
+    /**
+     * Records one compression of a parts payload; {@code storedBytes} equals {@code rawBytes} when the
+     * compressed form was not smaller and the payload was stored as is.
+     */
+    void recordCompression(String codec, long rawBytes, long storedBytes, long nanos);
+
+    /**
+     * Records the time to decompress a parts payload read from the database.
+     */
+    void recordDecompression(String codec, long nanos);
+}
@@ -1,65 +1,181 @@
 package io.a2a.extras.taskstore.repository;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import io.a2a.extras.taskstore.A2aTaskStoreProperties;
 import io.a2a.extras.taskstore.jdbc.JsonUtils;
 import io.a2a.extras.taskstore.jdbc.JsonbAdapter;
+import io.a2a.extras.taskstore.jdbc.PartsColumnCodec;
 import io.a2a.extras.taskstore.jdbc.SqlConstants;
+import io.a2a.extras.taskstore.metrics.TaskStoreMetrics;
 import io.a2a.spec.Artifact;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.core.StatementCreatorUtils;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.function.BiFunction;
-import java.util.stream.IntStream;
 
 public class ArtifactRepository {
 
     private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
     private final JsonbAdapter jsonbAdapter;
+    private final PartsColumnCodec partsCodec;
+    private final JsonUtils.JsonCodec<Map<String, Object>> metadataCodec;
+    private final JsonUtils.JsonCodec<List<String>> extensionsCodec;
     private final int batchSize;
+    private final TaskStoreMetrics metrics;
 
     public ArtifactRepository(JdbcTemplate jdbcTemplate, JsonbAdapter jsonbAdapter, A2aTaskStoreProperties properties) {
+        this(jdbcTemplate, jsonbAdapter, properties, TaskStoreMetrics.NOOP);
+    }
+
+    public ArtifactRepository(JdbcTemplate jdbcTemplate, JsonbAdapter jsonbAdapter, A2aTaskStoreProperties properties,
+                              TaskStoreMetrics metrics) {
         this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
         this.jsonbAdapter = jsonbAdapter;
+        this.partsCodec = new PartsColumnCodec(properties, jsonbAdapter, metrics);
+        this.metadataCodec = JsonUtils.METADATA_MAP.withDoubleEncodedFallback(properties.getJson().isDoubleEncodedFallback());
+        this.extensionsCodec = JsonUtils.EXTENSIONS.withDoubleEncodedFallback(properties.getJson().isDoubleEncodedFallback());
         this.batchSize = properties.getBatchSize();
+        this.metrics = metrics;
     }
 
     public void saveAll(String taskId, List<Artifact> artifacts) {
+        metrics.timeRepository("artifact", "saveAll", () -> doSaveAll(taskId, artifacts));
+    }
+
+    private void doSaveAll(String taskId, List<Artifact> artifacts) {
         jdbcTemplate.update(SqlConstants.DELETE_ARTIFACTS, taskId);
         if (artifacts.isEmpty()) {
             return;
         }
 
-        batchInsert(artifacts, (artifact, idx) -> new Object[]{
-                taskId,
-                artifact.artifactId(),
-                artifact.name(),
-                artifact.description(),
-                jsonbAdapter.adapt(JsonUtils.toJson(artifact.parts())),
-                jsonbAdapter.adapt(JsonUtils.toJson(artifact.metadata())),
-                jsonbAdapter.adapt(JsonUtils.toJson(artifact.extensions())),
-                idx
-        });
-    }
+        for (int start = 0; start < artifacts.size(); start += batchSize) {
+            List<Artifact> batch = artifacts.subList(start, Math.min(start + batchSize, artifacts.size()));
+            int firstSequence = start;
+            jdbcTemplate.batchUpdate(SqlConstants.INSERT_ARTIFACT, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    bindArtifact(ps, taskId, batch.get(i), firstSequence + i);
+                }
 
-    private <T> void batchInsert(List<T> items, BiFunction<T, Integer, Object[]> mapper) {
-        for (int start = 0; start < items.size(); start += batchSize) {
-            int end = Math.min(start + batchSize, items.size());
-            List<Object[]> batchArgs = IntStream.range(start, end)
-                    .mapToObj(index -> mapper.apply(items.get(index), index))
-                    .toList();
-            jdbcTemplate.batchUpdate(SqlConstants.INSERT_ARTIFACT, batchArgs);
+                @Override
+                public int getBatchSize() {
+                    return batch.size();
+                }
+            });
         }
     }
 
+    private void bindArtifact(PreparedStatement ps, String taskId, Artifact artifact, int sequence) throws SQLException {
+        ps.setString(1, taskId);
+        ps.setString(2, artifact.artifactId());
+        StatementCreatorUtils.setParameterValue(ps, 3, SqlTypeValue.TYPE_UNKNOWN, artifact.name());
+        StatementCreatorUtils.setParameterValue(ps, 4, SqlTypeValue.TYPE_UNKNOWN, artifact.description());
+        int contentBytes = partsCodec.bind(ps, 5, 9, 10, 11, artifact.parts());
+        metrics.recordPayloadBytes("artifact", contentBytes);
+        jsonbAdapter.bind(ps, 6, JsonUtils.METADATA_MAP.writeBytes(artifact.metadata()));
+        jsonbAdapter.bind(ps, 7, JsonUtils.EXTENSIONS.writeBytes(artifact.extensions()));
+        ps.setInt(8, sequence);
+    }
+
+    /**
+     * Returns the artifact as {@link #findByTaskId} would read it back after it was stored.
+     */
+    public Artifact toStoredArtifact(Artifact artifact) {
+        return new Artifact.Builder()
+                .artifactId(artifact.artifactId())
+                .name(artifact.name())
+                .description(artifact.description())
+                .parts(artifact.parts())
+                .metadata(artifact.metadata() != null ? artifact.metadata() : Map.of())
+                .extensions(artifact.extensions() != null ? artifact.extensions() : List.of())
+                .build();
+    }
+
     public List<Artifact> findByTaskId(String taskId) {
-        return jdbcTemplate.query(SqlConstants.SELECT_ARTIFACTS, new ArtifactRowMapper(), taskId);
+        return metrics.timeRepository("artifact", "findByTaskId",
+                () -> jdbcTemplate.query(SqlConstants.SELECT_ARTIFACTS, new ArtifactRowMapper(), taskId));
+    }
+
+    /**
+     * Writes the artifacts of a task as the JSON array {@link #findByTaskId} would serialize to,
+     * copying the stored columns row by row without building {@link Artifact}s.
+     */
+    public void writeJson(String taskId, JsonGenerator generator) throws IOException {
+        generator.writeStartArray();
+        try {
+            metrics.timeRepository("artifact", "writeJson", () ->
+                    jdbcTemplate.query(SqlConstants.SELECT_ARTIFACTS, (RowCallbackHandler) rs -> writeArtifact(rs, generator), taskId));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        generator.writeEndArray();
     }
 
-    private static class ArtifactRowMapper implements RowMapper<Artifact> {
+    private void writeArtifact(ResultSet rs, JsonGenerator generator) throws SQLException {
+        try {
+            generator.writeStartObject();
+            generator.writeStringField("artifactId", rs.getString(SqlConstants.COL_ARTIFACT_ID));
+            String name = rs.getString(SqlConstants.COL_NAME);
+            if (name != null) {
+                generator.writeStringField("name", name);
+            }
+            String description = rs.getString(SqlConstants.COL_DESCRIPTION);
+            if (description != null) {
+                generator.writeStringField("description", description);
+            }
+            generator.writeFieldName("parts");
+            partsCodec.copy(rs, generator);
+            generator.writeFieldName("metadata");
+            if (!metadataCodec.copy(rs.getBytes(SqlConstants.COL_METADATA_JSON), generator)) {
+                generator.writeStartObject();
+                generator.writeEndObject();
+            }
+            generator.writeFieldName("extensions");
+            if (!extensionsCodec.copy(rs.getBytes(SqlConstants.COL_EXTENSIONS_JSON), generator)) {
+                generator.writeStartArray();
+                generator.writeEndArray();
+            }
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Loads the artifacts of several tasks with one query.
+     *
+     * @return artifacts per task id; tasks without artifacts are absent
+     */
+    public Map<String, List<Artifact>> findByTaskIds(Collection<String> taskIds) {
+        Map<String, List<Artifact>> artifacts = new HashMap<>();
+        if (taskIds.isEmpty()) {
+            return artifacts;
+        }
+        ArtifactRowMapper rowMapper = new ArtifactRowMapper();
+        metrics.timeRepository("artifact", "findByTaskIds", () ->
+                namedJdbcTemplate.query(SqlConstants.SELECT_ARTIFACTS_FOR_TASKS, Map.of("taskIds", taskIds), (RowCallbackHandler) rs ->
+                        artifacts.computeIfAbsent(rs.getString(SqlConstants.COL_TASK_ID), id -> new ArrayList<>())
+                                .add(rowMapper.mapRow(rs, rs.getRow()))));
+        return artifacts;
+    }
+
+    private class ArtifactRowMapper implements RowMapper<Artifact> {
         @Override
         public Artifact mapRow(ResultSet rs, int rowNum) throws SQLException {
             try {
@@ -67,16 +183,13 @@ public class ArtifactRepository {
                         .artifactId(rs.getString(SqlConstants.COL_ARTIFACT_ID))
                         .name(rs.getString(SqlConstants.COL_NAME))
                         .description(rs.getString(SqlConstants.COL_DESCRIPTION))
-                        .parts(
-                                JsonUtils.fromJson(rs.getString(SqlConstants.COL_CONTENT_JSON), JsonUtils.PARTS_TYPE)
-                                        .orElseThrow(() -> new SQLException("Artifact content_json is null"))
-                        )
+                        .parts(partsCodec.read(rs))
                         .metadata(
-                                JsonUtils.fromJson(rs.getString(SqlConstants.COL_METADATA_JSON), JsonUtils.METADATA_MAP_TYPE)
+                                metadataCodec.read(rs.getBytes(SqlConstants.COL_METADATA_JSON))
                                         .orElse(Map.of())
                         )
                         .extensions(
-                                JsonUtils.fromJson(rs.getString(SqlConstants.COL_EXTENSIONS_JSON), JsonUtils.EXTENSIONS_TYPE)
+                                extensionsCodec.read(rs.getBytes(SqlConstants.COL_EXTENSIONS_JSON))
                                         .orElse(List.of())
                         )
                         .build();
@@ -1,107 +1,376 @@
 package io.a2a.extras.taskstore.repository;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import io.a2a.extras.taskstore.A2aTaskStoreProperties;
 import io.a2a.extras.taskstore.jdbc.JsonUtils;
 import io.a2a.extras.taskstore.jdbc.JsonbAdapter;
+import io.a2a.extras.taskstore.jdbc.PartsColumnCodec;
 import io.a2a.extras.taskstore.jdbc.SqlConstants;
+import io.a2a.extras.taskstore.jdbc.TokenEstimator;
+import io.a2a.extras.taskstore.metrics.TaskStoreMetrics;
 import io.a2a.spec.Message;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.function.BiFunction;
-import java.util.stream.IntStream;
 
 public class HistoryRepository {
 
     private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
     private final JsonbAdapter jsonbAdapter;
+    private final PartsColumnCodec partsCodec;
+    private final JsonUtils.JsonCodec<Map<String, Object>> metadataCodec;
     private final int batchSize;
+    private final TaskStoreMetrics metrics;
+    private final TokenEstimator tokenEstimator;
 
     public HistoryRepository(JdbcTemplate jdbcTemplate, JsonbAdapter jsonbAdapter, A2aTaskStoreProperties properties) {
+        this(jdbcTemplate, jsonbAdapter, properties, TaskStoreMetrics.NOOP);
+    }
+
+    public HistoryRepository(JdbcTemplate jdbcTemplate, JsonbAdapter jsonbAdapter, A2aTaskStoreProperties properties,
+                             TaskStoreMetrics metrics) {
+        this(jdbcTemplate, jsonbAdapter, properties, metrics, TokenEstimator.DEFAULT);
+    }
+
+    /**
+     * @param tokenEstimator computes the {@code token_count} of new rows
+     */
+    public HistoryRepository(JdbcTemplate jdbcTemplate, JsonbAdapter jsonbAdapter, A2aTaskStoreProperties properties,
+                             TaskStoreMetrics metrics, TokenEstimator tokenEstimator) {
         this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
         this.jsonbAdapter = jsonbAdapter;
+        this.partsCodec = new PartsColumnCodec(properties, jsonbAdapter, metrics);
+        this.metadataCodec = JsonUtils.METADATA_MAP.withDoubleEncodedFallback(properties.getJson().isDoubleEncodedFallback());
         this.batchSize = properties.getBatchSize();
+        this.metrics = metrics;
+        this.tokenEstimator = tokenEstimator;
     }
 
-    public void saveAll(String taskId, List<Message> messages) {
+    /**
+     * Persists the history of a task. Existing rows are kept; only messages beyond them are appended, after the last
+     * stored sequence number.
+     */
+    public SavedHistory saveAll(String taskId, List<Message> messages) {
+        metrics.recordHistoryLength(messages.size());
+        return metrics.timeRepository("history", "saveAll", () -> doSaveAll(taskId, messages));
+    }
+
+    private SavedHistory doSaveAll(String taskId, List<Message> messages) {
         if (messages.isEmpty()) {
             jdbcTemplate.update(SqlConstants.DELETE_HISTORY, taskId);
-            return;
+            return new SavedHistory(0, 0);
+        }
+
+        SavedHistory existing = jdbcTemplate.queryForObject(SqlConstants.SELECT_HISTORY_EXTENT,
+                (rs, rowNum) -> new SavedHistory(rs.getInt(1), rs.getInt(2) - rs.getInt(1)), taskId);
+
+        if (messages.size() > existing.size()) {
+            List<Message> newMessages = messages.subList(existing.size(), messages.size());
+            insertStartingFromSequence(taskId, newMessages, existing.sequenceOf(existing.size()));
         }
+        return new SavedHistory(Math.max(existing.size(), messages.size()), existing.sequenceOffset());
+    }
+
+    /**
+     * Outcome of {@link #saveAll}. Sequence numbers have gaps where {@link #replace} deleted older messages, so the
+     * appended messages are numbered from the last stored one rather than from the number of stored messages.
+     *
+     * @param size           number of history rows stored for the task
+     * @param sequenceOffset difference between the sequence number of an appended message and its index
+     */
+    public record SavedHistory(int size, int sequenceOffset) {
+
+        /** Sequence number of the message at {@code index}, if it was appended by the save. */
+        public int sequenceOf(int index) {
+            return index + sequenceOffset;
+        }
+    }
 
-        int existingCount = jdbcTemplate.queryForObject(SqlConstants.COUNT_HISTORY, Integer.class, taskId);
+    /**
+     * Deletes the history of a task with a single statement.
+     */
+    public void deleteByTaskId(String taskId) {
+        metrics.timeRepository("history", "deleteByTaskId", () -> {
+            jdbcTemplate.update(SqlConstants.DELETE_HISTORY, taskId);
+        });
+    }
+
+    /**
+     * Appends messages after the stored history of a task without reading or counting it. Call with the task row
+     * locked, e.g. by {@link TaskRepository#touch}, so concurrent appends get distinct sequence numbers.
+     *
+     * @return sequence number of the first appended message
+     */
+    public int append(String taskId, List<Message> messages) {
+        return metrics.timeRepository("history", "append", () -> {
+            int firstSequence = jdbcTemplate.queryForObject(SqlConstants.SELECT_NEXT_HISTORY_SEQUENCE, Integer.class, taskId);
+            insertStartingFromSequence(taskId, messages, firstSequence);
+            return firstSequence;
+        });
+    }
+
+    /**
+     * Replaces the history of a task with {@code messages}, writing only the difference when the stored history ends
+     * with the leading messages, matched by message id: stored messages before them are deleted and the trailing new
+     * messages appended after the last stored one. The kept rows are not written, so their sequence numbers no longer
+     * start at zero. Any other change rewrites the history.
+     * Call with the task row locked, e.g. by {@link TaskRepository#touch}.
+     */
+    public HistoryDiff replace(String taskId, List<Message> messages) {
+        metrics.recordHistoryLength(messages.size());
+        return metrics.timeRepository("history", "replace", () -> doReplace(taskId, messages));
+    }
+
+    private HistoryDiff doReplace(String taskId, List<Message> messages) {
+        List<String> storedIds = new ArrayList<>();
+        List<Integer> storedSequences = new ArrayList<>();
+        jdbcTemplate.query(SqlConstants.SELECT_HISTORY_IDS, (RowCallbackHandler) rs -> {
+            storedIds.add(rs.getString(SqlConstants.COL_MESSAGE_ID));
+            storedSequences.add(rs.getInt(SqlConstants.COL_SEQUENCE_NUM));
+        }, taskId);
 
-        if (existingCount == 0) {
+        int start = storedIds.isEmpty() ? 0 : keptFrom(storedIds, messages);
+        if (start < 0) {
+            jdbcTemplate.update(SqlConstants.DELETE_HISTORY, taskId);
             insertAll(taskId, messages);
-        } else if (messages.size() > existingCount) {
-            List<Message> newMessages = messages.subList(existingCount, messages.size());
-            insertStartingFromSequence(taskId, newMessages, existingCount);
+            return new HistoryDiff(storedIds.size(), 0, 0, true);
+        }
+
+        int kept = storedIds.size() - start;
+        int nextSequence = 0;
+        if (kept > 0) {
+            if (start > 0) {
+                jdbcTemplate.update(SqlConstants.DELETE_HISTORY_BEFORE, taskId, storedSequences.get(start));
+            }
+            nextSequence = storedSequences.get(storedSequences.size() - 1) + 1;
+        }
+        insertStartingFromSequence(taskId, messages.subList(kept, messages.size()), nextSequence);
+        return new HistoryDiff(start, kept, nextSequence, false);
+    }
+
+    /**
+     * @return index of the first stored message that {@code messages} starts with, if the stored history from there
+     *         on is a prefix of {@code messages}; -1 otherwise
+     */
+    private static int keptFrom(List<String> storedIds, List<Message> messages) {
+        if (messages.isEmpty()) {
+            return -1;
+        }
+        int start = storedIds.indexOf(messages.get(0).getMessageId());
+        if (start < 0 || storedIds.size() - start > messages.size()) {
+            return -1;
+        }
+        for (int i = start; i < storedIds.size(); i++) {
+            if (!storedIds.get(i).equals(messages.get(i - start).getMessageId())) {
+                return -1;
+            }
+        }
+        return start;
+    }
+
+    /**
+     * Outcome of {@link #replace}.
+     *
+     * @param removed       number of stored messages deleted
+     * @param kept          number of stored messages kept, now the first ones of the history
+     * @param firstSequence sequence number of the first appended message
+     * @param rewritten     whether the history was deleted and inserted again
+     */
+    public record HistoryDiff(int removed, int kept, int firstSequence, boolean rewritten) {
+
+        /** Whether {@code messages} only appended to the stored history, which is left as it was. */
+        public boolean isAppendOnly() {
+            return !rewritten && removed == 0;
         }
     }
 
+    /**
+     * Returns the message as {@link #findByTaskId} would read it back after it was stored at {@code sequence}.
+     */
+    public Message toStoredMessage(String taskId, Message msg, int sequence) {
+        return new Message.Builder()
+                .messageId(Optional.ofNullable(msg.getMessageId()).orElseGet(() -> generateMessageId(taskId, sequence)))
+                .contextId(taskId)
+                .taskId(taskId)
+                .role(msg.getRole())
+                .parts(msg.getParts())
+                .metadata(Optional.ofNullable(msg.getMetadata()).orElse(Map.of()))
+                .build();
+    }
+
     private void insertAll(String taskId, List<Message> messages) {
-        batchInsert(messages, (msg, index) -> messageToObjectArray(taskId, msg, index));
+        insertStartingFromSequence(taskId, messages, 0);
     }
 
     private void insertStartingFromSequence(String taskId, List<Message> messages, int startSequence) {
-        batchInsert(messages, (msg, index) -> messageToObjectArray(taskId, msg, startSequence + index));
+        for (int start = 0; start < messages.size(); start += batchSize) {
+            List<Message> batch = messages.subList(start, Math.min(start + batchSize, messages.size()));
+            int firstSequence = startSequence + start;
+            jdbcTemplate.batchUpdate(SqlConstants.INSERT_HISTORY, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    bindMessage(ps, taskId, batch.get(i), firstSequence + i);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return batch.size();
+                }
+            });
+        }
     }
 
-    private Object[] messageToObjectArray(String taskId, Message msg, Integer index) {
-        return new Object[]{
-                taskId,
-                Optional.ofNullable(msg.getMessageId()).orElseGet(() -> generateMessageId(taskId, index)),
-                msg.getRole().name(),
-                jsonbAdapter.adapt(JsonUtils.toJson(msg.getParts())),
-                jsonbAdapter.adapt(JsonUtils.toJson(msg.getMetadata())),
-                index
-        };
+    private void bindMessage(PreparedStatement ps, String taskId, Message msg, int sequence) throws SQLException {
+        ps.setString(1, taskId);
+        ps.setString(2, Optional.ofNullable(msg.getMessageId()).orElseGet(() -> generateMessageId(taskId, sequence)));
+        ps.setString(3, msg.getRole().name());
+        int contentBytes = partsCodec.bind(ps, 4, 7, 8, 9, msg.getParts());
+        metrics.recordPayloadBytes("history", contentBytes);
+        jsonbAdapter.bind(ps, 5, JsonUtils.METADATA_MAP.writeBytes(msg.getMetadata()));
+        ps.setInt(6, sequence);
+        ps.setInt(10, tokenEstimator.estimate(msg));
     }
 
     private String generateMessageId(String taskId, int index) {
         return taskId + "-msg-" + index;
     }
 
-    private <T> void batchInsert(List<T> items, BiFunction<T, Integer, Object[]> mapper) {
-        for (int start = 0; start < items.size(); start += batchSize) {
-            int end = Math.min(start + batchSize, items.size());
-            List<Object[]> batchArgs = IntStream.range(start, end)
-                    .mapToObj(index -> mapper.apply(items.get(index), index))
-                    .toList();
-            jdbcTemplate.batchUpdate(SqlConstants.INSERT_HISTORY, batchArgs);
+    public List<Message> findByTaskId(String taskId) {
+        return metrics.timeRepository("history", "findByTaskId",
+                () -> jdbcTemplate.query(SqlConstants.SELECT_HISTORY, new HistoryRowMapper(), taskId));
+    }
+
+    /**
+     * Loads the last {@code limit} messages of the history of a task, oldest first.
+     */
+    public List<Message> findLastByTaskId(String taskId, int limit) {
+        return metrics.timeRepository("history", "findLastByTaskId",
+                () -> jdbcTemplate.query(SqlConstants.SELECT_LAST_HISTORY, new HistoryRowMapper(), taskId, limit));
+    }
+
+    /**
+     * Loads the newest messages of the history of a task whose estimated tokens add up to at most {@code maxTokens},
+     * oldest first. The budget is applied by the database; a message that does not fit ends the window even if an
+     * older, shorter one would.
+     */
+    public List<Message> findWithinTokenBudget(String taskId, int maxTokens) {
+        return metrics.timeRepository("history", "findWithinTokenBudget",
+                () -> jdbcTemplate.query(SqlConstants.SELECT_HISTORY_WITHIN_TOKENS, new HistoryRowMapper(), taskId, maxTokens));
+    }
+
+    /**
+     * Lists the ids of the tasks that have history, from the history index.
+     */
+    public List<String> findTaskIds() {
+        return metrics.timeRepository("history", "findTaskIds",
+                () -> jdbcTemplate.queryForList(SqlConstants.SELECT_HISTORY_TASK_IDS, String.class));
+    }
+
+    /**
+     * Writes the history of a task as the JSON array {@link #findByTaskId} would serialize to,
+     * copying the stored columns row by row without building {@link Message}s.
+     */
+    public void writeJson(String taskId, JsonGenerator generator) throws IOException {
+        generator.writeStartArray();
+        try {
+            metrics.timeRepository("history", "writeJson", () ->
+                    jdbcTemplate.query(SqlConstants.SELECT_HISTORY, (RowCallbackHandler) rs -> writeMessage(rs, generator), taskId));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
+        generator.writeEndArray();
     }
 
-    public List<Message> findByTaskId(String taskId) {
-        return jdbcTemplate.query(SqlConstants.SELECT_HISTORY, new HistoryRowMapper(taskId), taskId);
+    private void writeMessage(ResultSet rs, JsonGenerator generator) throws SQLException {
+        try {
+            String taskId = rs.getString(SqlConstants.COL_TASK_ID);
+            generator.writeStartObject();
+            generator.writeStringField("role", Message.Role.valueOf(rs.getString(SqlConstants.COL_ROLE)).asString());
+            generator.writeFieldName("parts");
+            partsCodec.copy(rs, generator);
+            generator.writeStringField("messageId", rs.getString(SqlConstants.COL_MESSAGE_ID));
+            generator.writeStringField("contextId", taskId);
+            generator.writeStringField("taskId", taskId);
+            generator.writeFieldName("metadata");
+            if (!metadataCodec.copy(rs.getBytes(SqlConstants.COL_METADATA_JSON), generator)) {
+                generator.writeStartObject();
+                generator.writeEndObject();
+            }
+            generator.writeStringField("kind", Message.MESSAGE);
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
-    private static class HistoryRowMapper implements RowMapper<Message> {
-        private final String taskId;
+    /**
+     * Loads the histories of several tasks with one query.
+     *
+     * @return history per task id; tasks without history are absent
+     */
+    public Map<String, List<Message>> findByTaskIds(Collection<String> taskIds) {
+        Map<String, List<Message>> histories = new HashMap<>();
+        if (taskIds.isEmpty()) {
+            return histories;
+        }
+        HistoryRowMapper rowMapper = new HistoryRowMapper();
+        metrics.timeRepository("history", "findByTaskIds", () ->
+                namedJdbcTemplate.query(SqlConstants.SELECT_HISTORY_FOR_TASKS, Map.of("taskIds", taskIds), (RowCallbackHandler) rs -> {
+                    Message message = rowMapper.mapRow(rs, rs.getRow());
+                    histories.computeIfAbsent(message.getTaskId(), id -> new ArrayList<>()).add(message);
+                }));
+        return histories;
+    }
 
-        HistoryRowMapper(String taskId) {
-            this.taskId = taskId;
+    /**
+     * Loads the last {@code lastN} messages of the histories of several tasks with one query.
+     *
+     * @return the messages per task id, oldest first; tasks without history are absent
+     */
+    public Map<String, List<Message>> findLastByTaskIds(Collection<String> taskIds, int lastN) {
+        Map<String, List<Message>> histories = new HashMap<>();
+        if (taskIds.isEmpty() || lastN <= 0) {
+            return histories;
         }
+        HistoryRowMapper rowMapper = new HistoryRowMapper();
+        metrics.timeRepository("history", "findLastByTaskIds", () ->
+                namedJdbcTemplate.query(SqlConstants.SELECT_LAST_HISTORY_FOR_TASKS,
+                        Map.of("taskIds", taskIds, "lastN", lastN), (RowCallbackHandler) rs -> {
+                            Message message = rowMapper.mapRow(rs, rs.getRow());
+                            histories.computeIfAbsent(message.getTaskId(), id -> new ArrayList<>()).add(message);
+                        }));
+        return histories;
+    }
 
+    private class HistoryRowMapper implements RowMapper<Message> {
         @Override
         public Message mapRow(ResultSet rs, int rowNum) throws SQLException {
             try {
+                String taskId = rs.getString(SqlConstants.COL_TASK_ID);
                 return new Message.Builder()
                         .messageId(rs.getString(SqlConstants.COL_MESSAGE_ID))
                         .contextId(taskId)
                         .taskId(taskId)
                         .role(Message.Role.valueOf(rs.getString(SqlConstants.COL_ROLE)))
-                        .parts(
-                                JsonUtils.fromJson(rs.getString(SqlConstants.COL_CONTENT_JSON), JsonUtils.PARTS_TYPE)
-                                        .orElseThrow(() -> new SQLException("History content_json is null"))
-                        )
+                        .parts(partsCodec.read(rs))
                         .metadata(
-                                JsonUtils.fromJson(rs.getString(SqlConstants.COL_METADATA_JSON), JsonUtils.METADATA_MAP_TYPE)
+                                metadataCodec.read(rs.getBytes(SqlConstants.COL_METADATA_JSON))
                                         .orElse(Map.of())
                         )
                         .build();
@@ -1,23 +1,45 @@
 package io.a2a.extras.taskstore.repository;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.a2a.extras.taskstore.A2aTaskStoreProperties;
 import io.a2a.extras.taskstore.jdbc.JsonUtils;
 import io.a2a.extras.taskstore.jdbc.JsonbAdapter;
 import io.a2a.extras.taskstore.jdbc.SqlConstants;
+import io.a2a.extras.taskstore.metrics.TaskStoreMetrics;
+import io.a2a.spec.Message;
 import io.a2a.spec.Task;
 import io.a2a.spec.TaskState;
 import io.a2a.spec.TaskStatus;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.core.StatementCreatorUtils;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.util.function.SingletonSupplier;
 
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Savepoint;
 import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
 import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Supplier;
 
 public class TaskRepository {
 
@@ -26,60 +48,152 @@ public class TaskRepository {
     );
 
     private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
     private final JsonbAdapter jsonbAdapter;
+    private final TaskStoreMetrics metrics;
+    private final JsonUtils.JsonCodec<Message> messageCodec;
+    private final JsonUtils.JsonCodec<Map<String, Object>> metadataCodec;
+    /** Whether the database is PostgreSQL, which has advisory locks; looked up on the first use */
+    private final Supplier<Boolean> advisoryLocks;
 
     public TaskRepository(JdbcTemplate jdbcTemplate, JsonbAdapter jsonbAdapter) {
+        this(jdbcTemplate, jsonbAdapter, TaskStoreMetrics.NOOP);
+    }
+
+    public TaskRepository(JdbcTemplate jdbcTemplate, JsonbAdapter jsonbAdapter, TaskStoreMetrics metrics) {
+        this(jdbcTemplate, jsonbAdapter, new A2aTaskStoreProperties(), metrics);
+    }
+
+    /**
+     * @param properties whether documents stored double-encoded are still read
+     */
+    public TaskRepository(JdbcTemplate jdbcTemplate, JsonbAdapter jsonbAdapter, A2aTaskStoreProperties properties,
+                          TaskStoreMetrics metrics) {
         this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
         this.jsonbAdapter = jsonbAdapter;
+        this.metrics = metrics;
+        boolean doubleEncodedFallback = properties.getJson().isDoubleEncodedFallback();
+        this.messageCodec = JsonUtils.MESSAGE.withDoubleEncodedFallback(doubleEncodedFallback);
+        this.metadataCodec = JsonUtils.METADATA_MAP.withDoubleEncodedFallback(doubleEncodedFallback);
+        this.advisoryLocks = SingletonSupplier.of(() -> isPostgres(jdbcTemplate.getDataSource()));
+    }
+
+    private static boolean isPostgres(DataSource dataSource) {
+        try {
+            return "PostgreSQL".equals(JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName));
+        } catch (MetaDataAccessException e) {
+            // Not cached, so the next call looks again
+            throw new DataAccessResourceFailureException("Could not determine the database product", e);
+        }
+    }
+
+    public DataSource getDataSource() {
+        return jdbcTemplate.getDataSource();
     }
 
     public void save(Task task) {
+        metrics.timeRepository("task", "save", () -> doSave(task));
+    }
+
+    private void doSave(Task task) {
         String taskId = task.getId();
         String contextId = task.getContextId();
         TaskStatus status = task.getStatus();
         String statusState = status.state().asString();
-        String statusMessage = status.message() == null ? null : JsonUtils.toJson(status.message());
+        byte[] statusMessage = status.message() == null ? null : JsonUtils.MESSAGE.writeBytes(status.message());
+        if (statusMessage != null) {
+            metrics.recordPayloadBytes("status", statusMessage.length);
+        }
         OffsetDateTime statusTimestamp = status.timestamp();
         OffsetDateTime finalizedAt = FINAL_STATES.contains(status.state()) ? OffsetDateTime.now() : null;
 
-        int updatedRows = jdbcTemplate.update(
-                SqlConstants.UPDATE_TASK,
-                contextId,
-                statusState,
-                jsonbAdapter.adapt(statusMessage),
-                statusTimestamp,
-                finalizedAt,
-                taskId
-        );
-
+        int updatedRows = updateTask(taskId, contextId, statusState, statusMessage, statusTimestamp, finalizedAt);
         if (updatedRows > 0) {
             return;
         }
 
-        try {
-            jdbcTemplate.update(
-                    SqlConstants.INSERT_TASK,
-                    taskId,
-                    contextId,
-                    statusState,
-                    jsonbAdapter.adapt(statusMessage),
-                    statusTimestamp,
-                    finalizedAt
-            );
-        } catch (DuplicateKeyException ignored) {
-            jdbcTemplate.update(
-                    SqlConstants.UPDATE_TASK,
-                    contextId,
-                    statusState,
-                    jsonbAdapter.adapt(statusMessage),
-                    statusTimestamp,
-                    finalizedAt,
-                    taskId
-            );
+        Runnable insert = () -> jdbcTemplate.update(SqlConstants.INSERT_TASK, ps -> {
+            ps.setString(1, taskId);
+            StatementCreatorUtils.setParameterValue(ps, 2, SqlTypeValue.TYPE_UNKNOWN, contextId);
+            ps.setString(3, statusState);
+            jsonbAdapter.bind(ps, 4, statusMessage);
+            StatementCreatorUtils.setParameterValue(ps, 5, SqlTypeValue.TYPE_UNKNOWN, statusTimestamp);
+            StatementCreatorUtils.setParameterValue(ps, 6, SqlTypeValue.TYPE_UNKNOWN, finalizedAt);
+        });
+        if (advisoryLocks.get()) {
+            // lock() covers tasks not created yet, so no other writer can insert the task meanwhile
+            insert.run();
+        } else if (!insertUnlessDuplicate(insert)) {
+            updateTask(taskId, contextId, statusState, statusMessage, statusTimestamp, finalizedAt);
         }
     }
 
+    /**
+     * Runs the insert of a task that a concurrent writer may create first, as the row lock of {@link #lock} does not
+     * cover tasks that do not exist yet. In a transaction the insert runs in a savepoint, so that the transaction
+     * can go on after a duplicate key on databases that abort it on a failed statement.
+     *
+     * @return false if the task was created meanwhile
+     */
+    private boolean insertUnlessDuplicate(Runnable insert) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            Savepoint savepoint = connection.getAutoCommit() ? null : connection.setSavepoint();
+            try {
+                insert.run();
+            } catch (DuplicateKeyException e) {
+                if (savepoint != null) {
+                    connection.rollback(savepoint);
+                }
+                return false;
+            }
+            if (savepoint != null) {
+                connection.releaseSavepoint(savepoint);
+            }
+            return true;
+        }));
+    }
+
+    private int updateTask(String taskId, String contextId, String statusState, byte[] statusMessage,
+                           OffsetDateTime statusTimestamp, OffsetDateTime finalizedAt) {
+        return jdbcTemplate.update(SqlConstants.UPDATE_TASK, ps -> {
+            StatementCreatorUtils.setParameterValue(ps, 1, SqlTypeValue.TYPE_UNKNOWN, contextId);
+            ps.setString(2, statusState);
+            jsonbAdapter.bind(ps, 3, statusMessage);
+            StatementCreatorUtils.setParameterValue(ps, 4, SqlTypeValue.TYPE_UNKNOWN, statusTimestamp);
+            StatementCreatorUtils.setParameterValue(ps, 5, SqlTypeValue.TYPE_UNKNOWN, finalizedAt);
+            ps.setString(6, taskId);
+        });
+    }
+
+    /**
+     * Bumps the version of a task without rewriting it, locking its row until the transaction ends.
+     *
+     * @return false if the task does not exist
+     */
+    public boolean touch(String taskId) {
+        return metrics.timeRepository("task", "touch", () -> jdbcTemplate.update(SqlConstants.TOUCH_TASK, taskId) > 0);
+    }
+
+    /**
+     * Serializes writers of a task until the transaction ends. On PostgreSQL this takes an advisory lock on the task
+     * id, which also covers a task that is about to be created; elsewhere it locks the task row if it exists.
+     */
+    public void lock(String taskId) {
+        metrics.timeRepository("task", "lock", () -> {
+            if (advisoryLocks.get()) {
+                jdbcTemplate.query(SqlConstants.LOCK_TASK_ADVISORY, (RowCallbackHandler) rs -> { }, taskId);
+            } else {
+                jdbcTemplate.queryForList(SqlConstants.LOCK_TASK_ROW, String.class, taskId);
+            }
+        });
+    }
+
     public Optional<TaskRow> findById(String taskId) {
+        return metrics.timeRepository("task", "findById", () -> doFindById(taskId));
+    }
+
+    private Optional<TaskRow> doFindById(String taskId) {
         try {
             return Optional.ofNullable(jdbcTemplate.queryForObject(
                     SqlConstants.SELECT_TASK_BY_ID,
@@ -92,8 +206,12 @@ public class TaskRepository {
     }
 
     public void updateMetadata(String taskId, Map<String, Object> metadata) {
-        String metadataJson = metadata.isEmpty() ? null : JsonUtils.toJson(metadata);
-        jdbcTemplate.update(SqlConstants.UPDATE_TASK_METADATA, jsonbAdapter.adapt(metadataJson), taskId);
+        byte[] metadataJson = metadata.isEmpty() ? null : JsonUtils.METADATA_MAP.writeBytes(metadata);
+        metrics.recordPayloadBytes("metadata", metadataJson == null ? 0 : metadataJson.length);
+        jdbcTemplate.update(SqlConstants.UPDATE_TASK_METADATA, ps -> {
+            jsonbAdapter.bind(ps, 1, metadataJson);
+            ps.setString(2, taskId);
+        });
     }
 
     public void delete(String taskId) {
@@ -106,6 +224,30 @@ public class TaskRepository {
                 .orElse(false);
     }
 
+    public Optional<Long> findVersion(String taskId) {
+        return queryForOptional(SqlConstants.SELECT_TASK_VERSION, Long.class, taskId);
+    }
+
+    /**
+     * @return current version of each of the given tasks that still exists
+     */
+    public Map<String, Long> findVersions(Collection<String> taskIds) {
+        Map<String, Long> versions = new HashMap<>();
+        if (taskIds.isEmpty()) {
+            return versions;
+        }
+        namedJdbcTemplate.query(SqlConstants.SELECT_TASK_VERSIONS, Map.of("taskIds", taskIds),
+                (RowCallbackHandler) rs -> versions.put(rs.getString(SqlConstants.COL_TASK_ID), rs.getLong(SqlConstants.COL_VERSION)));
+        return versions;
+    }
+
+    /**
+     * @return active tasks updated at or after {@code since}, most recently updated first
+     */
+    public List<TaskRow> findRecentlyUpdatedActive(OffsetDateTime since, int limit) {
+        return jdbcTemplate.query(SqlConstants.SELECT_RECENT_ACTIVE_TASKS, new TaskRowMapper(), since, limit);
+    }
+
     public boolean isTaskFinalized(String taskId) {
         return queryForOptional(SqlConstants.SELECT_FINALIZED_AT, OffsetDateTime.class, taskId).isPresent();
     }
@@ -121,13 +263,32 @@ public class TaskRepository {
     public TaskStatus buildTaskStatus(TaskRow taskRow) {
         return new TaskStatus(
                 TaskState.fromString(taskRow.statusState()),
-                JsonUtils.fromJson(taskRow.statusMessageJson(), JsonUtils.MESSAGE_TYPE).orElse(null),
+                messageCodec.read(taskRow.statusMessageJson()).orElse(null),
                 taskRow.statusTimestamp()
         );
     }
 
+    /**
+     * Writes the status as {@link #buildTaskStatus} would serialize to, copying the stored status message
+     * instead of building a {@link io.a2a.spec.Message}.
+     */
+    public void writeStatusJson(TaskRow taskRow, JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("state", TaskState.fromString(taskRow.statusState()).asString());
+        if (taskRow.statusMessageJson() != null) {
+            generator.writeFieldName("message");
+            if (!messageCodec.copy(taskRow.statusMessageJson(), generator)) {
+                generator.writeNull();
+            }
+        }
+        // TaskStatus stamps statuses stored without a timestamp with the current time
+        OffsetDateTime timestamp = taskRow.statusTimestamp() != null ? taskRow.statusTimestamp() : OffsetDateTime.now();
+        generator.writeStringField("timestamp", DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(timestamp));
+        generator.writeEndObject();
+    }
+
     public Map<String, Object> loadMetadata(TaskRow taskRow) {
-        return JsonUtils.fromJson(taskRow.metadataJson(), JsonUtils.METADATA_MAP_TYPE)
+        return metadataCodec.read(taskRow.metadataJson())
                 .orElse(Map.of());
     }
 
@@ -135,10 +296,11 @@ public class TaskRepository {
             String taskId,
             String contextId,
             String statusState,
-            String statusMessageJson,
+            byte[] statusMessageJson,
             OffsetDateTime statusTimestamp,
             OffsetDateTime finalizedAt,
-            String metadataJson
+            byte[] metadataJson,
+            long version
     ) {
     }
 
@@ -149,10 +311,11 @@ public class TaskRepository {
                     rs.getString(SqlConstants.COL_TASK_ID),
                     rs.getString(SqlConstants.COL_CONTEXT_ID),
                     rs.getString(SqlConstants.COL_STATUS_STATE),
-                    rs.getString(SqlConstants.COL_STATUS_MESSAGE_JSON),
+                    rs.getBytes(SqlConstants.COL_STATUS_MESSAGE_JSON),
                     rs.getObject(SqlConstants.COL_STATUS_TIMESTAMP, OffsetDateTime.class),
                     rs.getObject(SqlConstants.COL_FINALIZED_AT, OffsetDateTime.class),
-                    rs.getString(SqlConstants.COL_METADATA_JSON)
+                    rs.getBytes(SqlConstants.COL_METADATA_JSON),
+                    rs.getLong(SqlConstants.COL_VERSION)
             );
         }
     }
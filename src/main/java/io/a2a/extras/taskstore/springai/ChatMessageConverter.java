@@ -0,0 +1,85 @@
+package io.a2a.extras.taskstore.springai;
+
+import io.a2a.spec.Message;
+import io.a2a.spec.TextPart;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static io.a2a.spec.Message.Role.AGENT;
+import static io.a2a.spec.Message.Role.USER;
+
+/**
+ * Converts between Spring AI chat messages and A2A history messages. Text parts carry the content; the A2A message id
+ * travels in the Spring AI message metadata so that saved windows can be matched against the stored rows, and
+ * system messages are marked in the A2A metadata so that they come back as {@link SystemMessage}s.
+ */
+final class ChatMessageConverter {
+
+	/** Spring AI message metadata key holding the id of the stored A2A message */
+	static final String MESSAGE_ID = "a2aMessageId";
+
+	/** A2A message metadata key recording the Spring AI message type where the role alone loses it */
+	static final String MESSAGE_TYPE = "springAiMessageType";
+
+	private static final Map<MessageType, Message.Role> MESSAGE_TYPE_TO_ROLE = Map.of(
+		MessageType.USER, USER,
+		MessageType.ASSISTANT, AGENT,
+		MessageType.SYSTEM, USER,
+		MessageType.TOOL, AGENT
+	);
+
+	private ChatMessageConverter() {
+	}
+
+	static Message toA2aMessage(org.springframework.ai.chat.messages.Message springMessage, String taskId) {
+		Message.Builder builder = new Message.Builder()
+			.role(MESSAGE_TYPE_TO_ROLE.getOrDefault(springMessage.getMessageType(), USER))
+			.parts(List.of(new TextPart(springMessage.getText())))
+			.contextId(taskId)
+			.taskId(taskId);
+		if (springMessage.getMetadata().get(MESSAGE_ID) instanceof String messageId) {
+			builder.messageId(messageId);
+		}
+		if (springMessage.getMessageType() == MessageType.SYSTEM) {
+			builder.metadata(Map.of(MESSAGE_TYPE, MessageType.SYSTEM.name()));
+		}
+		return builder.build();
+	}
+
+	static org.springframework.ai.chat.messages.Message toSpringAiMessage(Message a2aMessage) {
+		String content = extractTextContent(a2aMessage);
+		Map<String, Object> metadata = a2aMessage.getMessageId() != null
+			? Map.of(MESSAGE_ID, a2aMessage.getMessageId())
+			: Map.of();
+		if (isSystemMessage(a2aMessage)) {
+			return SystemMessage.builder().text(content).metadata(metadata).build();
+		}
+		if (a2aMessage.getRole() == AGENT) {
+			return AssistantMessage.builder().content(content).properties(metadata).build();
+		}
+		return UserMessage.builder().text(content).metadata(metadata).build();
+	}
+
+	private static boolean isSystemMessage(Message a2aMessage) {
+		return a2aMessage.getMetadata() != null
+			&& MessageType.SYSTEM.name().equals(a2aMessage.getMetadata().get(MESSAGE_TYPE));
+	}
+
+	private static String extractTextContent(Message a2aMessage) {
+		if (a2aMessage.getParts() == null) {
+			return "";
+		}
+
+		return a2aMessage.getParts().stream()
+			.filter(TextPart.class::isInstance)
+			.map(TextPart.class::cast)
+			.map(TextPart::getText)
+			.collect(Collectors.joining());
+	}
+}
@@ -0,0 +1,97 @@
+package io.a2a.extras.taskstore.springai;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.a2a.extras.taskstore.A2aTaskStoreProperties;
+import io.a2a.extras.taskstore.jdbc.JdbcTaskStore;
+import io.a2a.extras.taskstore.jdbc.VersionedTask;
+import org.springframework.ai.chat.messages.Message;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spring AI messages of recently read conversations, each tagged with the version of the task they were converted
+ * from. A read costs a version lookup while the conversation is unchanged; appends through the adapter extend the
+ * cached messages instead of dropping them. Bounded by the estimated size of the cached messages.
+ */
+final class ConversationViewCache {
+
+	private static final int MESSAGE_OVERHEAD_BYTES = 64;
+
+	private final Cache<String, ConversationView> views;
+
+	ConversationViewCache(A2aTaskStoreProperties.ChatMemoryCacheProperties properties) {
+		this.views = Caffeine.newBuilder()
+			.maximumWeight(properties.getMaxWeightBytes())
+			.weigher((String taskId, ConversationView view) -> view.weight())
+			.expireAfterAccess(properties.getExpireAfterAccessMinutes(), TimeUnit.MINUTES)
+			.build();
+	}
+
+	/**
+	 * @return the messages of the conversation, converted only if the task changed since they were cached;
+	 *         empty if the task does not exist
+	 */
+	List<Message> get(JdbcTaskStore taskStore, String taskId) {
+		ConversationView view = views.getIfPresent(taskId);
+		VersionedTask current;
+		if (view != null) {
+			Optional<VersionedTask> modified = taskStore.getIfModified(taskId, view.version());
+			if (modified.isEmpty()) {
+				return view.messages();
+			}
+			current = modified.get();
+		} else {
+			current = taskStore.getVersioned(taskId);
+		}
+		if (current == null || !current.exists()) {
+			views.invalidate(taskId);
+			return List.of();
+		}
+		ConversationView loaded = ConversationView.of(current.task().getHistory().stream()
+			.map(ChatMessageConverter::toSpringAiMessage)
+			.toList(), current.version());
+		views.put(taskId, loaded);
+		return loaded.messages();
+	}
+
+	/**
+	 * Extends the cached messages by an append that produced {@code version}, or drops them if they are not of the
+	 * version before.
+	 */
+	void appended(String taskId, List<io.a2a.spec.Message> messages, long version) {
+		views.asMap().computeIfPresent(taskId, (id, view) -> view.version() + 1 == version
+			? view.extend(messages.stream().map(ChatMessageConverter::toSpringAiMessage).toList(), version)
+			: null);
+	}
+
+	void invalidate(String taskId) {
+		views.invalidate(taskId);
+	}
+
+	private record ConversationView(List<Message> messages, long version, int weight) {
+
+		static ConversationView of(List<Message> messages, long version) {
+			return new ConversationView(messages, version, weigh(messages, 0));
+		}
+
+		ConversationView extend(List<Message> appended, long newVersion) {
+			List<Message> extended = new ArrayList<>(messages.size() + appended.size());
+			extended.addAll(messages);
+			extended.addAll(appended);
+			return new ConversationView(List.copyOf(extended), newVersion, weigh(appended, weight));
+		}
+
+		private static int weigh(List<Message> messages, int initial) {
+			long weight = initial;
+			for (Message message : messages) {
+				String text = message.getText();
+				weight += MESSAGE_OVERHEAD_BYTES + (text != null ? 2L * text.length() : 0);
+			}
+			return (int) Math.min(Integer.MAX_VALUE, weight);
+		}
+	}
+}
@@ -1,44 +1,45 @@
 package io.a2a.extras.taskstore.springai;
 
 import io.a2a.extras.taskstore.A2aTaskStoreProperties;
+import io.a2a.extras.taskstore.jdbc.JdbcTaskStore;
+import io.a2a.extras.taskstore.jdbc.StripedLocks;
+import io.a2a.extras.taskstore.jdbc.TokenEstimator;
 import io.a2a.server.tasks.TaskStore;
 import io.a2a.spec.*;
 import org.springframework.ai.chat.memory.ChatMemory;
-import org.springframework.ai.chat.messages.AssistantMessage;
-import org.springframework.ai.chat.messages.MessageType;
-import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.util.CollectionUtils;
 
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import static io.a2a.spec.Message.Role.AGENT;
-import static io.a2a.spec.Message.Role.USER;
-
+/**
+ * {@link ChatMemory} on a {@link TaskStore}: a conversation is a task and its messages are the task history.
+ * <p>
+ * Writes to one conversation are serialized by striped locks within this instance and, with a {@link JdbcTaskStore},
+ * by a database lock on the task across instances; writes to different conversations run in parallel.
+ * <p>
+ * With a {@link JdbcTaskStore}, reads are served from a {@link ConversationViewCache} of converted messages that is
+ * checked against the task version and extended by appends.
+ */
 public class TaskStoreChatMemoryAdapter implements ChatMemory {
 
-	private static final Map<MessageType, Message.Role> MESSAGE_TYPE_TO_ROLE = Map.of(
-		MessageType.USER, USER,
-		MessageType.ASSISTANT, AGENT,
-		MessageType.SYSTEM, USER,
-		MessageType.TOOL, AGENT
-	);
-
-	private static final Map<Message.Role, Function<String, org.springframework.ai.chat.messages.Message>> ROLE_TO_MESSAGE = Map.of(
-		USER, UserMessage::new,
-		AGENT, AssistantMessage::new
-	);
-
 	private final TaskStore taskStore;
+	private final StripedLocks locks;
+	private final ConversationViewCache views;
 
 	public TaskStoreChatMemoryAdapter(TaskStore taskStore, A2aTaskStoreProperties properties) {
 		this.taskStore = taskStore;
+		this.locks = new StripedLocks(properties.getChatMemoryLockStripes());
+		this.views = taskStore instanceof JdbcTaskStore && properties.getChatMemoryCache().isEnabled()
+			? new ConversationViewCache(properties.getChatMemoryCache())
+			: null;
 	}
 
 	@Override
@@ -47,10 +48,26 @@ public class TaskStoreChatMemoryAdapter implements ChatMemory {
 			return;
 		}
 
+		locks.withLock(taskId, () -> doAdd(taskId, messages));
+	}
+
+	private void doAdd(String taskId, List<org.springframework.ai.chat.messages.Message> messages) {
+		if (taskStore instanceof JdbcTaskStore jdbcTaskStore) {
+			// Append only the new messages instead of rewriting the whole task
+			List<Message> appended = messages.stream()
+				.map(message -> ChatMessageConverter.toA2aMessage(message, taskId))
+				.toList();
+			long version = jdbcTaskStore.appendHistory(taskId, appended, () -> newTask(taskId));
+			if (views != null) {
+				views.appended(taskId, appended, version);
+			}
+			return;
+		}
+
 		Task task = getOrCreateTask(taskId);
 		List<Message> a2aMessages = Stream.concat(
 				task.getHistory().stream(),
-				messages.stream().map(message -> convertToA2aMessage(message, taskId))
+				messages.stream().map(message -> ChatMessageConverter.toA2aMessage(message, taskId))
 			)
 			.collect(Collectors.toCollection(ArrayList::new));
 
@@ -58,6 +75,11 @@ public class TaskStoreChatMemoryAdapter implements ChatMemory {
 	}
 
 	public List<org.springframework.ai.chat.messages.Message> get(String taskId, int lastN) {
+		if (views != null) {
+			List<org.springframework.ai.chat.messages.Message> messages = views.get((JdbcTaskStore) taskStore, taskId);
+			return messages.subList(Math.max(0, messages.size() - lastN), messages.size());
+		}
+
 		Task task = taskStore.get(taskId);
 		if (task == null || CollectionUtils.isEmpty(task.getHistory())) {
 			return List.of();
@@ -67,10 +89,67 @@ public class TaskStoreChatMemoryAdapter implements ChatMemory {
 		int startIndex = Math.max(0, history.size() - lastN);
 
 		return history.subList(startIndex, history.size()).stream()
-			.map(this::convertToSpringAiMessage)
+			.map(ChatMessageConverter::toSpringAiMessage)
 			.toList();
 	}
 
+	/**
+	 * Returns the newest messages of the conversation that fit into {@code maxTokens}. With a {@link JdbcTaskStore}
+	 * the budget is applied by the database on the token counts stored with each message; other stores are trimmed
+	 * here with {@link TokenEstimator#DEFAULT}.
+	 */
+	public List<org.springframework.ai.chat.messages.Message> getWithinTokenBudget(String taskId, int maxTokens) {
+		if (taskStore instanceof JdbcTaskStore jdbcTaskStore) {
+			return jdbcTaskStore.getWithinTokenBudget(taskId, maxTokens).stream()
+				.map(ChatMessageConverter::toSpringAiMessage)
+				.toList();
+		}
+
+		Task task = taskStore.get(taskId);
+		if (task == null || CollectionUtils.isEmpty(task.getHistory())) {
+			return List.of();
+		}
+
+		List<Message> history = task.getHistory();
+		int startIndex = history.size();
+		long tokens = 0;
+		while (startIndex > 0) {
+			tokens += TokenEstimator.DEFAULT.estimate(history.get(startIndex - 1));
+			if (tokens > maxTokens) {
+				break;
+			}
+			startIndex--;
+		}
+
+		return history.subList(startIndex, history.size()).stream()
+			.map(ChatMessageConverter::toSpringAiMessage)
+			.toList();
+	}
+
+	/**
+	 * Returns the last {@code lastN} messages of several conversations. With a {@link JdbcTaskStore} they are read
+	 * with a single query instead of one task load per conversation.
+	 *
+	 * @return the messages per conversation id, in the order of {@code taskIds}; empty for unknown conversations
+	 */
+	public Map<String, List<org.springframework.ai.chat.messages.Message>> getAll(Collection<String> taskIds, int lastN) {
+		Map<String, List<org.springframework.ai.chat.messages.Message>> conversations = new LinkedHashMap<>();
+		if (taskStore instanceof JdbcTaskStore jdbcTaskStore) {
+			Map<String, List<Message>> histories = jdbcTaskStore.getHistories(taskIds, lastN);
+			for (String taskId : taskIds) {
+				conversations.put(taskId, histories.getOrDefault(taskId, List.of()).stream()
+					.map(ChatMessageConverter::toSpringAiMessage)
+					.toList());
+			}
+			return conversations;
+		}
+
+		for (String taskId : taskIds) {
+			conversations.computeIfAbsent(taskId, id -> get(id, lastN));
+		}
+		return conversations;
+	}
+
 	@Override
 	public List<org.springframework.ai.chat.messages.Message> get(String taskId) {
 		return get(taskId, Integer.MAX_VALUE);
@@ -78,47 +157,32 @@ public class TaskStoreChatMemoryAdapter implements ChatMemory {
 
 	@Override
 	public void clear(String taskId) {
-		Task task = taskStore.get(taskId);
-		if (task != null) {
-			taskStore.save(new Task.Builder(task).history(List.of()).build());
-		}
+		locks.withLock(taskId, () -> {
+			if (taskStore instanceof JdbcTaskStore jdbcTaskStore) {
+				jdbcTaskStore.deleteHistory(taskId);
+			} else {
+				Task task = taskStore.get(taskId);
+				if (task != null) {
+					taskStore.save(new Task.Builder(task).history(List.of()).build());
+				}
+			}
+			if (views != null) {
+				views.invalidate(taskId);
+			}
+		});
 	}
 
 	private Task getOrCreateTask(String taskId) {
 		return Optional.ofNullable(taskStore.get(taskId))
-			.orElseGet(() ->
-				new Task.Builder()
-					.id(taskId)
-					.contextId(taskId)
-					.status(new TaskStatus(TaskState.WORKING, null, OffsetDateTime.now()))
-					.history(List.of())
-					.build()
-			);
+			.orElseGet(() -> newTask(taskId));
 	}
 
-	private Message convertToA2aMessage(org.springframework.ai.chat.messages.Message springMessage, String taskId) {
-		return new Message.Builder()
-			.role(MESSAGE_TYPE_TO_ROLE.getOrDefault(springMessage.getMessageType(), USER))
-			.parts(List.of(new TextPart(springMessage.getText())))
+	static Task newTask(String taskId) {
+		return new Task.Builder()
+			.id(taskId)
 			.contextId(taskId)
-			.taskId(taskId)
+			.status(new TaskStatus(TaskState.WORKING, null, OffsetDateTime.now()))
+			.history(List.of())
 			.build();
 	}
-
-	private org.springframework.ai.chat.messages.Message convertToSpringAiMessage(Message a2aMessage) {
-		String content = extractTextContent(a2aMessage);
-		return ROLE_TO_MESSAGE.getOrDefault(a2aMessage.getRole(), UserMessage::new).apply(content);
-	}
-
-	private String extractTextContent(Message a2aMessage) {
-		if (a2aMessage.getParts() == null) {
-			return "";
-		}
-
-		return a2aMessage.getParts().stream()
-			.filter(TextPart.class::isInstance)
-			.map(TextPart.class::cast)
-			.map(TextPart::getText)
-			.collect(Collectors.joining());
-	}
 }
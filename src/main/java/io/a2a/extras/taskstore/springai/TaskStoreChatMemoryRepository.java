@@ -0,0 +1,49 @@
+package io.a2a.extras.taskstore.springai;
+
+import io.a2a.extras.taskstore.jdbc.JdbcTaskStore;
+import org.springframework.ai.chat.memory.ChatMemoryRepository;
+import org.springframework.ai.chat.messages.Message;
+
+import java.util.List;
+
+/**
+ * {@link ChatMemoryRepository} on the task store tables: a conversation is a task and its messages are the task
+ * history. Only history rows are read and written, never the task row contents or artifacts.
+ * <p>
+ * {@link #saveAll} writes the difference to the stored history. A
+ * {@link org.springframework.ai.chat.memory.MessageWindowChatMemory} saves the messages it read plus the new ones,
+ * minus the oldest beyond its window; this deletes the dropped rows and inserts the new ones instead of rewriting the
+ * conversation. The stored history then never exceeds the window, so reads only fetch the rows in it.
+ */
+public class TaskStoreChatMemoryRepository implements ChatMemoryRepository {
+
+	private final JdbcTaskStore taskStore;
+
+	public TaskStoreChatMemoryRepository(JdbcTaskStore taskStore) {
+		this.taskStore = taskStore;
+	}
+
+	@Override
+	public List<String> findConversationIds() {
+		return taskStore.getTaskIdsWithHistory();
+	}
+
+	@Override
+	public List<Message> findByConversationId(String conversationId) {
+		return taskStore.getHistory(conversationId, Integer.MAX_VALUE).stream()
+			.map(ChatMessageConverter::toSpringAiMessage)
+			.toList();
+	}
+
+	@Override
+	public void saveAll(String conversationId, List<Message> messages) {
+		taskStore.replaceHistory(conversationId,
+			messages.stream().map(message -> ChatMessageConverter.toA2aMessage(message, conversationId)).toList(),
+			() -> TaskStoreChatMemoryAdapter.newTask(conversationId));
+	}
+
+	@Override
+	public void deleteByConversationId(String conversationId) {
+		taskStore.deleteHistory(conversationId);
+	}
+}
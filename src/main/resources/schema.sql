@@ -12,6 +12,7 @@ CREATE TABLE IF NOT EXISTS a2a_tasks (
     created_at TIMESTAMPTZ DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMPTZ DEFAULT CURRENT_TIMESTAMP,
     finalized_at TIMESTAMPTZ,
+    version BIGINT NOT NULL DEFAULT 0,  -- Incremented on every save, used to validate cached copies
 
     CONSTRAINT chk_status CHECK (status_state IN (
         'submitted', 'working', 'input-required', 'auth-required',
@@ -24,7 +25,11 @@ CREATE TABLE IF NOT EXISTS a2a_history (
     task_id VARCHAR(255) NOT NULL REFERENCES a2a_tasks(task_id) ON DELETE CASCADE,
     message_id VARCHAR(255) NOT NULL,
     role VARCHAR(20) NOT NULL,  -- 'USER' or 'AGENT'
-    content_json JSONB NOT NULL,  -- Array of Part objects
+    content_json JSONB,           -- Array of Part objects (JSON content format)
+    content_format VARCHAR(8),    -- JSON, SMILE or CBOR; null for rows written before the column existed
+    content_bin BYTEA,            -- Parts in a binary content format, or compressed parts
+    content_codec VARCHAR(8),     -- Compression of content_bin (ZSTD, DEFLATE); null if uncompressed
+    token_count INTEGER,          -- Estimated prompt tokens; null for rows written before the column existed
     metadata_json JSONB,          -- Message metadata JSON object
     created_at TIMESTAMPTZ DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMPTZ DEFAULT CURRENT_TIMESTAMP,
@@ -40,7 +45,10 @@ CREATE TABLE IF NOT EXISTS a2a_artifacts (
     task_id VARCHAR(255) NOT NULL REFERENCES a2a_tasks(task_id) ON DELETE CASCADE,
     name VARCHAR(500),
     description TEXT,
-    content_json JSONB NOT NULL,
+    content_json JSONB,
+    content_format VARCHAR(8),
+    content_bin BYTEA,
+    content_codec VARCHAR(8),
     metadata_json JSONB,
     extensions_json JSONB,
     sequence_num INTEGER NOT NULL,
@@ -50,6 +58,18 @@ CREATE TABLE IF NOT EXISTS a2a_artifacts (
     PRIMARY KEY (artifact_id, task_id)
 );
 
+-- Upgrades for tables created by earlier versions
+ALTER TABLE a2a_tasks ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE a2a_history ALTER COLUMN content_json DROP NOT NULL;
+ALTER TABLE a2a_history ADD COLUMN IF NOT EXISTS content_format VARCHAR(8);
+ALTER TABLE a2a_history ADD COLUMN IF NOT EXISTS content_bin BYTEA;
+ALTER TABLE a2a_history ADD COLUMN IF NOT EXISTS content_codec VARCHAR(8);
+ALTER TABLE a2a_history ADD COLUMN IF NOT EXISTS token_count INTEGER;
+ALTER TABLE a2a_artifacts ALTER COLUMN content_json DROP NOT NULL;
+ALTER TABLE a2a_artifacts ADD COLUMN IF NOT EXISTS content_format VARCHAR(8);
+ALTER TABLE a2a_artifacts ADD COLUMN IF NOT EXISTS content_bin BYTEA;
+ALTER TABLE a2a_artifacts ADD COLUMN IF NOT EXISTS content_codec VARCHAR(8);
+
 -- Indexes for performance
 CREATE INDEX IF NOT EXISTS idx_tasks_status ON a2a_tasks(status_state);
 CREATE INDEX IF NOT EXISTS idx_tasks_finalized ON a2a_tasks(finalized_at) WHERE finalized_at IS NOT NULL;
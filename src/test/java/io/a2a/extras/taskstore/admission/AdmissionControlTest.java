@@ -0,0 +1,67 @@
+package io.a2a.extras.taskstore.admission;
+
+import io.a2a.extras.taskstore.cache.CacheTestConfiguration;
+import io.a2a.extras.taskstore.jdbc.JdbcTaskStore;
+import io.a2a.spec.TaskState;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import static io.a2a.extras.taskstore.support.TaskTestBuilder.aTask;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(classes = CacheTestConfiguration.class)
+@TestPropertySource(properties = {
+    "spring.sql.init.mode=never",
+    "spring.datasource.url=jdbc:h2:mem:admissiondb;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;INIT=RUNSCRIPT FROM 'classpath:test-schema-h2.sql'",
+    "a2a.taskstore.cache.enabled=false",
+    "a2a.taskstore.admission.enabled=true",
+    "a2a.taskstore.admission.write.max-concurrency=1",
+    "a2a.taskstore.admission.write.max-queue=0"
+})
+class AdmissionControlTest {
+
+    @Autowired
+    private JdbcTaskStore taskStore;
+
+    @Autowired
+    private AdmissionController admissionController;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void limitsShouldBeDerivedFromThePoolSize() {
+        assertThat(AopUtils.isAopProxy(taskStore)).isTrue();
+        assertThat(admissionController.getWrites().getLimit()).isEqualTo(1);
+        // Hikari's default pool of 10 less the connection left to writes
+        assertThat(admissionController.getReads().getLimit()).isEqualTo(9);
+    }
+
+    @Test
+    void writesOverTheLimitShouldBeRejectedWhileReadsProceed() {
+        taskStore.save(aTask().withId("admission-1").withStatus(TaskState.WORKING).build());
+
+        Bulkhead.Permit held = admissionController.acquire(false);
+        try {
+            assertThatThrownBy(() -> taskStore.save(aTask().withId("admission-1").withStatus(TaskState.COMPLETED).build()))
+                    .isInstanceOf(TaskStoreOverloadedException.class);
+            assertThat(taskStore.get("admission-1").getStatus().state()).isEqualTo(TaskState.WORKING);
+        } finally {
+            held.release();
+        }
+
+        taskStore.save(aTask().withId("admission-1").withStatus(TaskState.COMPLETED).build());
+        assertThat(taskStore.get("admission-1").getStatus().state()).isEqualTo(TaskState.COMPLETED);
+        assertThat(admissionController.getWrites().getInFlight()).isZero();
+        assertThat(admissionController.getReads().getInFlight()).isZero();
+        assertThat(meterRegistry.get("a2a.taskstore.admission.rejected").tag("bulkhead", "write")
+                .tag("reason", "queue_full").functionCounter().count()).isPositive();
+        assertThat(meterRegistry.get("a2a.taskstore.admission.queue.depth").tag("bulkhead", "read").gauge().value())
+                .isZero();
+    }
+}
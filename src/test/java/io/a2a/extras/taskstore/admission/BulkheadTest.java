@@ -0,0 +1,91 @@
+package io.a2a.extras.taskstore.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BulkheadTest {
+
+    @Test
+    void callsOverTheLimitShouldBeRejectedWhenTheQueueIsFull() {
+        Bulkhead bulkhead = new Bulkhead("write", 2, 0, Duration.ofSeconds(1));
+        Bulkhead.Permit first = bulkhead.acquire();
+        bulkhead.acquire();
+
+        assertThatThrownBy(bulkhead::acquire)
+                .isInstanceOfSatisfying(TaskStoreOverloadedException.class, e -> {
+                    assertThat(e.getBulkhead()).isEqualTo("write");
+                    assertThat(e.getReason()).isEqualTo(TaskStoreOverloadedException.Reason.QUEUE_FULL);
+                });
+        assertThat(bulkhead.getRejections(TaskStoreOverloadedException.Reason.QUEUE_FULL)).isEqualTo(1);
+
+        first.release();
+        first.release();
+        assertThat(bulkhead.getInFlight()).isEqualTo(1);
+        bulkhead.acquire();
+    }
+
+    @Test
+    void queuedCallShouldBeRejectedAfterTheDeadline() {
+        Bulkhead bulkhead = new Bulkhead("read", 1, 10, Duration.ofMillis(50));
+        bulkhead.acquire();
+
+        long start = System.nanoTime();
+        assertThatThrownBy(bulkhead::acquire)
+                .isInstanceOfSatisfying(TaskStoreOverloadedException.class, e ->
+                        assertThat(e.getReason()).isEqualTo(TaskStoreOverloadedException.Reason.DEADLINE_EXCEEDED));
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(50));
+        assertThat(bulkhead.getQueueDepth()).isZero();
+        assertThat(bulkhead.getRejections(TaskStoreOverloadedException.Reason.DEADLINE_EXCEEDED)).isEqualTo(1);
+    }
+
+    @Test
+    void queuedCallShouldGetThePermitOfAReleasedCall() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("read", 1, 10, Duration.ofSeconds(5));
+        Bulkhead.Permit running = bulkhead.acquire();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CompletableFuture<Bulkhead.Permit> queued = CompletableFuture.supplyAsync(bulkhead::acquire, executor);
+            while (bulkhead.getQueueDepth() == 0) {
+                TimeUnit.MILLISECONDS.sleep(1);
+            }
+            assertThat(queued).isNotDone();
+
+            running.release();
+
+            queued.get(5, TimeUnit.SECONDS).release();
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(bulkhead.getInFlight()).isZero();
+    }
+
+    @Test
+    void adaptiveLimitShouldBackOffOnSlowCallsAndRecover() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("read", 8, 0, Duration.ZERO,
+                new Bulkhead.AdaptiveLimit(2, Duration.ofMillis(5), 0.5));
+
+        Bulkhead.Permit slow = bulkhead.acquire();
+        TimeUnit.MILLISECONDS.sleep(10);
+        slow.release();
+        assertThat(bulkhead.getLimit()).isEqualTo(4);
+
+        bulkhead.acquire().release(true);
+        bulkhead.acquire().release(true);
+        assertThat(bulkhead.getLimit()).isEqualTo(2);
+
+        for (int i = 0; i < 100; i++) {
+            bulkhead.acquire().release();
+        }
+        assertThat(bulkhead.getLimit()).isEqualTo(8);
+    }
+}
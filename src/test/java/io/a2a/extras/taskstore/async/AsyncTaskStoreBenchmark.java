@@ -0,0 +1,88 @@
+package io.a2a.extras.taskstore.async;
+
+import io.a2a.server.tasks.InMemoryTaskStore;
+import io.a2a.spec.Task;
+import io.a2a.spec.TaskState;
+import io.a2a.spec.TaskStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Throughput of {@link ExecutorAsyncTaskStore} with {@link #inFlight} reads issued at once against a store that takes
+ * {@link #latencyMicros} per call, as a database round trip would, with {@link #maxConcurrency} calls allowed at once
+ * like a connection pool. One operation issues all reads and waits for them, so requests per second are
+ * {@code inFlight} times the reported ops/s. No request is rejected and the thread count stays bounded: one virtual
+ * thread per request on Java 21+, {@code maxConcurrency} platform threads otherwise.
+ * <p>
+ * Run with {@code mvn test-compile} and then {@link #main} from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AsyncTaskStoreBenchmark {
+
+    @Param({"10000"})
+    public int inFlight;
+
+    @Param({"10"})
+    public int maxConcurrency;
+
+    @Param({"200"})
+    public int latencyMicros;
+
+    @Param({"true", "false"})
+    public boolean virtualThreads;
+
+    private ExecutorAsyncTaskStore store;
+
+    @Setup
+    public void setUp() {
+        InMemoryTaskStore slowStore = new InMemoryTaskStore() {
+            @Override
+            public Task get(String taskId) {
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(latencyMicros));
+                return super.get(taskId);
+            }
+        };
+        slowStore.save(new Task.Builder().id("task").contextId("ctx").status(new TaskStatus(TaskState.WORKING)).build());
+        store = new ExecutorAsyncTaskStore(slowStore, slowStore, maxConcurrency, virtualThreads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        store.close();
+    }
+
+    @Benchmark
+    public Object getInFlight() {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[inFlight];
+        for (int i = 0; i < inFlight; i++) {
+            futures[i] = store.getAsync("task");
+        }
+        return CompletableFuture.allOf(futures).join();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(AsyncTaskStoreBenchmark.class.getSimpleName()).build()).run();
+    }
+}
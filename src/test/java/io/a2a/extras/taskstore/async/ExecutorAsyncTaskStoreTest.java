@@ -0,0 +1,92 @@
+package io.a2a.extras.taskstore.async;
+
+import io.a2a.server.tasks.InMemoryTaskStore;
+import io.a2a.server.tasks.TaskStateProvider;
+import io.a2a.server.tasks.TaskStore;
+import io.a2a.spec.Task;
+import io.a2a.spec.TaskState;
+import io.a2a.spec.TaskStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExecutorAsyncTaskStoreTest {
+
+    @Test
+    void callsShouldCompleteWithTheStoreResults() {
+        InMemoryTaskStore inMemory = new InMemoryTaskStore();
+        try (ExecutorAsyncTaskStore store = new ExecutorAsyncTaskStore(inMemory, inMemory, 4, true)) {
+            Task task = new Task.Builder().id("async-1").contextId("ctx").status(new TaskStatus(TaskState.WORKING)).build();
+
+            store.saveAsync(task).join();
+
+            assertThat(store.getAsync("async-1").join().getId()).isEqualTo("async-1");
+            assertThat(store.isTaskActiveAsync("async-1").join()).isTrue();
+            store.deleteAsync("async-1").join();
+            assertThat(store.getAsync("async-1").join()).isNull();
+        }
+    }
+
+    @Test
+    void virtualThreadsShouldBeUsedWhereAvailable() {
+        InMemoryTaskStore inMemory = new InMemoryTaskStore();
+        try (ExecutorAsyncTaskStore store = new ExecutorAsyncTaskStore(inMemory, inMemory, 4, true);
+             ExecutorAsyncTaskStore platform = new ExecutorAsyncTaskStore(inMemory, inMemory, 4, false)) {
+            assertThat(store.usesVirtualThreads()).isEqualTo(Runtime.version().feature() >= 21);
+            assertThat(platform.usesVirtualThreads()).isFalse();
+        }
+    }
+
+    @Test
+    void concurrentCallsShouldBeCappedAtMaxConcurrency() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        TaskStore slowStore = new InMemoryTaskStore() {
+            @Override
+            public Task get(String taskId) {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    TimeUnit.MILLISECONDS.sleep(2);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    running.decrementAndGet();
+                }
+                return null;
+            }
+        };
+
+        try (ExecutorAsyncTaskStore store = new ExecutorAsyncTaskStore(slowStore, (TaskStateProvider) slowStore, 3, true)) {
+            List<CompletableFuture<Task>> futures = IntStream.range(0, 200)
+                    .mapToObj(i -> store.getAsync("task-" + i))
+                    .toList();
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        }
+
+        assertThat(maxRunning.get()).isBetween(1, 3);
+    }
+
+    @Test
+    void failuresShouldCompleteTheFutureExceptionally() {
+        InMemoryTaskStore failing = new InMemoryTaskStore() {
+            @Override
+            public void delete(String taskId) {
+                throw new IllegalStateException("boom");
+            }
+        };
+
+        try (ExecutorAsyncTaskStore store = new ExecutorAsyncTaskStore(failing, failing, 2, true)) {
+            assertThatThrownBy(() -> store.deleteAsync("task").join())
+                    .isInstanceOf(CompletionException.class)
+                    .hasCauseInstanceOf(IllegalStateException.class);
+        }
+    }
+}
@@ -2,10 +2,12 @@ package io.a2a.extras.taskstore.cache;
 
 import io.a2a.extras.taskstore.A2aTaskStoreProperties;
 import io.a2a.extras.taskstore.jdbc.JdbcTaskStore;
+import io.a2a.extras.taskstore.jdbc.VersionedTask;
 import io.a2a.spec.Message;
 import io.a2a.spec.Task;
 import io.a2a.spec.TaskState;
 import io.a2a.spec.TaskStatus;
+import io.a2a.spec.TextPart;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -110,6 +112,26 @@ class JdbcTaskStoreCacheTest {
         assertThat(result.getStatus().state()).isEqualTo(TaskState.WORKING);
     }
 
+    @Test
+    void appendHistoryShouldPatchCachedTask() {
+        String taskId = "append-task-1";
+        taskStore.save(new Task.Builder(createTask(taskId, TaskState.WORKING))
+                .history(List.of(message(Message.Role.USER, "first")))
+                .build());
+        taskStore.get(taskId);
+
+        taskStore.appendHistory(taskId, List.of(message(Message.Role.AGENT, "second")), () -> null);
+
+        VersionedTask cached = cacheManager.getCache(CacheConfig.TASK_CACHE).get(taskId, VersionedTask.class);
+        assertThat(cached).isNotNull();
+        assertThat(cached.historySize()).isEqualTo(2);
+        assertThat(cached.version()).isEqualTo(
+                jdbcTemplate.queryForObject("SELECT version FROM a2a_tasks WHERE task_id = ?", Long.class, taskId));
+        assertThat(taskStore.get(taskId).getHistory())
+                .extracting(message -> ((TextPart) message.getParts().get(0)).getText())
+                .containsExactly("first", "second");
+    }
+
     @Test
     void deleteShouldEvictCache() {
         // Given
@@ -133,6 +155,10 @@ class JdbcTaskStoreCacheTest {
         assertThat(properties.getCache().getMaxSize()).isEqualTo(100);
     }
 
+    private static Message message(Message.Role role, String text) {
+        return new Message.Builder().role(role).parts(List.of(new TextPart(text))).build();
+    }
+
     private Task createTask(String taskId, TaskState state) {
         return new Task.Builder()
             .id(taskId)
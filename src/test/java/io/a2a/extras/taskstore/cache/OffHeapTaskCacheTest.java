@@ -0,0 +1,106 @@
+package io.a2a.extras.taskstore.cache;
+
+import io.a2a.extras.taskstore.jdbc.VersionedTask;
+import io.a2a.spec.DataPart;
+import io.a2a.spec.Message;
+import io.a2a.spec.Task;
+import io.a2a.spec.TaskState;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static io.a2a.extras.taskstore.support.TaskTestBuilder.aTask;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OffHeapTaskCacheTest {
+
+    private static final Duration TTL = Duration.ofMinutes(10);
+
+    @Test
+    void shouldRoundTripTaskThroughDirectMemory() {
+        OffHeapTaskCache cache = new OffHeapTaskCache(1024 * 1024, 256);
+        Task task = aTask()
+                .withId("offheap-1")
+                .withStatus(TaskState.COMPLETED)
+                .withMessages(20, Message.Role.USER, "A fairly long message body that spans several blocks")
+                .withMessage(new Message.Builder()
+                        .role(Message.Role.AGENT)
+                        .parts(new DataPart(Map.of("key", "value", "nested", Map.of("n", 1))))
+                        .build())
+                .withArtifact("art-1", "Result", "Output")
+                .withMetadataEntry("source", "test")
+                .build();
+
+        cache.put("offheap-1", new VersionedTask(task, 7), TTL);
+        VersionedTask entry = cache.get("offheap-1");
+        Task restored = entry.task();
+
+        assertThat(entry.version()).isEqualTo(7);
+        assertThat(restored.getId()).isEqualTo("offheap-1");
+        assertThat(restored.getStatus().state()).isEqualTo(TaskState.COMPLETED);
+        assertThat(restored.getStatus().timestamp()).isEqualTo(task.getStatus().timestamp());
+        assertThat(restored.getHistory()).hasSize(21);
+        assertThat(restored.getHistory().get(20).getParts().get(0)).isInstanceOf(DataPart.class);
+        assertThat(restored.getArtifacts()).hasSize(1);
+        assertThat(restored.getMetadata()).containsEntry("source", "test");
+        assertThat(cache.usedBytes()).isGreaterThan(256);
+    }
+
+    @Test
+    void shouldDropLeastRecentlyUsedEntriesWhenFull() {
+        Task sample = aTask().withId("lru-0").withMessages(3, Message.Role.USER, "payload").build();
+        int entrySize = BinaryTaskCodec.toBytes(sample).length;
+        OffHeapTaskCache cache = new OffHeapTaskCache(3L * entrySize + entrySize / 2, 1);
+
+        cache.put("lru-0", versioned(sample), TTL);
+        cache.put("lru-1", versioned(aTask().withId("lru-1").withMessages(3, Message.Role.USER, "payload").build()), TTL);
+        cache.put("lru-2", versioned(aTask().withId("lru-2").withMessages(3, Message.Role.USER, "payload").build()), TTL);
+        cache.get("lru-0");
+        cache.put("lru-3", versioned(aTask().withId("lru-3").withMessages(3, Message.Role.USER, "payload").build()), TTL);
+
+        assertThat(cache.get("lru-1")).isNull();
+        assertThat(cache.get("lru-0")).isNotNull();
+        assertThat(cache.get("lru-3")).isNotNull();
+    }
+
+    @Test
+    void shouldExpireEntries() {
+        OffHeapTaskCache cache = new OffHeapTaskCache(1024 * 1024, 1024);
+        cache.put("expired", versioned(aTask().withId("expired").build()), Duration.ZERO);
+
+        assertThat(cache.get("expired")).isNull();
+        assertThat(cache.size()).isZero();
+        assertThat(cache.usedBytes()).isZero();
+    }
+
+    @Test
+    void takeShouldRemoveEntry() {
+        OffHeapTaskCache cache = new OffHeapTaskCache(1024 * 1024, 1024);
+        cache.put("taken", versioned(aTask().withId("taken").build()), TTL);
+
+        assertThat(cache.take("taken")).isNotNull();
+        assertThat(cache.get("taken")).isNull();
+        assertThat(cache.hitCount()).isEqualTo(1);
+        assertThat(cache.missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldSkipTasksLargerThanCapacity() {
+        OffHeapTaskCache cache = new OffHeapTaskCache(1024, 1024);
+        cache.put("huge", versioned(aTask().withId("huge").withMessages(100, Message.Role.USER, "payload").build()), TTL);
+
+        assertThat(cache.get("huge")).isNull();
+    }
+
+    @Test
+    void shouldRejectBlockSizeNotDividingSlab() {
+        assertThatThrownBy(() -> new OffHeapTaskCache(1024 * 1024, 1000))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static VersionedTask versioned(Task task) {
+        return new VersionedTask(task, 0);
+    }
+}
@@ -0,0 +1,51 @@
+package io.a2a.extras.taskstore.cache;
+
+import io.a2a.extras.taskstore.jdbc.JdbcTaskStore;
+import io.a2a.spec.TaskState;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.TestPropertySource;
+
+import static io.a2a.extras.taskstore.support.TaskTestBuilder.aTask;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = CacheTestConfiguration.class)
+@TestPropertySource(properties = {
+    "spring.sql.init.mode=never",
+    "spring.datasource.url=jdbc:h2:mem:testdb;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;INIT=RUNSCRIPT FROM 'classpath:test-schema-h2.sql'",
+    "a2a.taskstore.cache.max-size=2",
+    "a2a.taskstore.cache.off-heap.enabled=true",
+    "a2a.taskstore.cache.off-heap.capacity-mb=1"
+})
+class OffHeapTierCacheTest {
+
+    @Autowired
+    private JdbcTaskStore taskStore;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    void l1SizeEvictionsShouldSpillToOffHeapTier() {
+        TieredTaskCache cache = (TieredTaskCache) cacheManager.getCache(CacheConfig.TASK_CACHE);
+        com.github.benmanes.caffeine.cache.Cache<?, ?> l1 =
+                (com.github.benmanes.caffeine.cache.Cache<?, ?>) cache.getNativeCache();
+
+        for (int i = 0; i < 3; i++) {
+            String taskId = "tier-task-" + i;
+            taskStore.save(aTask().withId(taskId).withStatus(TaskState.COMPLETED).build());
+            taskStore.get(taskId);
+        }
+        l1.cleanUp();
+
+        assertThat(l1.estimatedSize()).isEqualTo(2);
+        assertThat(cache.getOffHeapCache().size()).isEqualTo(1);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(taskStore.get("tier-task-" + i).getId()).isEqualTo("tier-task-" + i);
+        }
+        assertThat(cache.getOffHeapCache().hitCount()).isGreaterThanOrEqualTo(1);
+    }
+}
@@ -0,0 +1,109 @@
+package io.a2a.extras.taskstore.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers(disabledWithoutDocker = true)
+class PostgresTaskInvalidationBusTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private final BlockingQueue<String> received = new LinkedBlockingQueue<>();
+    private PostgresTaskInvalidationBus publisher;
+    private PostgresTaskInvalidationBus subscriber;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        publisher = new PostgresTaskInvalidationBus(jdbcTemplate);
+        subscriber = new PostgresTaskInvalidationBus(jdbcTemplate);
+        subscriber.subscribe(new TaskInvalidationBus.Listener() {
+            @Override
+            public void onTaskChanged(String taskId) {
+                received.add(taskId);
+            }
+
+            @Override
+            public void onChangesMissed() {
+            }
+        });
+        publisher.subscribe(new TaskInvalidationBus.Listener() {
+            @Override
+            public void onTaskChanged(String taskId) {
+                received.add("self:" + taskId);
+            }
+
+            @Override
+            public void onChangesMissed() {
+            }
+        });
+        publisher.start();
+        subscriber.start();
+        Thread.sleep(500);
+    }
+
+    @AfterEach
+    void tearDown() {
+        publisher.stop();
+        subscriber.stop();
+    }
+
+    @Test
+    void committedChangesShouldReachOtherNodesOnly() throws InterruptedException {
+        transactionTemplate.executeWithoutResult(status -> publisher.publish("pg-task-1"));
+
+        assertThat(received.poll(5, TimeUnit.SECONDS)).isEqualTo("pg-task-1");
+        assertThat(received.poll(1, TimeUnit.SECONDS)).isNull();
+    }
+
+    @Test
+    void failingListenerShouldNotStopDelivery() throws InterruptedException {
+        subscriber.subscribe(new TaskInvalidationBus.Listener() {
+            @Override
+            public void onTaskChanged(String taskId) {
+                throw new IllegalStateException("listener failure");
+            }
+
+            @Override
+            public void onChangesMissed() {
+            }
+        });
+
+        transactionTemplate.executeWithoutResult(status -> publisher.publish("pg-task-3"));
+        transactionTemplate.executeWithoutResult(status -> publisher.publish("pg-task-4"));
+
+        assertThat(received.poll(5, TimeUnit.SECONDS)).isEqualTo("pg-task-3");
+        assertThat(received.poll(5, TimeUnit.SECONDS)).isEqualTo("pg-task-4");
+    }
+
+    @Test
+    void rolledBackChangesShouldNotBeDelivered() throws InterruptedException {
+        transactionTemplate.executeWithoutResult(status -> {
+            publisher.publish("pg-task-2");
+            status.setRollbackOnly();
+        });
+
+        assertThat(received.poll(2, TimeUnit.SECONDS)).isNull();
+        assertThat(List.copyOf(received)).isEmpty();
+    }
+}
@@ -0,0 +1,74 @@
+package io.a2a.extras.taskstore.cache;
+
+import io.a2a.extras.taskstore.A2aTaskStoreProperties;
+import io.a2a.spec.Task;
+import io.a2a.spec.TaskState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static io.a2a.extras.taskstore.support.TaskTestBuilder.aTask;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StateAwareTaskCachePolicyTest {
+
+    private A2aTaskStoreProperties.CacheProperties cacheProperties;
+    private StateAwareTaskCachePolicy policy;
+
+    @BeforeEach
+    void setUp() {
+        cacheProperties = new A2aTaskStoreProperties.CacheProperties();
+        cacheProperties.setTtlMinutes(10);
+        cacheProperties.setFinalizedTtlMinutes(60);
+        policy = new StateAwareTaskCachePolicy(cacheProperties);
+    }
+
+    @Test
+    void ttlDependsOnState() {
+        assertThat(policy.timeToLive(task(TaskState.WORKING))).isEqualTo(Duration.ofMinutes(10));
+        assertThat(policy.timeToLive(task(TaskState.COMPLETED))).isEqualTo(Duration.ofMinutes(60));
+    }
+
+    @Test
+    void admitsEverythingByDefault() {
+        assertThat(policy.admit(task(TaskState.WORKING))).isTrue();
+        assertThat(policy.admit(task(TaskState.FAILED))).isTrue();
+    }
+
+    @Test
+    void finalizedOnlyRejectsActiveTasksWithoutWriteThrough() {
+        cacheProperties.setFinalizedOnly(true);
+
+        assertThat(policy.admit(task(TaskState.WORKING))).isFalse();
+        assertThat(policy.admit(task(TaskState.COMPLETED))).isTrue();
+
+        cacheProperties.setWriteThrough(true);
+
+        assertThat(policy.admit(task(TaskState.WORKING))).isTrue();
+    }
+
+    @Test
+    void readsKeepExpiryWhenExtensionDisabled() {
+        Duration remaining = Duration.ofMinutes(7);
+
+        assertThat(policy.afterRead(task(TaskState.COMPLETED), remaining)).isEqualTo(remaining);
+    }
+
+    @Test
+    void readsExtendFinalizedTasksUpToCap() {
+        cacheProperties.setFinalizedReadExtensionMinutes(30);
+        cacheProperties.setFinalizedMaxTtlMinutes(120);
+
+        assertThat(policy.afterRead(task(TaskState.COMPLETED), Duration.ofMinutes(50)))
+                .isEqualTo(Duration.ofMinutes(80));
+        assertThat(policy.afterRead(task(TaskState.COMPLETED), Duration.ofMinutes(100)))
+                .isEqualTo(Duration.ofMinutes(120));
+        assertThat(policy.afterRead(task(TaskState.WORKING), Duration.ofMinutes(5)))
+                .isEqualTo(Duration.ofMinutes(5));
+    }
+
+    private Task task(TaskState state) {
+        return aTask().withId("policy-task").withStatus(state).build();
+    }
+}
@@ -0,0 +1,59 @@
+package io.a2a.extras.taskstore.cache;
+
+import io.a2a.extras.taskstore.jdbc.VersionedTask;
+import io.a2a.spec.Message;
+import io.a2a.spec.TaskState;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static io.a2a.extras.taskstore.support.TaskTestBuilder.aTask;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TaskCacheSnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void shouldRoundTripEntries() throws IOException {
+        Path file = dir.resolve("cache.snapshot");
+        List<VersionedTask> entries = List.of(
+                new VersionedTask(aTask().withId("snap-1").withStatus(TaskState.WORKING)
+                        .withMessages(3, Message.Role.USER, "msg").build(), 4),
+                new VersionedTask(aTask().withId("snap-2").withStatus(TaskState.COMPLETED)
+                        .withArtifact("art-1", "Result", "Output").build(), 0));
+
+        TaskCacheSnapshot.write(file, entries);
+        List<VersionedTask> restored = TaskCacheSnapshot.read(file);
+
+        assertThat(restored).hasSize(2);
+        assertThat(restored.get(0).version()).isEqualTo(4);
+        assertThat(restored.get(0).task().getHistory()).hasSize(3);
+        assertThat(restored.get(1).task().getId()).isEqualTo("snap-2");
+        assertThat(restored.get(1).task().getArtifacts()).hasSize(1);
+        try (var files = Files.list(dir)) {
+            assertThat(files).containsExactly(file);
+        }
+    }
+
+    @Test
+    void missingFileShouldReadAsEmpty() throws IOException {
+        assertThat(TaskCacheSnapshot.read(dir.resolve("absent.snapshot"))).isEmpty();
+    }
+
+    @Test
+    void shouldRejectForeignFiles() throws IOException {
+        Path file = dir.resolve("foreign.snapshot");
+        Files.writeString(file, "not a snapshot at all");
+
+        assertThatThrownBy(() -> TaskCacheSnapshot.read(file))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Not a task cache snapshot");
+    }
+}
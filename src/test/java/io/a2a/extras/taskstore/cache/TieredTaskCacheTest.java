@@ -0,0 +1,96 @@
+package io.a2a.extras.taskstore.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.a2a.extras.taskstore.jdbc.VersionedTask;
+import io.a2a.spec.TaskState;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import static io.a2a.extras.taskstore.support.TaskTestBuilder.aTask;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TieredTaskCacheTest {
+
+    private static final Duration TTL = Duration.ofMinutes(10);
+
+    private final ExecutorService writer = Executors.newSingleThreadExecutor();
+    private final OffHeapTaskCache l2 = new OffHeapTaskCache(1024 * 1024, 256);
+    private final InterleavingCache l1 = new InterleavingCache();
+    private final TieredTaskCache cache = new TieredTaskCache(l1, l2);
+
+    @AfterEach
+    void tearDown() {
+        writer.shutdownNow();
+    }
+
+    @Test
+    void missShouldPromoteFromOffHeapTier() {
+        l2.put("task-1", versioned("task-1", 3), TTL);
+
+        assertThat(cache.get("task-1", VersionedTask.class).version()).isEqualTo(3);
+        assertThat(l1.get("task-1")).isNotNull();
+        assertThat(l2.size()).isZero();
+    }
+
+    @Test
+    void evictionDuringPromotionShouldDropThePromotedEntry() {
+        l2.put("task-1", versioned("task-1", 3), TTL);
+        l1.beforePromotion(cache::evict);
+
+        assertThat(cache.get("task-1")).isNull();
+        assertThat(l1.get("task-1")).isNull();
+        assertThat(cache.get("task-1")).isNull();
+    }
+
+    @Test
+    void writeDuringPromotionShouldWin() {
+        l2.put("task-1", versioned("task-1", 3), TTL);
+        l1.beforePromotion(key -> {
+            cache.evict(key);
+            cache.put(key, versioned("task-1", 4));
+        });
+
+        assertThat(cache.get("task-1", VersionedTask.class).version()).isEqualTo(4);
+        assertThat(cache.get("task-1", VersionedTask.class).version()).isEqualTo(4);
+    }
+
+    private static VersionedTask versioned(String taskId, long version) {
+        return new VersionedTask(aTask().withId(taskId).withStatus(TaskState.WORKING).build(), version);
+    }
+
+    /**
+     * L1 that runs a write on the writer thread, to completion, between the take from L2 and the put into L1.
+     */
+    private class InterleavingCache extends CaffeineCache {
+        private volatile Consumer<Object> beforePromotion;
+
+        InterleavingCache() {
+            super(CacheConfig.TASK_CACHE, Caffeine.newBuilder().build(), false);
+        }
+
+        void beforePromotion(Consumer<Object> write) {
+            beforePromotion = write;
+        }
+
+        @Override
+        public ValueWrapper putIfAbsent(Object key, Object value) {
+            Consumer<Object> write = beforePromotion;
+            if (write != null) {
+                beforePromotion = null;
+                try {
+                    writer.submit(() -> write.accept(key)).get();
+                } catch (InterruptedException | ExecutionException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            return super.putIfAbsent(key, value);
+        }
+    }
+}
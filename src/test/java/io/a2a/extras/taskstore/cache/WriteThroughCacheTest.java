@@ -0,0 +1,96 @@
+package io.a2a.extras.taskstore.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.a2a.extras.taskstore.jdbc.JdbcTaskStore;
+import io.a2a.extras.taskstore.jdbc.VersionedTask;
+import io.a2a.spec.Message;
+import io.a2a.spec.Task;
+import io.a2a.spec.TaskState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static io.a2a.extras.taskstore.support.TaskTestBuilder.aTask;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = CacheTestConfiguration.class)
+@TestPropertySource(properties = {
+    "spring.sql.init.mode=never",
+    "spring.datasource.url=jdbc:h2:mem:testdb;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;INIT=RUNSCRIPT FROM 'classpath:test-schema-h2.sql'",
+    "a2a.taskstore.cache.write-through=true",
+    "a2a.taskstore.cache.finalized-only=true",
+    "a2a.taskstore.cache.ttl-minutes=5",
+    "a2a.taskstore.cache.finalized-ttl-minutes=90"
+})
+class WriteThroughCacheTest {
+
+    @Autowired
+    private JdbcTaskStore taskStore;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Cache<Object, Object> nativeCache;
+
+    @BeforeEach
+    void setUp() {
+        nativeCache = ((CaffeineCache) cacheManager.getCache(CacheConfig.TASK_CACHE)).getNativeCache();
+        nativeCache.invalidateAll();
+    }
+
+    @Test
+    void saveShouldPopulateCacheWithStoredForm() {
+        Task task = aTask()
+                .withId("wt-task-1")
+                .withStatus(TaskState.WORKING)
+                .withMessage(Message.Role.USER, "Hello")
+                .build();
+
+        taskStore.save(task);
+
+        VersionedTask cached = (VersionedTask) nativeCache.getIfPresent("wt-task-1");
+        assertThat(cached).isNotNull();
+        assertThat(cached.version()).isZero();
+        assertThat(cached.task().getHistory()).hasSize(1);
+        assertThat(cached.task().getHistory().get(0).getTaskId()).isEqualTo("wt-task-1");
+        assertThat(taskStore.get("wt-task-1")).isSameAs(cached.task());
+    }
+
+    @Test
+    void stateChangeShouldReevaluateExpiry() {
+        taskStore.save(aTask().withId("wt-task-2").withStatus(TaskState.WORKING).build());
+        assertThat(expiresAfter("wt-task-2")).isLessThanOrEqualTo(Duration.ofMinutes(5));
+
+        taskStore.save(aTask().withId("wt-task-2").withStatus(TaskState.COMPLETED).build());
+        assertThat(expiresAfter("wt-task-2")).isGreaterThan(Duration.ofMinutes(60));
+    }
+
+    @Test
+    void partialSnapshotShouldKeepStoredHistory() {
+        Task task = aTask()
+                .withId("wt-task-3")
+                .withMessage(Message.Role.USER, "First")
+                .withMessage(Message.Role.AGENT, "Second")
+                .build();
+        taskStore.save(task);
+
+        taskStore.save(aTask().withId("wt-task-3").withMessage(Message.Role.USER, "First").build());
+
+        VersionedTask cached = (VersionedTask) nativeCache.getIfPresent("wt-task-3");
+        assertThat(cached.task().getHistory()).hasSize(2);
+        assertThat(taskStore.get("wt-task-3").getHistory()).hasSize(2);
+    }
+
+    private Duration expiresAfter(String taskId) {
+        return Duration.ofNanos(nativeCache.policy().expireVariably().orElseThrow()
+                .getExpiresAfter(taskId, TimeUnit.NANOSECONDS)
+                .orElseThrow());
+    }
+}
@@ -1,6 +1,7 @@
 package io.a2a.extras.taskstore.jdbc;
 
 import io.a2a.extras.taskstore.A2aTaskStoreProperties;
+import io.a2a.extras.taskstore.metrics.TaskStoreMetrics;
 import io.a2a.extras.taskstore.repository.ArtifactRepository;
 import io.a2a.extras.taskstore.repository.HistoryRepository;
 import io.a2a.extras.taskstore.repository.TaskRepository;
@@ -41,7 +42,7 @@ abstract class BaseJdbcIntegrationTest {
     protected void setUpTaskStoreWithProperties(A2aTaskStoreProperties customProperties) {
         properties = customProperties;
         jsonbAdapter = JsonbAdapterFactory.create(jdbcTemplate);
-        taskRepository = new TaskRepository(jdbcTemplate, jsonbAdapter);
+        taskRepository = new TaskRepository(jdbcTemplate, jsonbAdapter, properties, TaskStoreMetrics.NOOP);
         historyRepository = new HistoryRepository(jdbcTemplate, jsonbAdapter, properties);
         artifactRepository = new ArtifactRepository(jdbcTemplate, jsonbAdapter, properties);
         taskStore = new JdbcTaskStore(taskRepository, historyRepository, artifactRepository, properties);
@@ -0,0 +1,89 @@
+package io.a2a.extras.taskstore.jdbc;
+
+import io.a2a.extras.taskstore.cache.TaskInvalidationBus;
+import io.a2a.spec.Message;
+import io.a2a.spec.Task;
+import io.a2a.spec.TaskState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static io.a2a.extras.taskstore.support.TaskTestBuilder.aTask;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheWarmupTest extends BaseJdbcIntegrationTest {
+
+    private Cache cache;
+    private JdbcTaskStore cachedStore;
+
+    @BeforeEach
+    void setUp() {
+        setUpTaskStore();
+        cache = new ConcurrentMapCache("warmup", false);
+        cachedStore = new JdbcTaskStore(taskRepository, historyRepository, artifactRepository, properties,
+                cache, TaskInvalidationBus.NONE);
+    }
+
+    @Test
+    void restoreShouldSkipChangedAndDeletedTasks() {
+        taskStore.save(aTask().withId("restore-1").build());
+        taskStore.save(aTask().withId("restore-2").build());
+        taskStore.save(aTask().withId("restore-3").build());
+        List<VersionedTask> snapshot = List.of(
+                taskStore.getVersioned("restore-1"),
+                taskStore.getVersioned("restore-2"),
+                taskStore.getVersioned("restore-3"));
+
+        taskStore.save(aTask().withId("restore-2").withStatus(TaskState.COMPLETED).build());
+        taskStore.delete("restore-3");
+
+        assertThat(cachedStore.restoreCache(snapshot)).isEqualTo(1);
+        assertThat(cache.get("restore-1")).isNotNull();
+        assertThat(cache.get("restore-2")).isNull();
+        assertThat(cache.get("restore-3")).isNull();
+    }
+
+    @Test
+    void warmShouldPreloadRecentlyUpdatedActiveTasks() {
+        taskStore.save(aTask().withId("warm-1").withStatus(TaskState.WORKING)
+                .withMessages(3, Message.Role.USER, "msg")
+                .withArtifact("art-1", "Result", "Output")
+                .build());
+        taskStore.save(aTask().withId("warm-2").withStatus(TaskState.SUBMITTED).build());
+        taskStore.save(aTask().withId("warm-done").withStatus(TaskState.COMPLETED).build());
+        taskStore.save(aTask().withId("warm-old").withStatus(TaskState.WORKING).build());
+        jdbcTemplate.update("UPDATE a2a_tasks SET updated_at = ? WHERE task_id = ?",
+                OffsetDateTime.now().minusDays(2), "warm-old");
+
+        assertThat(cachedStore.warmCache(Duration.ofHours(1), 10)).isEqualTo(2);
+
+        VersionedTask warmed = cache.get("warm-1", VersionedTask.class);
+        assertThat(warmed).isNotNull();
+        assertThat(warmed.task().getHistory()).hasSize(3);
+        assertThat(warmed.task().getArtifacts()).hasSize(1);
+        assertThat(warmed.task().getHistory()).extracting(Message::getMessageId)
+                .containsExactlyElementsOf(taskStore.get("warm-1").getHistory().stream().map(Message::getMessageId).toList());
+        assertThat(cache.get("warm-2")).isNotNull();
+        assertThat(cache.get("warm-done")).isNull();
+        assertThat(cache.get("warm-old")).isNull();
+    }
+
+    @Test
+    void warmShouldRespectMaxTasksAndKeepCachedEntries() {
+        taskStore.save(aTask().withId("limit-1").build());
+        taskStore.save(aTask().withId("limit-2").build());
+        taskStore.save(aTask().withId("limit-3").build());
+        Task cachedCopy = aTask().withId("limit-1").build();
+        cache.put("limit-1", new VersionedTask(cachedCopy, 0));
+
+        assertThat(cachedStore.warmCache(Duration.ofHours(1), 2)).isEqualTo(2);
+
+        assertThat(cache.get("limit-1", VersionedTask.class).task()).isSameAs(cachedCopy);
+        assertThat(((ConcurrentMapCache) cache).getNativeCache()).hasSizeBetween(2, 3);
+    }
+}
@@ -0,0 +1,193 @@
+package io.a2a.extras.taskstore.jdbc;
+
+import io.a2a.extras.taskstore.cache.TaskInvalidationBus;
+import io.a2a.extras.taskstore.springai.TaskStoreChatMemoryRepository;
+import io.a2a.spec.Message;
+import io.a2a.spec.Task;
+import io.a2a.spec.TextPart;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.memory.MessageWindowChatMemory;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.a2a.extras.taskstore.support.TaskTestBuilder.aTask;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class ChatMemoryRepositoryTest extends BaseJdbcIntegrationTest {
+
+    private TaskStoreChatMemoryRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        setUpTaskStore();
+        repository = new TaskStoreChatMemoryRepository(taskStore);
+    }
+
+    @Test
+    void windowedMemoryShouldKeepOnlyTheWindowInTheDatabase() {
+        MessageWindowChatMemory memory = MessageWindowChatMemory.builder()
+                .chatMemoryRepository(repository)
+                .maxMessages(3)
+                .build();
+
+        for (int i = 0; i < 5; i++) {
+            memory.add("window-1", new UserMessage("question " + i));
+        }
+
+        assertThat(memory.get("window-1")).extracting(org.springframework.ai.chat.messages.Message::getText)
+                .containsExactly("question 2", "question 3", "question 4");
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT sequence_num FROM a2a_history WHERE task_id = ? ORDER BY sequence_num", Integer.class, "window-1"))
+                .containsExactly(2, 3, 4);
+    }
+
+    @Test
+    void slidingWindowShouldNotRewriteKeptMessages() {
+        MessageWindowChatMemory memory = MessageWindowChatMemory.builder()
+                .chatMemoryRepository(repository)
+                .maxMessages(3)
+                .build();
+        for (int i = 0; i < 3; i++) {
+            memory.add("slide-1", new UserMessage("question " + i));
+        }
+        // A marker that only survives if the kept rows are neither updated nor inserted again
+        jdbcTemplate.update("UPDATE a2a_history SET token_count = -1 WHERE task_id = ?", "slide-1");
+
+        memory.add("slide-1", new UserMessage("question 3"));
+
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT sequence_num, token_count FROM a2a_history WHERE task_id = ? ORDER BY sequence_num", "slide-1"))
+                .extracting(row -> row.get("sequence_num"), row -> row.get("token_count"))
+                .containsExactly(tuple(1, -1), tuple(2, -1), tuple(3, tokenCountOf("slide-1", 3)));
+    }
+
+    @Test
+    void saveShouldAppendAfterTheLastSequenceOnceTheWindowSlid() {
+        MessageWindowChatMemory memory = MessageWindowChatMemory.builder()
+                .chatMemoryRepository(repository)
+                .maxMessages(2)
+                .build();
+        for (int i = 0; i < 3; i++) {
+            memory.add("slide-2", new UserMessage("question " + i));
+        }
+        Task task = taskStore.get("slide-2");
+        List<Message> history = new ArrayList<>(task.getHistory());
+        history.add(new Message.Builder().role(Message.Role.AGENT).parts(new TextPart("answer")).build());
+
+        taskStore.save(new Task.Builder(task).history(history).build());
+
+        assertThat(taskStore.get("slide-2").getHistory())
+                .extracting(message -> ((TextPart) message.getParts().get(0)).getText())
+                .containsExactly("question 1", "question 2", "answer");
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT sequence_num FROM a2a_history WHERE task_id = ? ORDER BY sequence_num", Integer.class, "slide-2"))
+                .containsExactly(1, 2, 3);
+    }
+
+    private Integer tokenCountOf(String taskId, int sequence) {
+        return jdbcTemplate.queryForObject("SELECT token_count FROM a2a_history WHERE task_id = ? AND sequence_num = ?",
+                Integer.class, taskId, sequence);
+    }
+
+    @Test
+    void saveAllShouldOnlyInsertAppendedMessages() {
+        repository.saveAll("append-1", List.of(new UserMessage("hello")));
+        List<org.springframework.ai.chat.messages.Message> stored = new ArrayList<>(repository.findByConversationId("append-1"));
+        String firstId = jdbcTemplate.queryForObject(
+                "SELECT message_id FROM a2a_history WHERE task_id = ?", String.class, "append-1");
+        jdbcTemplate.update("UPDATE a2a_history SET role = 'AGENT' WHERE task_id = ?", "append-1");
+
+        stored.add(new AssistantMessage("hi there"));
+        repository.saveAll("append-1", stored);
+
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT message_id FROM a2a_history WHERE task_id = ? ORDER BY sequence_num", String.class, "append-1"))
+                .hasSize(2)
+                .startsWith(firstId);
+        // The kept row was not rewritten
+        assertThat(repository.findByConversationId("append-1").get(0)).isInstanceOf(AssistantMessage.class);
+    }
+
+    @Test
+    void saveAllShouldRewriteHistoryThatDoesNotMatch() {
+        repository.saveAll("rewrite-1", List.of(new UserMessage("one"), new UserMessage("two")));
+
+        repository.saveAll("rewrite-1", List.of(new UserMessage("three")));
+
+        assertThat(repository.findByConversationId("rewrite-1"))
+                .extracting(org.springframework.ai.chat.messages.Message::getText)
+                .containsExactly("three");
+    }
+
+    @Test
+    void systemMessagesShouldKeepTheirType() {
+        repository.saveAll("system-1", List.of(new SystemMessage("be brief"), new UserMessage("hello")));
+
+        assertThat(repository.findByConversationId("system-1"))
+                .extracting(org.springframework.ai.chat.messages.Message::getClass)
+                .containsExactly(SystemMessage.class, UserMessage.class);
+    }
+
+    @Test
+    void deleteShouldRemoveHistoryAndConversationId() {
+        taskStore.save(aTask().withId("no-history").build());
+        repository.saveAll("chat-a", List.of(new UserMessage("a")));
+        repository.saveAll("chat-b", List.of(new UserMessage("b")));
+
+        assertThat(repository.findConversationIds()).containsExactly("chat-a", "chat-b");
+
+        repository.deleteByConversationId("chat-a");
+
+        assertThat(repository.findConversationIds()).containsExactly("chat-b");
+        assertThat(repository.findByConversationId("chat-a")).isEmpty();
+        assertThat(taskStore.get("chat-a")).isNotNull();
+    }
+
+    @Test
+    void getHistoryShouldReadOnlyTheLastMessages() {
+        taskStore.save(aTask().withId("last-1")
+                .withMessage(Message.Role.USER, "m0")
+                .withMessage(Message.Role.AGENT, "m1")
+                .withMessage(Message.Role.USER, "m2")
+                .build());
+
+        assertThat(taskStore.getHistory("last-1", 2))
+                .extracting(message -> ((TextPart) message.getParts().get(0)).getText())
+                .containsExactly("m1", "m2");
+        assertThat(taskStore.getHistory("missing", 2)).isEmpty();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void appendingSaveShouldPatchCachedTask() {
+        Cache cache = new ConcurrentMapCache("chat-memory", false);
+        taskStore = new JdbcTaskStore(taskRepository, historyRepository, artifactRepository, properties,
+                cache, TaskInvalidationBus.NONE);
+        repository = new TaskStoreChatMemoryRepository(taskStore);
+        repository.saveAll("cached-1", List.of(new UserMessage("hello")));
+        taskStore.get("cached-1");
+        List<org.springframework.ai.chat.messages.Message> stored = new ArrayList<>(repository.findByConversationId("cached-1"));
+
+        stored.add(new AssistantMessage("hi"));
+        repository.saveAll("cached-1", stored);
+
+        assertThat(cache.get("cached-1", VersionedTask.class).task().getHistory()).hasSize(2);
+
+        repository.saveAll("cached-1", stored.subList(1, 2));
+
+        assertThat(cache.get("cached-1")).isNull();
+        assertThat(repository.findByConversationId("cached-1"))
+                .extracting(org.springframework.ai.chat.messages.Message::getText)
+                .containsExactly("hi");
+    }
+}
@@ -0,0 +1,96 @@
+package io.a2a.extras.taskstore.jdbc;
+
+import io.a2a.extras.taskstore.A2aTaskStoreProperties;
+import io.a2a.extras.taskstore.metrics.MicrometerTaskStoreMetrics;
+import io.a2a.extras.taskstore.metrics.TaskStoreMetrics;
+import io.a2a.extras.taskstore.repository.ArtifactRepository;
+import io.a2a.extras.taskstore.repository.HistoryRepository;
+import io.a2a.extras.taskstore.repository.TaskRepository;
+import io.a2a.spec.Artifact;
+import io.a2a.spec.Message;
+import io.a2a.spec.Task;
+import io.a2a.spec.TextPart;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.Map;
+
+import static io.a2a.extras.taskstore.support.TaskTestBuilder.aTask;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompressionTest extends BaseJdbcIntegrationTest {
+
+    private static final String LARGE_TEXT = "Order 1234 is awaiting shipment from the central warehouse.\n".repeat(200);
+
+    @ParameterizedTest
+    @EnumSource(CompressionCodec.class)
+    void largePartsShouldBeCompressedAndReadBack(CompressionCodec codec) {
+        setUpTaskStore(propertiesWith(codec, ContentFormat.JSON), TaskStoreMetrics.NOOP);
+        Task task = aTask().withId("zip-" + codec)
+                .withMessage(Message.Role.USER, "small question")
+                .withArtifact(new Artifact.Builder().artifactId("report").parts(new TextPart(LARGE_TEXT)).build())
+                .build();
+
+        taskStore.save(task);
+        Task retrieved = taskStore.get("zip-" + codec);
+
+        assertThat(((TextPart) retrieved.getHistory().get(0).getParts().get(0)).getText()).isEqualTo("small question");
+        assertThat(((TextPart) retrieved.getArtifacts().get(0).parts().get(0)).getText()).isEqualTo(LARGE_TEXT);
+
+        Map<String, Object> artifact = jdbcTemplate.queryForMap(
+                "SELECT content_codec, content_json, content_bin FROM a2a_artifacts WHERE task_id = ?", "zip-" + codec);
+        assertThat(artifact.get("content_codec")).isEqualTo(codec.name());
+        assertThat(artifact.get("content_json")).isNull();
+        assertThat((byte[]) artifact.get("content_bin")).hasSizeLessThan(LARGE_TEXT.length() / 4);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT content_codec FROM a2a_history WHERE task_id = ?", String.class, "zip-" + codec)).isNull();
+    }
+
+    @Test
+    void compressionShouldApplyToBinaryFormats() {
+        setUpTaskStore(propertiesWith(CompressionCodec.DEFLATE, ContentFormat.SMILE), TaskStoreMetrics.NOOP);
+        taskStore.save(aTask().withId("zip-smile").withMessage(Message.Role.AGENT, LARGE_TEXT).build());
+
+        assertThat(((TextPart) taskStore.get("zip-smile").getHistory().get(0).getParts().get(0)).getText())
+                .isEqualTo(LARGE_TEXT);
+        assertThat(jdbcTemplate.queryForMap(
+                "SELECT content_format, content_codec FROM a2a_history WHERE task_id = ?", "zip-smile"))
+                .containsEntry("content_format", "SMILE")
+                .containsEntry("content_codec", "DEFLATE");
+    }
+
+    @Test
+    void compressionRatioAndTimeShouldBeRecorded() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        setUpTaskStore(propertiesWith(CompressionCodec.ZSTD, ContentFormat.JSON), new MicrometerTaskStoreMetrics(registry));
+
+        taskStore.save(aTask().withId("zip-metrics").withMessage(Message.Role.AGENT, LARGE_TEXT).build());
+        historyRepository.findByTaskId("zip-metrics");
+
+        assertThat(registry.get("a2a.taskstore.compression.ratio").tag("codec", "ZSTD").summary().mean())
+                .isGreaterThan(4);
+        assertThat(registry.get("a2a.taskstore.compression.time").tag("operation", "compress").timer().count())
+                .isEqualTo(1);
+        assertThat(registry.get("a2a.taskstore.compression.time").tag("operation", "decompress").timer().count())
+                .isPositive();
+    }
+
+    private void setUpTaskStore(A2aTaskStoreProperties customProperties, TaskStoreMetrics metrics) {
+        setUpTaskStoreWithProperties(customProperties);
+        taskRepository = new TaskRepository(jdbcTemplate, jsonbAdapter, metrics);
+        historyRepository = new HistoryRepository(jdbcTemplate, jsonbAdapter, properties, metrics);
+        artifactRepository = new ArtifactRepository(jdbcTemplate, jsonbAdapter, properties, metrics);
+        taskStore = new JdbcTaskStore(taskRepository, historyRepository, artifactRepository, properties);
+    }
+
+    private static A2aTaskStoreProperties propertiesWith(CompressionCodec codec, ContentFormat format) {
+        A2aTaskStoreProperties properties = new A2aTaskStoreProperties();
+        properties.setContentFormat(format);
+        properties.getCompression().setEnabled(true);
+        properties.getCompression().setCodec(codec);
+        properties.getCompression().setThresholdBytes(1024);
+        return properties;
+    }
+}
@@ -0,0 +1,94 @@
+package io.a2a.extras.taskstore.jdbc;
+
+import io.a2a.spec.DataPart;
+import io.a2a.spec.FilePart;
+import io.a2a.spec.FileWithUri;
+import io.a2a.spec.Part;
+import io.a2a.spec.TextPart;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode cost of the {@link ContentFormat}s on the parts of a tool-calling turn: a markdown answer,
+ * a tabular tool result as a {@link DataPart} and a file reference. {@link #main} prints the stored size per format
+ * before running.
+ * <p>
+ * Run with {@code mvn test-compile} and then {@link #main} from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContentFormatBenchmark {
+
+    @Param({"JSON", "SMILE", "CBOR"})
+    public ContentFormat format;
+
+    private List<Part<?>> parts;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        parts = toolTurnParts();
+        encoded = format.write(parts);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return format.read(encoded);
+    }
+
+    @Benchmark
+    public Object encode() {
+        return format.write(parts);
+    }
+
+    static List<Part<?>> toolTurnParts() {
+        StringBuilder answer = new StringBuilder("## Open orders\n\n");
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            answer.append("- Order ").append(1000 + i).append(" for customer ").append(i % 17)
+                    .append(" is awaiting shipment from the central warehouse.\n");
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("orderId", 1000 + i);
+            row.put("customerId", "customer-" + (i % 17));
+            row.put("status", i % 3 == 0 ? "AWAITING_SHIPMENT" : "PAID");
+            row.put("total", 19.99 + i);
+            row.put("currency", "EUR");
+            row.put("items", List.of(Map.of("sku", "SKU-" + i, "quantity", 1 + i % 4)));
+            rows.add(row);
+        }
+        return List.of(
+                new TextPart(answer.toString()),
+                new DataPart(Map.of("tool", "list_orders", "rows", rows)),
+                new FilePart(new FileWithUri("text/csv", "orders.csv", "https://files.example.com/exports/orders.csv")));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        List<Part<?>> parts = toolTurnParts();
+        for (ContentFormat format : ContentFormat.values()) {
+            System.out.printf("%-5s %,d bytes%n", format, format.write(parts).length);
+        }
+        new Runner(new OptionsBuilder().include(ContentFormatBenchmark.class.getSimpleName()).build()).run();
+    }
+}
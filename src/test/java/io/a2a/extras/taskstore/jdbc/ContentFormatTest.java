@@ -0,0 +1,87 @@
+package io.a2a.extras.taskstore.jdbc;
+
+import io.a2a.extras.taskstore.A2aTaskStoreProperties;
+import io.a2a.extras.taskstore.repository.ArtifactRepository;
+import io.a2a.extras.taskstore.repository.HistoryRepository;
+import io.a2a.extras.taskstore.repository.TaskRepository;
+import io.a2a.spec.Artifact;
+import io.a2a.spec.DataPart;
+import io.a2a.spec.Message;
+import io.a2a.spec.Part;
+import io.a2a.spec.Task;
+import io.a2a.spec.TextPart;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.List;
+import java.util.Map;
+
+import static io.a2a.extras.taskstore.support.TaskTestBuilder.aTask;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContentFormatTest extends BaseJdbcIntegrationTest {
+
+    @ParameterizedTest
+    @EnumSource(ContentFormat.class)
+    void partsShouldRoundTripInEachFormat(ContentFormat format) {
+        setUpTaskStoreWithProperties(propertiesWith(format));
+        Task task = aTask().withId("fmt-" + format)
+                .withMessage(Message.Role.USER, "question")
+                .withArtifact(new Artifact.Builder()
+                        .artifactId("result")
+                        .parts(new TextPart("answer"), new DataPart(Map.of("rows", List.of(1, 2, 3))))
+                        .build())
+                .build();
+
+        taskStore.save(task);
+        Task retrieved = taskStore.get("fmt-" + format);
+
+        assertThat(((TextPart) retrieved.getHistory().get(0).getParts().get(0)).getText()).isEqualTo("question");
+        List<Part<?>> parts = retrieved.getArtifacts().get(0).parts();
+        assertThat(((TextPart) parts.get(0)).getText()).isEqualTo("answer");
+        assertThat(((DataPart) parts.get(1)).getData()).containsEntry("rows", List.of(1, 2, 3));
+
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT content_format, content_json, content_bin FROM a2a_history WHERE task_id = ?", "fmt-" + format);
+        assertThat(row.get("content_format")).isEqualTo(format.name());
+        assertThat(row.get("content_json") == null).isEqualTo(format.isBinary());
+        assertThat(row.get("content_bin") == null).isEqualTo(!format.isBinary());
+    }
+
+    @Test
+    void historyShouldReadRowsOfMixedFormats() {
+        setUpTaskStoreWithProperties(propertiesWith(ContentFormat.JSON));
+        Task first = aTask().withId("mixed").withMessage(Message.Role.USER, "stored as json").build();
+        taskStore.save(first);
+        jdbcTemplate.update("UPDATE a2a_history SET content_format = NULL WHERE task_id = ?", "mixed");
+
+        setUpTaskStoreWithPropertiesKeepingData(propertiesWith(ContentFormat.SMILE));
+        Task second = aTask().withId("mixed")
+                .withMessage(first.getHistory().get(0))
+                .withMessage(Message.Role.AGENT, "stored as smile")
+                .build();
+        taskStore.save(second);
+
+        assertThat(taskStore.get("mixed").getHistory())
+                .extracting(message -> ((TextPart) message.getParts().get(0)).getText())
+                .containsExactly("stored as json", "stored as smile");
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT content_format FROM a2a_history WHERE task_id = ? ORDER BY sequence_num", String.class, "mixed"))
+                .containsExactly(null, "SMILE");
+    }
+
+    private void setUpTaskStoreWithPropertiesKeepingData(A2aTaskStoreProperties customProperties) {
+        properties = customProperties;
+        taskRepository = new TaskRepository(jdbcTemplate, jsonbAdapter);
+        historyRepository = new HistoryRepository(jdbcTemplate, jsonbAdapter, properties);
+        artifactRepository = new ArtifactRepository(jdbcTemplate, jsonbAdapter, properties);
+        taskStore = new JdbcTaskStore(taskRepository, historyRepository, artifactRepository, properties);
+    }
+
+    private static A2aTaskStoreProperties propertiesWith(ContentFormat format) {
+        A2aTaskStoreProperties properties = new A2aTaskStoreProperties();
+        properties.setContentFormat(format);
+        return properties;
+    }
+}
@@ -0,0 +1,72 @@
+package io.a2a.extras.taskstore.jdbc;
+
+import io.a2a.extras.taskstore.cache.InProcessTaskInvalidationBus;
+import io.a2a.extras.taskstore.cache.TaskInvalidationBus;
+import io.a2a.spec.Task;
+import io.a2a.spec.TaskState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static io.a2a.extras.taskstore.support.TaskTestBuilder.aTask;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CrossNodeInvalidationTest extends BaseJdbcIntegrationTest {
+
+    private JdbcTaskStore nodeA;
+    private JdbcTaskStore nodeB;
+    private Cache cacheA;
+    private Cache cacheB;
+
+    @BeforeEach
+    void setUp() {
+        setUpTaskStore();
+        InProcessTaskInvalidationBus busA = new InProcessTaskInvalidationBus();
+        InProcessTaskInvalidationBus busB = busA.join();
+        cacheA = new ConcurrentMapCache("node-a", false);
+        cacheB = new ConcurrentMapCache("node-b", false);
+        busA.subscribe(TaskInvalidationBus.evicting(cacheA));
+        busB.subscribe(TaskInvalidationBus.evicting(cacheB));
+        nodeA = new JdbcTaskStore(taskRepository, historyRepository, artifactRepository, properties, cacheA, busA);
+        nodeB = new JdbcTaskStore(taskRepository, historyRepository, artifactRepository, properties, cacheB, busB);
+    }
+
+    @Test
+    void saveOnOneNodeShouldEvictOtherNodesCache() {
+        nodeA.save(aTask().withId("shared-1").withStatus(TaskState.WORKING).build());
+        assertThat(nodeB.get("shared-1").getStatus().state()).isEqualTo(TaskState.WORKING);
+        assertThat(cacheB.get("shared-1")).isNotNull();
+
+        nodeA.save(aTask().withId("shared-1").withStatus(TaskState.COMPLETED).build());
+
+        assertThat(cacheB.get("shared-1")).isNull();
+        assertThat(nodeB.get("shared-1").getStatus().state()).isEqualTo(TaskState.COMPLETED);
+    }
+
+    @Test
+    void deleteOnOneNodeShouldEvictOtherNodesCache() {
+        nodeA.save(aTask().withId("shared-2").build());
+        nodeB.get("shared-2");
+
+        nodeA.delete("shared-2");
+
+        assertThat(nodeB.get("shared-2")).isNull();
+    }
+
+    @Test
+    void changesShouldFlowInBothDirections() {
+        Task task = aTask().withId("shared-3").build();
+        nodeA.save(task);
+        cacheA.put("shared-3", new VersionedTask(task, 0));
+
+        nodeB.get("shared-3");
+        nodeB.save(aTask().withId("shared-3").withStatus(TaskState.FAILED).build());
+
+        assertThat(cacheA.get("shared-3")).isNull();
+        assertThat(cacheB.get("shared-3", VersionedTask.class).task().getStatus().state()).isEqualTo(TaskState.FAILED);
+    }
+}
@@ -0,0 +1,103 @@
+package io.a2a.extras.taskstore.jdbc;
+
+import io.a2a.extras.taskstore.A2aTaskStoreProperties;
+import io.a2a.spec.Message;
+import io.a2a.spec.Task;
+import io.a2a.spec.TextPart;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static io.a2a.extras.taskstore.support.TaskTestBuilder.aTask;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DoubleEncodedJsonMigrationTest extends BaseJdbcIntegrationTest {
+
+    @BeforeEach
+    void setUp() {
+        setUpTaskStore();
+    }
+
+    @Test
+    void saveShouldStoreJsonDocumentsNotStrings() {
+        taskStore.save(aTask().withId("plain").withMessage(Message.Role.USER, "hello").withMetadataEntry("k", "v").build());
+
+        assertThat(storedText("SELECT CAST(content_json AS VARCHAR) FROM a2a_history WHERE task_id = ?", "plain")).startsWith("[");
+        assertThat(storedText("SELECT CAST(metadata_json AS VARCHAR) FROM a2a_tasks WHERE task_id = ?", "plain")).startsWith("{");
+    }
+
+    @Test
+    void migrationShouldRewriteDoubleEncodedRowsInBatches() {
+        for (int i = 0; i < 3; i++) {
+            taskStore.save(aTask().withId("legacy-" + i)
+                    .withMessage(Message.Role.USER, "first " + i)
+                    .withMessage(Message.Role.AGENT, "second " + i)
+                    .withMetadataEntry("n", i)
+                    .build());
+        }
+        // A string bound to a JSON column is stored by H2 as a JSON string, like rows written by older versions
+        jdbcTemplate.update("UPDATE a2a_history SET content_json = CAST(CAST(content_json AS VARCHAR) AS JSON)");
+        jdbcTemplate.update("UPDATE a2a_tasks SET metadata_json = CAST(CAST(metadata_json AS VARCHAR) AS JSON)");
+        assertThat(legacyRows()).isEqualTo(9);
+
+        long before = JsonUtils.doubleEncodedReads();
+        Task legacy = taskStore.get("legacy-1");
+        assertThat(((TextPart) legacy.getHistory().get(1).getParts().get(0)).getText()).isEqualTo("second 1");
+        assertThat(JsonUtils.doubleEncodedReads()).isGreaterThan(before);
+
+        DoubleEncodedJsonMigration migration = new DoubleEncodedJsonMigration(jdbcTemplate, jsonbAdapter, 2, 0);
+        int rewritten = 0;
+        while (!migration.isComplete()) {
+            rewritten += migration.migrateBatch();
+        }
+
+        assertThat(rewritten).isEqualTo(9);
+        assertThat(legacyRows()).isZero();
+        long afterMigration = JsonUtils.doubleEncodedReads();
+        Task migrated = taskStore.get("legacy-1");
+        assertThat(migrated.getHistory()).extracting(m -> ((TextPart) m.getParts().get(0)).getText())
+                .isEqualTo(List.of("first 1", "second 1"));
+        assertThat(migrated.getMetadata()).containsEntry("n", 1);
+        assertThat(JsonUtils.doubleEncodedReads()).isEqualTo(afterMigration);
+    }
+
+    @Test
+    void storeWithoutFallbackShouldRejectDoubleEncodedRows() {
+        JdbcTaskStore lenient = taskStore;
+        A2aTaskStoreProperties strictProperties = new A2aTaskStoreProperties();
+        strictProperties.getJson().setDoubleEncodedFallback(false);
+        setUpTaskStoreWithProperties(strictProperties);
+        taskStore.save(aTask().withId("legacy").withMessage(Message.Role.USER, "hello").withMetadataEntry("k", "v").build());
+        jdbcTemplate.update("UPDATE a2a_tasks SET metadata_json = CAST(CAST(metadata_json AS VARCHAR) AS JSON)");
+
+        assertThatThrownBy(() -> taskStore.get("legacy")).hasStackTraceContaining("double-encoded fallback is disabled");
+        // The setting belongs to the store, not to the JVM
+        assertThat(lenient.get("legacy").getMetadata()).containsEntry("k", "v");
+    }
+
+    @Test
+    void migrationShouldSkipStringsThatAreNotJson() {
+        taskStore.save(aTask().withId("odd").withMetadataEntry("k", "v").build());
+        jdbcTemplate.update("UPDATE a2a_tasks SET metadata_json = CAST(? AS JSON) WHERE task_id = ?", "not json", "odd");
+
+        DoubleEncodedJsonMigration migration = new DoubleEncodedJsonMigration(jdbcTemplate, jsonbAdapter, 10, 0);
+
+        assertThat(migration.migrateBatch()).isZero();
+        assertThat(migration.isComplete()).isTrue();
+        assertThat(storedText("SELECT CAST(metadata_json AS VARCHAR) FROM a2a_tasks WHERE task_id = ?", "odd"))
+                .isEqualTo("\"not json\"");
+    }
+
+    private int legacyRows() {
+        return jdbcTemplate.queryForObject("""
+                SELECT (SELECT COUNT(*) FROM a2a_history WHERE CAST(content_json AS VARCHAR) LIKE '"%')
+                     + (SELECT COUNT(*) FROM a2a_tasks WHERE CAST(metadata_json AS VARCHAR) LIKE '"%')
+                """, Integer.class);
+    }
+
+    private String storedText(String sql, String taskId) {
+        return jdbcTemplate.queryForObject(sql, String.class, taskId);
+    }
+}
@@ -1,5 +1,7 @@
 package io.a2a.extras.taskstore.jdbc;
 
+import io.a2a.extras.taskstore.metrics.TaskStoreMetrics;
+import io.a2a.extras.taskstore.repository.HistoryRepository;
 import io.a2a.extras.taskstore.support.TaskTestBuilder;
 import io.a2a.spec.Message;
 import io.a2a.spec.Task;
@@ -226,4 +228,90 @@ class HistoryPersistenceTest extends BaseJdbcIntegrationTest {
                 .hasSize(content.length())
                 .isEqualTo(content);
     }
+
+    @Test
+    void appendHistoryShouldAddMessagesAfterStoredHistory() {
+        taskStore.save(aTask().withId("hist-append").withMessages(3, Message.Role.USER, "msg").build());
+        long version = jdbcTemplate.queryForObject("SELECT version FROM a2a_tasks WHERE task_id = ?", Long.class, "hist-append");
+
+        taskStore.appendHistory("hist-append", List.of(aMessage(Message.Role.AGENT, "reply")), () -> null);
+
+        Task retrieved = taskStore.get("hist-append");
+        assertThat(retrieved.getHistory()).hasSize(4);
+        assertThat(((TextPart) retrieved.getHistory().get(3).getParts().get(0)).getText()).isEqualTo("reply");
+        assertThat(jdbcTemplate.queryForList("SELECT sequence_num FROM a2a_history WHERE task_id = ? ORDER BY sequence_num",
+                Integer.class, "hist-append")).containsExactly(0, 1, 2, 3);
+        assertThat(jdbcTemplate.queryForObject("SELECT version FROM a2a_tasks WHERE task_id = ?", Long.class, "hist-append"))
+                .isEqualTo(version + 1);
+    }
+
+    @Test
+    void appendHistoryShouldCreateMissingTask() {
+        taskStore.appendHistory("hist-new", List.of(aMessage(Message.Role.USER, "hello")),
+                () -> aTask().withId("hist-new").build());
+
+        Task retrieved = taskStore.get("hist-new");
+        assertThat(retrieved).isNotNull();
+        assertThat(retrieved.getHistory()).singleElement()
+                .satisfies(message -> assertThat(((TextPart) message.getParts().get(0)).getText()).isEqualTo("hello"));
+    }
+
+    @Test
+    void tokenCountShouldBeStoredPerMessage() {
+        taskStore.save(aTask().withId("hist-tokens").withMessage(Message.Role.USER, "x".repeat(40)).build());
+
+        assertThat(jdbcTemplate.queryForObject("SELECT token_count FROM a2a_history WHERE task_id = ?",
+                Integer.class, "hist-tokens")).isEqualTo(14);
+    }
+
+    @Test
+    void getWithinTokenBudgetShouldReturnTheNewestMessagesThatFit() {
+        historyRepository = new HistoryRepository(jdbcTemplate, jsonbAdapter, properties, TaskStoreMetrics.NOOP,
+                message -> ((TextPart) message.getParts().get(0)).getText().length());
+        taskStore = new JdbcTaskStore(taskRepository, historyRepository, artifactRepository, properties);
+        taskStore.save(aTask().withId("hist-budget")
+                .withMessage(Message.Role.USER, "aaaaa")
+                .withMessage(Message.Role.AGENT, "bbb")
+                .withMessage(Message.Role.USER, "c")
+                .withMessage(Message.Role.AGENT, "dddd")
+                .build());
+
+        assertThat(texts(taskStore.getWithinTokenBudget("hist-budget", 8))).containsExactly("bbb", "c", "dddd");
+        assertThat(texts(taskStore.getWithinTokenBudget("hist-budget", 7))).containsExactly("c", "dddd");
+        assertThat(texts(taskStore.getWithinTokenBudget("hist-budget", 13))).containsExactly("aaaaa", "bbb", "c", "dddd");
+        assertThat(taskStore.getWithinTokenBudget("hist-budget", 3)).isEmpty();
+        assertThat(taskStore.getWithinTokenBudget("missing", 100)).isEmpty();
+    }
+
+    @Test
+    void getWithinTokenBudgetShouldEstimateMessagesWithoutTokenCount() {
+        taskStore.save(aTask().withId("hist-legacy")
+                .withMessage(Message.Role.USER, "x".repeat(400))
+                .withMessage(Message.Role.AGENT, "y")
+                .build());
+        jdbcTemplate.update("UPDATE a2a_history SET token_count = NULL WHERE task_id = ?", "hist-legacy");
+
+        // The first message alone takes over 100 tokens
+        assertThat(texts(taskStore.getWithinTokenBudget("hist-legacy", 100))).containsExactly("y");
+        assertThat(taskStore.getWithinTokenBudget("hist-legacy", 1000)).hasSize(2);
+    }
+
+    @Test
+    void getHistoriesShouldReturnTheLastMessagesOfEachTask() {
+        taskStore.save(aTask().withId("hist-many-1").withMessages(4, Message.Role.USER, "one").build());
+        taskStore.save(aTask().withId("hist-many-2").withMessage(Message.Role.AGENT, "two-0").build());
+        taskStore.save(aTask().withId("hist-many-3").build());
+
+        Map<String, List<Message>> histories = taskStore.getHistories(
+                List.of("hist-many-1", "hist-many-2", "hist-many-3", "missing"), 2);
+
+        assertThat(histories).containsOnlyKeys("hist-many-1", "hist-many-2");
+        assertThat(texts(histories.get("hist-many-1"))).containsExactly("one 2", "one 3");
+        assertThat(texts(histories.get("hist-many-2"))).containsExactly("two-0");
+        assertThat(histories.get("hist-many-1")).allSatisfy(message -> assertThat(message.getTaskId()).isEqualTo("hist-many-1"));
+    }
+
+    private static List<String> texts(List<Message> messages) {
+        return messages.stream().map(message -> ((TextPart) message.getParts().get(0)).getText()).toList();
+    }
 }
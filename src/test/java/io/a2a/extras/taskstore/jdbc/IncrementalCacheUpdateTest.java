@@ -0,0 +1,126 @@
+package io.a2a.extras.taskstore.jdbc;
+
+import io.a2a.extras.taskstore.A2aTaskStoreProperties;
+import io.a2a.extras.taskstore.cache.TaskInvalidationBus;
+import io.a2a.spec.Message;
+import io.a2a.spec.Task;
+import io.a2a.spec.TaskState;
+import io.a2a.spec.TextPart;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.a2a.extras.taskstore.support.TaskTestBuilder.aTask;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IncrementalCacheUpdateTest extends BaseJdbcIntegrationTest {
+
+    private Cache cache;
+    private JdbcTaskStore cachedStore;
+
+    @BeforeEach
+    void setUp() {
+        setUpCachedStore(new A2aTaskStoreProperties());
+    }
+
+    private void setUpCachedStore(A2aTaskStoreProperties customProperties) {
+        setUpTaskStoreWithProperties(customProperties);
+        cache = new ConcurrentMapCache("incremental", false);
+        cachedStore = new JdbcTaskStore(taskRepository, historyRepository, artifactRepository, properties,
+                cache, TaskInvalidationBus.NONE);
+    }
+
+    @Test
+    void historyAppendShouldPatchCachedTask() {
+        Task task = aTask().withId("inc-1").withStatus(TaskState.WORKING)
+                .withMessages(2, Message.Role.USER, "question")
+                .build();
+        cachedStore.save(task);
+        Task cachedBefore = cachedStore.get("inc-1");
+
+        cachedStore.save(new Task.Builder(aTask().withId("inc-1").withStatus(TaskState.INPUT_REQUIRED).build())
+                .history(append(cachedBefore, "answer"))
+                .build());
+
+        VersionedTask patched = cache.get("inc-1", VersionedTask.class);
+        assertThat(patched).isNotNull();
+        assertThat(patched.version()).isEqualTo(1);
+        assertThat(patched.historySize()).isEqualTo(3);
+        Task patchedTask = patched.task();
+        assertThat(patchedTask.getStatus().state()).isEqualTo(TaskState.INPUT_REQUIRED);
+        assertThat(patchedTask.getHistory().get(0)).isSameAs(cachedBefore.getHistory().get(0));
+        assertSameAsStored(patchedTask);
+    }
+
+    @Test
+    void statusChangeShouldPatchCachedTask() {
+        cachedStore.save(aTask().withId("inc-2").withStatus(TaskState.SUBMITTED).build());
+        cachedStore.get("inc-2");
+
+        cachedStore.save(aTask().withId("inc-2").withStatus(TaskState.WORKING).withMetadataEntry("step", 2).build());
+
+        Task patched = cache.get("inc-2", VersionedTask.class).task();
+        assertThat(patched.getStatus().state()).isEqualTo(TaskState.WORKING);
+        assertThat(patched.getMetadata()).containsEntry("step", 2);
+        assertSameAsStored(patched);
+    }
+
+    @Test
+    void clearedHistoryShouldPatchCachedTask() {
+        cachedStore.save(aTask().withId("inc-3").withMessages(3, Message.Role.USER, "msg").build());
+        cachedStore.get("inc-3");
+
+        cachedStore.save(aTask().withId("inc-3").build());
+
+        assertThat(cache.get("inc-3", VersionedTask.class).task().getHistory()).isEmpty();
+    }
+
+    @Test
+    void shouldEvictWhenCachedCopyIsNotThePreviousVersion() {
+        cachedStore.save(aTask().withId("inc-4").build());
+        cachedStore.get("inc-4");
+        taskStore.save(aTask().withId("inc-4").withStatus(TaskState.WORKING).build());
+
+        cachedStore.save(aTask().withId("inc-4").withStatus(TaskState.COMPLETED).build());
+
+        assertThat(cache.get("inc-4")).isNull();
+        assertThat(cachedStore.get("inc-4").getStatus().state()).isEqualTo(TaskState.COMPLETED);
+    }
+
+    @Test
+    void shouldEvictWhenIncrementalUpdatesAreDisabled() {
+        A2aTaskStoreProperties customProperties = new A2aTaskStoreProperties();
+        customProperties.getCache().setIncrementalUpdates(false);
+        setUpCachedStore(customProperties);
+        cachedStore.save(aTask().withId("inc-5").build());
+        cachedStore.get("inc-5");
+
+        cachedStore.save(aTask().withId("inc-5").withStatus(TaskState.WORKING).build());
+
+        assertThat(cache.get("inc-5")).isNull();
+    }
+
+    private static List<Message> append(Task task, String text) {
+        List<Message> history = new ArrayList<>(task.getHistory());
+        history.add(new Message.Builder().role(Message.Role.AGENT).parts(new TextPart(text)).build());
+        return history;
+    }
+
+    private void assertSameAsStored(Task patched) {
+        Task stored = taskStore.get(patched.getId());
+        assertThat(patched.getContextId()).isEqualTo(stored.getContextId());
+        assertThat(patched.getStatus().state()).isEqualTo(stored.getStatus().state());
+        assertThat(patched.getHistory()).extracting(Message::getMessageId)
+                .containsExactlyElementsOf(stored.getHistory().stream().map(Message::getMessageId).toList());
+        assertThat(patched.getHistory()).allMatch(message -> patched.getId().equals(message.getTaskId()));
+        assertThat(patched.getArtifacts()).hasSameSizeAs(stored.getArtifacts());
+        assertThat(patched.getMetadata()).isEqualTo(stored.getMetadata());
+    }
+}
@@ -75,7 +75,8 @@ class JdbcTaskStorePostgresIntegrationTest {
                 metadata_json JSONB,
                 created_at TIMESTAMPTZ DEFAULT CURRENT_TIMESTAMP,
                 updated_at TIMESTAMPTZ DEFAULT CURRENT_TIMESTAMP,
-                finalized_at TIMESTAMPTZ
+                finalized_at TIMESTAMPTZ,
+                version BIGINT NOT NULL DEFAULT 0
             )
             """);
 
@@ -84,7 +85,11 @@ class JdbcTaskStorePostgresIntegrationTest {
                 task_id VARCHAR(255) NOT NULL REFERENCES a2a_tasks(task_id) ON DELETE CASCADE,
                 message_id VARCHAR(255) NOT NULL,
                 role VARCHAR(20) NOT NULL,
-                content_json JSONB NOT NULL,
+                content_json JSONB,
+                content_format VARCHAR(8),
+                content_bin BYTEA,
+                content_codec VARCHAR(8),
+                token_count INTEGER,
                 metadata_json JSONB,
                 created_at TIMESTAMPTZ DEFAULT CURRENT_TIMESTAMP,
                 updated_at TIMESTAMPTZ DEFAULT CURRENT_TIMESTAMP,
@@ -100,7 +105,10 @@ class JdbcTaskStorePostgresIntegrationTest {
                 task_id VARCHAR(255) NOT NULL REFERENCES a2a_tasks(task_id) ON DELETE CASCADE,
                 name VARCHAR(500),
                 description TEXT,
-                content_json JSONB NOT NULL,
+                content_json JSONB,
+                content_format VARCHAR(8),
+                content_bin BYTEA,
+                content_codec VARCHAR(8),
                 metadata_json JSONB,
                 extensions_json JSONB,
                 sequence_num INTEGER NOT NULL,
@@ -0,0 +1,121 @@
+package io.a2a.extras.taskstore.jdbc;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import io.a2a.spec.DataPart;
+import io.a2a.spec.Part;
+import io.a2a.spec.TextPart;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-row cost of decoding the JSON columns: {@code readValue} with a {@link TypeReference} on every row,
+ * as the row mappers used to do, against the precompiled {@link JsonUtils.JsonCodec}s, and decoding a column
+ * fetched as a {@code String} against one fetched as UTF-8 bytes, and serving a column by binding and re-serializing it
+ * against copying its tokens as {@code JdbcTaskStore#writeTaskJson} does. Run with {@code -prof gc} to compare
+ * allocations.
+ * <p>
+ * Run with {@code mvn test-compile} and then {@link #main} from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonCodecBenchmark {
+
+    private final String partsJson = JsonUtils.toJson(List.of(
+            new TextPart("What is the status of order 1234? It was supposed to ship yesterday."),
+            new DataPart(Map.of("orderId", 1234, "items", List.of("a", "b", "c")))));
+    private final byte[] partsBytes = partsJson.getBytes(StandardCharsets.UTF_8);
+    private final String metadataJson = JsonUtils.toJson(Map.of("source", "chat", "tokens", 42, "model", "test"));
+
+    @Benchmark
+    public Object partsTypeReference() throws JsonProcessingException {
+        return typeReferenceRead(partsJson, JsonUtils.PARTS_TYPE);
+    }
+
+    @Benchmark
+    public Object partsPrecompiled() {
+        return JsonUtils.PARTS.read(partsJson);
+    }
+
+    @Benchmark
+    public Object partsFromColumnString() {
+        return JsonUtils.PARTS.read(new String(partsBytes, StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public Object partsFromColumnBytes() {
+        return JsonUtils.PARTS.read(partsBytes);
+    }
+
+    @Benchmark
+    public Object partsWriteString() {
+        return JsonUtils.PARTS.write(JsonUtils.PARTS.read(partsBytes).orElseThrow()).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Object partsWriteBytes() {
+        return JsonUtils.PARTS.writeBytes(JsonUtils.PARTS.read(partsBytes).orElseThrow());
+    }
+
+    @Benchmark
+    public Object partsReadAndReserialize() {
+        return JsonUtils.PARTS.writeBytes(JsonUtils.PARTS.read(partsBytes).orElseThrow());
+    }
+
+    @Benchmark
+    public Object partsCopy() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(partsBytes.length);
+        try (JsonGenerator generator = JsonUtils.MAPPER.getFactory().createGenerator(out)) {
+            JsonUtils.PARTS.copy(partsBytes, generator);
+        }
+        return out;
+    }
+
+    @Benchmark
+    public Object metadataTypeReference() throws JsonProcessingException {
+        return typeReferenceRead(metadataJson, JsonUtils.METADATA_MAP_TYPE);
+    }
+
+    @Benchmark
+    public Object metadataPrecompiled() {
+        return JsonUtils.METADATA_MAP.read(metadataJson);
+    }
+
+    /**
+     * The former per-row path: type resolution through {@code readValue} and the type name check.
+     */
+    private static <T> Optional<T> typeReferenceRead(String json, TypeReference<T> type) throws JsonProcessingException {
+        T value = JsonUtils.MAPPER.readValue(json, type);
+        if (type.getType().getTypeName().equals("java.lang.Object") && value instanceof String) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(value);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JsonCodecBenchmark.class.getSimpleName()).build()).run();
+    }
+}
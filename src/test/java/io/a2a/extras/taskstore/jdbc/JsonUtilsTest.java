@@ -0,0 +1,116 @@
+package io.a2a.extras.taskstore.jdbc;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.a2a.spec.DataPart;
+import io.a2a.spec.Part;
+import io.a2a.spec.TextPart;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JsonUtilsTest {
+
+    @Test
+    void codecsShouldWriteSameJsonAsToJson() {
+        List<Part<?>> parts = List.of(new TextPart("hello"), new DataPart(Map.of("key", "value")));
+        Map<String, Object> metadata = Map.of("source", "test");
+
+        assertThat(JsonUtils.PARTS.write(parts)).isEqualTo(JsonUtils.toJson(parts));
+        assertThat(JsonUtils.METADATA_MAP.write(metadata)).isEqualTo(JsonUtils.toJson(metadata));
+        assertThat(JsonUtils.EXTENSIONS.write(null)).isNull();
+    }
+
+    @Test
+    void codecShouldReadDoubleEncodedJson() {
+        String json = JsonUtils.PARTS.write(List.of(new TextPart("hello")));
+        String doubleEncoded = JsonUtils.toJson(json);
+
+        List<Part<?>> parts = JsonUtils.PARTS.read(doubleEncoded).orElseThrow();
+
+        assertThat(parts).singleElement().isInstanceOf(TextPart.class);
+        assertThat(((TextPart) parts.get(0)).getText()).isEqualTo("hello");
+    }
+
+    @Test
+    void codecShouldReadAndWriteUtf8Bytes() throws Exception {
+        List<Part<?>> parts = List.of(new TextPart("hällo 🚀"));
+        byte[] json = JsonUtils.PARTS.writeBytes(parts);
+
+        // The UTF-8 generator escapes surrogate pairs, so compare documents rather than bytes
+        assertThat(JsonUtils.MAPPER.readTree(json)).isEqualTo(JsonUtils.MAPPER.readTree(JsonUtils.toJson(parts)));
+        assertThat(((TextPart) JsonUtils.PARTS.read(json).orElseThrow().get(0)).getText()).isEqualTo("hällo 🚀");
+        assertThat(JsonUtils.PARTS.read(JsonUtils.toJson(JsonUtils.toJson(parts)).getBytes(StandardCharsets.UTF_8)))
+                .get().satisfies(read -> assertThat(read).hasSize(1));
+        assertThat(JsonUtils.PARTS.read((byte[]) null)).isEmpty();
+    }
+
+    @Test
+    void codecShouldCopyStoredDocumentsToGenerator() throws Exception {
+        byte[] json = JsonUtils.METADATA_MAP.writeBytes(Map.of("key", List.of(1, "two")));
+        byte[] doubleEncoded = JsonUtils.toJson(new String(json, StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8);
+        StringWriter out = new StringWriter();
+
+        try (JsonGenerator generator = JsonUtils.MAPPER.getFactory().createGenerator(out)) {
+            generator.writeStartArray();
+            assertThat(JsonUtils.METADATA_MAP.copy(json, generator)).isTrue();
+            assertThat(JsonUtils.METADATA_MAP.copy(doubleEncoded, generator)).isTrue();
+            assertThat(JsonUtils.METADATA_MAP.copy("null".getBytes(StandardCharsets.UTF_8), generator)).isFalse();
+            assertThat(JsonUtils.METADATA_MAP.copy(null, generator)).isFalse();
+            generator.writeEndArray();
+        }
+
+        assertThat(out).hasToString("[{\"key\":[1,\"two\"]},{\"key\":[1,\"two\"]}]");
+    }
+
+    @Test
+    void codecShouldSkipJsonbBinaryVersionByte() {
+        byte[] json = "{\"key\":\"value\"}".getBytes(StandardCharsets.UTF_8);
+        byte[] binary = new byte[json.length + 1];
+        binary[0] = 1;
+        System.arraycopy(json, 0, binary, 1, json.length);
+
+        assertThat(JsonUtils.METADATA_MAP.read(binary)).contains(Map.of("key", "value"));
+    }
+
+    @Test
+    void doubleEncodedReadsShouldBeCountedOnlyForFallbackHits() {
+        String json = JsonUtils.METADATA_MAP.write(Map.of("key", "value"));
+        long before = JsonUtils.doubleEncodedReads();
+
+        JsonUtils.METADATA_MAP.read(json);
+        assertThat(JsonUtils.doubleEncodedReads()).isEqualTo(before);
+
+        JsonUtils.METADATA_MAP.read(JsonUtils.toJson(json));
+        assertThat(JsonUtils.doubleEncodedReads()).isEqualTo(before + 1);
+    }
+
+    @Test
+    void objectCodecShouldKeepPlainStringValues() {
+        assertThat(JsonUtils.fromJson("\"{not unwrapped}\"", JsonUtils.OBJECT_TYPE)).contains("{not unwrapped}");
+        assertThat(JsonUtils.fromJson(JsonUtils.toJson(JsonUtils.toJson("text")), JsonUtils.OBJECT_TYPE)).contains("text");
+    }
+
+    @Test
+    void disabledFallbackShouldRejectDoubleEncodedJson() {
+        String doubleEncoded = JsonUtils.toJson(JsonUtils.METADATA_MAP.write(Map.of("key", "value")));
+        JsonUtils.JsonCodec<Map<String, Object>> strict = JsonUtils.METADATA_MAP.withDoubleEncodedFallback(false);
+
+        assertThatThrownBy(() -> strict.read(doubleEncoded)).isInstanceOf(IllegalStateException.class);
+        assertThat(strict.read("{\"key\":\"value\"}")).contains(Map.of("key", "value"));
+        // The shared codec keeps its fallback
+        assertThat(JsonUtils.METADATA_MAP.read(doubleEncoded)).contains(Map.of("key", "value"));
+        assertThat(strict.withDoubleEncodedFallback(true).read(doubleEncoded)).contains(Map.of("key", "value"));
+    }
+
+    @Test
+    void codecForShouldReturnPrecompiledCodec() {
+        assertThat(JsonUtils.codecFor(JsonUtils.PARTS_TYPE)).isSameAs(JsonUtils.PARTS);
+        assertThat(JsonUtils.codecFor(JsonUtils.METADATA_MAP_TYPE)).isSameAs(JsonUtils.METADATA_MAP);
+    }
+}
@@ -0,0 +1,50 @@
+package io.a2a.extras.taskstore.jdbc;
+
+import org.junit.jupiter.api.Test;
+import org.postgresql.util.PGobject;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.Types;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class JsonbAdapterTest {
+
+    private static final byte[] JSON = "{\"key\":\"value\"}".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void forDatabaseShouldPickAdapterByUrl() {
+        assertThat(JsonbAdapter.forDatabase("jdbc:postgresql://localhost/db")).isInstanceOf(JsonbAdapter.PostgresJsonbAdapter.class);
+        assertThat(JsonbAdapter.forDatabase("jdbc:h2:mem:test")).isInstanceOf(JsonbAdapter.H2JsonAdapter.class);
+        assertThat(JsonbAdapter.forDatabase("jdbc:mysql://localhost/db")).isInstanceOf(JsonbAdapter.StandardJsonbAdapter.class);
+    }
+
+    @Test
+    void postgresBindShouldSendUntypedStringWithoutPgObject() throws Exception {
+        PreparedStatement ps = mock(PreparedStatement.class);
+        JsonbAdapter adapter = new JsonbAdapter.PostgresJsonbAdapter();
+
+        adapter.bind(ps, 3, JSON);
+        adapter.bind(ps, 4, null);
+
+        verify(ps).setObject(3, "{\"key\":\"value\"}", Types.OTHER);
+        verify(ps).setNull(4, Types.OTHER);
+        verify(ps, never()).setObject(anyInt(), any(PGobject.class));
+        assertThat(adapter.adapt("{}")).isInstanceOf(PGobject.class);
+    }
+
+    @Test
+    void h2BindShouldPassBytes() throws Exception {
+        PreparedStatement ps = mock(PreparedStatement.class);
+
+        new JsonbAdapter.H2JsonAdapter().bind(ps, 1, JSON);
+
+        verify(ps).setBytes(1, JSON);
+    }
+}
@@ -0,0 +1,93 @@
+package io.a2a.extras.taskstore.jdbc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.a2a.extras.taskstore.A2aTaskStoreProperties;
+import io.a2a.spec.Artifact;
+import io.a2a.spec.DataPart;
+import io.a2a.spec.Message;
+import io.a2a.spec.Task;
+import io.a2a.spec.TaskState;
+import io.a2a.spec.TextPart;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.ByteArrayOutputStream;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static io.a2a.extras.taskstore.support.TaskTestBuilder.aTask;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RawJsonReadTest extends BaseJdbcIntegrationTest {
+
+    @ParameterizedTest
+    @EnumSource(ContentFormat.class)
+    void rawJsonShouldMatchSerializedTask(ContentFormat format) throws Exception {
+        A2aTaskStoreProperties properties = new A2aTaskStoreProperties();
+        properties.setContentFormat(format);
+        properties.getCompression().setEnabled(true);
+        properties.getCompression().setCodec(CompressionCodec.DEFLATE);
+        properties.getCompression().setThresholdBytes(512);
+        setUpTaskStoreWithProperties(properties);
+        taskStore.save(aTask().withId("raw-" + format)
+                .withContextId("ctx")
+                .withStatus(TaskState.INPUT_REQUIRED)
+                .withStatusMessage("Which warehouse?")
+                .withTimestamp(OffsetDateTime.of(2024, 5, 1, 12, 30, 0, 0, ZoneOffset.ofHours(2)))
+                .withMessage(Message.Role.USER, "Where is order 1234?")
+                .withMessage(Message.Role.AGENT, "Order 1234 is awaiting shipment.\n".repeat(50))
+                .withArtifact(new Artifact.Builder()
+                        .artifactId("orders")
+                        .name("Open orders")
+                        .description("Tool result")
+                        .parts(new DataPart(Map.of("rows", List.of(Map.of("id", 1234, "total", 19.99)))))
+                        .metadata(Map.of("tool", "list_orders"))
+                        .extensions(List.of("https://example.com/ext"))
+                        .build())
+                .withArtifact("summary", null, "one open order")
+                .withMetadataEntry("tenant", "acme")
+                .build());
+
+        JsonNode expected = JsonUtils.MAPPER.readTree(JsonUtils.toJson(taskStore.get("raw-" + format)));
+
+        assertThat(JsonUtils.MAPPER.readTree(taskStore.getRawJson("raw-" + format))).isEqualTo(expected);
+    }
+
+    @Test
+    void writeTaskJsonShouldStreamTaskWithoutHistory() throws Exception {
+        setUpTaskStore();
+        taskStore.save(aTask().withId("raw-empty").withStatus(TaskState.SUBMITTED).build());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThat(taskStore.writeTaskJson("raw-empty", out)).isTrue();
+
+        assertThat(JsonUtils.MAPPER.readTree(out.toByteArray()))
+                .isEqualTo(JsonUtils.MAPPER.readTree(JsonUtils.toJson(taskStore.get("raw-empty"))));
+    }
+
+    @Test
+    void rawJsonShouldBeNullForUnknownTask() throws Exception {
+        setUpTaskStore();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThat(taskStore.getRawJson("missing")).isNull();
+        assertThat(taskStore.writeTaskJson("missing", out)).isFalse();
+        assertThat(out.size()).isZero();
+    }
+
+    @Test
+    void rawJsonShouldReadDoubleEncodedLegacyRows() throws Exception {
+        setUpTaskStore();
+        taskStore.save(aTask().withId("raw-legacy").withMessage(Message.Role.USER, "legacy").build());
+        // H2 stores a bound String as a JSON string, like the legacy double-encoding bug
+        jdbcTemplate.update("UPDATE a2a_history SET content_json = ? WHERE task_id = ?",
+                JsonUtils.PARTS.write(List.of(new TextPart("legacy"))), "raw-legacy");
+
+        JsonNode history = JsonUtils.MAPPER.readTree(taskStore.getRawJson("raw-legacy")).get("history");
+
+        assertThat(history.get(0).get("parts").get(0).get("text").asText()).isEqualTo("legacy");
+    }
+}
@@ -0,0 +1,51 @@
+package io.a2a.extras.taskstore.jdbc;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecentWritesTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final RecentWrites recentWrites = new RecentWrites(Duration.ofSeconds(5), nanos::get);
+
+    @Test
+    void writtenTaskShouldCountUntilTheWindowPasses() {
+        recentWrites.written("task-1");
+
+        advance(Duration.ofSeconds(4));
+        assertThat(recentWrites.contains("task-1")).isTrue();
+        assertThat(recentWrites.contains("task-2")).isFalse();
+        assertThat(recentWrites.containsAny(List.of("task-2", "task-1"))).isTrue();
+
+        advance(Duration.ofSeconds(2));
+        assertThat(recentWrites.contains("task-1")).isFalse();
+    }
+
+    @Test
+    void changeOfAnotherNodeShouldCountAsAWrite() {
+        recentWrites.onTaskChanged("task-1");
+
+        assertThat(recentWrites.contains("task-1")).isTrue();
+    }
+
+    @Test
+    void missedChangesShouldCountEveryTaskAsWrittenForTheWindow() {
+        advance(Duration.ofMinutes(1));
+        recentWrites.onChangesMissed();
+
+        advance(Duration.ofSeconds(4));
+        assertThat(recentWrites.contains("any-task")).isTrue();
+
+        advance(Duration.ofSeconds(2));
+        assertThat(recentWrites.contains("any-task")).isFalse();
+    }
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+}
@@ -0,0 +1,89 @@
+package io.a2a.extras.taskstore.jdbc;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.a2a.extras.taskstore.cache.CacheTestConfiguration;
+import io.a2a.spec.Message;
+import io.a2a.spec.TaskState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+
+import static io.a2a.extras.taskstore.support.TaskTestBuilder.aTask;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routes against two H2 databases that do not replicate, so that each read shows which one it went to.
+ */
+@SpringBootTest(classes = CacheTestConfiguration.class)
+@TestPropertySource(properties = {
+    "spring.sql.init.mode=never",
+    "spring.datasource.url=jdbc:h2:mem:primarydb;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;INIT=RUNSCRIPT FROM 'classpath:test-schema-h2.sql'",
+    "a2a.taskstore.replica.enabled=true",
+    "a2a.taskstore.replica.url=jdbc:h2:mem:replicadb;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;INIT=RUNSCRIPT FROM 'classpath:test-schema-h2.sql'",
+    "a2a.taskstore.replica.hikari.maximum-pool-size=3",
+    "a2a.taskstore.replica.sticky-window-millis=60000",
+    "a2a.taskstore.cache.enabled=false"
+})
+class ReplicaRoutingTest {
+
+    @Autowired
+    private JdbcTaskStore taskStore;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        assertThat(dataSource).isInstanceOf(ReplicaRoutingDataSource.class);
+        ReplicaRoutingDataSource routing = (ReplicaRoutingDataSource) dataSource;
+        primary = new JdbcTemplate(routing.getPrimary());
+        replica = new JdbcTemplate(routing.getReplica());
+    }
+
+    @Test
+    void replicaPoolShouldTakeItsHikariSettings() {
+        assertThat(((ReplicaRoutingDataSource) dataSource).getReplica())
+                .isInstanceOfSatisfying(HikariDataSource.class, pool -> assertThat(pool.getMaximumPoolSize()).isEqualTo(3));
+    }
+
+    @Test
+    void readOnlyCallsShouldGoToTheReplica() {
+        replica.update("INSERT INTO a2a_tasks (task_id, context_id, status_state) VALUES ('replica-1', 'ctx', 'working')");
+
+        assertThat(taskStore.get("replica-1")).isNotNull();
+        assertThat(taskStore.isTaskActive("replica-1")).isTrue();
+        assertThat(primary.queryForObject("SELECT COUNT(*) FROM a2a_tasks WHERE task_id = 'replica-1'", Integer.class))
+                .isZero();
+    }
+
+    @Test
+    void writesShouldGoToThePrimary() {
+        taskStore.save(aTask().withId("replica-2").withStatus(TaskState.WORKING).build());
+
+        assertThat(primary.queryForObject("SELECT COUNT(*) FROM a2a_tasks WHERE task_id = 'replica-2'", Integer.class))
+                .isOne();
+        assertThat(replica.queryForObject("SELECT COUNT(*) FROM a2a_tasks WHERE task_id = 'replica-2'", Integer.class))
+                .isZero();
+    }
+
+    @Test
+    void readsOfATaskShouldStayOnThePrimaryWithinTheStickyWindow() {
+        taskStore.save(aTask().withId("replica-3").withStatus(TaskState.WORKING)
+                .withMessage(Message.Role.USER, "Hello").build());
+
+        assertThat(taskStore.get("replica-3")).isNotNull();
+        assertThat(taskStore.getHistory("replica-3", 10)).hasSize(1);
+        assertThat(taskStore.isTaskActive("replica-3")).isTrue();
+        // Never replicated
+        assertThat(replica.queryForObject("SELECT COUNT(*) FROM a2a_tasks WHERE task_id = 'replica-3'", Integer.class))
+                .isZero();
+    }
+}
@@ -0,0 +1,71 @@
+package io.a2a.extras.taskstore.jdbc;
+
+import io.a2a.spec.Message;
+import io.a2a.spec.Task;
+import io.a2a.spec.TaskState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static io.a2a.extras.taskstore.support.TaskTestBuilder.aMessage;
+import static io.a2a.extras.taskstore.support.TaskTestBuilder.aTask;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SaveTransactionTest extends BaseJdbcIntegrationTest {
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        setUpTaskStore();
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(jdbcTemplate.getDataSource()));
+    }
+
+    @Test
+    void saveInACallersTransactionShouldRollBackWithIt() {
+        transactionTemplate.executeWithoutResult(status -> {
+            taskStore.save(aTask().withId("outer-1").withStatus(TaskState.WORKING).build());
+            status.setRollbackOnly();
+        });
+
+        assertThat(taskStore.get("outer-1")).isNull();
+    }
+
+    @Test
+    void saveOutsideATransactionShouldCommitOnItsOwn() {
+        taskStore.save(aTask().withId("own-1").withMessage(Message.Role.USER, "Hello").build());
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM a2a_history WHERE task_id = 'own-1'", Integer.class))
+                .isOne();
+    }
+
+    @Test
+    void concurrentSavesOutsideTransactionsShouldAllBeStored() throws Exception {
+        List<Message> history = IntStream.range(0, 16).mapToObj(i -> aMessage(Message.Role.USER, "Message " + i)).toList();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<CompletableFuture<Void>> saves = IntStream.range(0, 16)
+                    .mapToObj(i -> CompletableFuture.runAsync(() -> taskStore.save(new Task.Builder(
+                            aTask().withId("queued-1").withStatus(TaskState.WORKING).build())
+                            .history(history.subList(0, i + 1))
+                            .build()), executor))
+                    .toList();
+            CompletableFuture.allOf(saves.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(taskStore.get("queued-1").getHistory()).hasSize(16);
+    }
+}
@@ -0,0 +1,55 @@
+package io.a2a.extras.taskstore.jdbc;
+
+import io.a2a.spec.Message;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static io.a2a.extras.taskstore.support.TaskTestBuilder.aMessage;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SharedHistoryTest {
+
+    @Test
+    void appendShouldKeepEarlierVersionsUnchanged() {
+        List<Message> base = messages("base", 2);
+        SharedHistory v1 = SharedHistory.of(base);
+        SharedHistory v2 = v1.append(messages("a", 3));
+        SharedHistory v3 = v2.append(messages("b", 20));
+
+        assertThat(v1).hasSize(2);
+        assertThat(v2).hasSize(5);
+        assertThat(v3).hasSize(25);
+        assertThat(v3.get(0)).isSameAs(base.get(0));
+        assertThat(v3.subList(0, 5)).containsExactlyElementsOf(v2);
+    }
+
+    @Test
+    void appendingToOlderVersionShouldNotOverwriteNewerOne() {
+        SharedHistory v1 = SharedHistory.of(messages("base", 1));
+        List<Message> first = messages("first", 2);
+        List<Message> second = messages("second", 2);
+
+        SharedHistory newer = v1.append(first);
+        SharedHistory fork = v1.append(second);
+
+        assertThat(newer.subList(1, 3)).containsExactlyElementsOf(first);
+        assertThat(fork.subList(1, 3)).containsExactlyElementsOf(second);
+    }
+
+    @Test
+    void shouldRejectIndexBeyondOwnVersion() {
+        SharedHistory v1 = SharedHistory.of(List.of()).append(messages("m", 1));
+        v1.append(messages("later", 1));
+
+        assertThatThrownBy(() -> v1.get(1)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    private static List<Message> messages(String prefix, int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> aMessage(Message.Role.USER, prefix + " " + i))
+                .toList();
+    }
+}
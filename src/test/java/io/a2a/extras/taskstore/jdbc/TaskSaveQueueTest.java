@@ -0,0 +1,233 @@
+package io.a2a.extras.taskstore.jdbc;
+
+import io.a2a.extras.taskstore.admission.TaskStoreOverloadedException;
+import io.a2a.spec.Message;
+import io.a2a.spec.Task;
+import io.a2a.spec.TaskState;
+import io.a2a.spec.TaskStatus;
+import io.a2a.spec.TextPart;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TaskSaveQueueTest {
+
+    @Test
+    void concurrentSavesOfATaskShouldBeWrittenOneAtATime() throws Exception {
+        TaskSaveQueue queue = new TaskSaveQueue(16, Duration.ofSeconds(10));
+        AtomicInteger writing = new AtomicInteger();
+        AtomicInteger maxWriting = new AtomicInteger();
+        List<Task> written = Collections.synchronizedList(new ArrayList<>());
+        Consumer<List<Task>> writer = snapshots -> {
+            maxWriting.accumulateAndGet(writing.incrementAndGet(), Math::max);
+            sleep(1);
+            written.addAll(snapshots);
+            writing.decrementAndGet();
+        };
+
+        List<Message> history = IntStream.range(0, 32).mapToObj(i -> message("Message " + i)).toList();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<CompletableFuture<Void>> saves = IntStream.range(0, 32)
+                    .mapToObj(i -> CompletableFuture.runAsync(
+                            () -> queue.save(task("hot", history.subList(0, i + 1)), writer), executor))
+                    .toList();
+            CompletableFuture.allOf(saves.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(maxWriting.get()).isEqualTo(1);
+        assertThat(written).isNotEmpty().hasSizeLessThanOrEqualTo(32);
+    }
+
+    @Test
+    void queuedSnapshotsShouldBeMergedIntoTheLatest() throws Exception {
+        TaskSaveQueue queue = new TaskSaveQueue(16, Duration.ofSeconds(10));
+        CountDownLatch writerStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Task> written = Collections.synchronizedList(new ArrayList<>());
+        Consumer<List<Task>> writer = snapshots -> {
+            writerStarted.countDown();
+            await(release);
+            written.addAll(snapshots);
+        };
+        Message first = message("first");
+        Message second = message("second");
+        Message third = message("third");
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            CompletableFuture<Void> blocking = CompletableFuture.runAsync(
+                    () -> queue.save(task("merge", List.of(first)), writer), executor);
+            assertThat(writerStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            CompletableFuture<Void> queued1 = CompletableFuture.runAsync(
+                    () -> queue.save(task("merge", List.of(first, second)), writer), executor);
+            sleep(50);
+            CompletableFuture<Void> queued2 = CompletableFuture.runAsync(
+                    () -> queue.save(task("merge", List.of(first, second, third)), writer), executor);
+            sleep(50);
+            release.countDown();
+            CompletableFuture.allOf(blocking, queued1, queued2).get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(written).extracting(task -> task.getHistory().size()).containsExactly(1, 3);
+    }
+
+    @Test
+    void coalesceShouldKeepSnapshotsThatALaterOneDoesNotSupersede() {
+        Message first = message("first");
+        Message second = message("second");
+        Task one = task("t", List.of(first));
+        Task two = task("t", List.of(first, second));
+        Task unrelated = task("t", List.of(message("other")));
+        Task cleared = task("t", List.of());
+        Task withMetadata = new Task.Builder(one).metadata(Map.of("key", "value")).build();
+        Task withoutMetadata = new Task.Builder(two).metadata(null).build();
+
+        assertThat(TaskSaveQueue.coalesce(List.of(one, two))).containsExactly(two);
+        assertThat(TaskSaveQueue.coalesce(List.of(two, one))).containsExactly(two, one);
+        assertThat(TaskSaveQueue.coalesce(List.of(one, unrelated))).containsExactly(one, unrelated);
+        assertThat(TaskSaveQueue.coalesce(List.of(cleared, one))).containsExactly(cleared, one);
+        assertThat(TaskSaveQueue.coalesce(List.of(withMetadata, withoutMetadata))).containsExactly(withMetadata, withoutMetadata);
+    }
+
+    @Test
+    void saveOfTheWritingThreadShouldBeWrittenDirectly() {
+        TaskSaveQueue queue = new TaskSaveQueue(16, Duration.ofSeconds(10));
+        List<String> written = new ArrayList<>();
+        Consumer<List<Task>>[] writer = new Consumer[1];
+        writer[0] = snapshots -> snapshots.forEach(task -> {
+            written.add(task.getStatus().state().asString());
+            if (task.getStatus().state() == TaskState.WORKING) {
+                queue.save(new Task.Builder(task).status(new TaskStatus(TaskState.COMPLETED)).build(), writer[0]);
+            }
+        });
+
+        queue.save(task("reentrant", List.of()), writer[0]);
+
+        assertThat(written).containsExactly("working", "completed");
+    }
+
+    @Test
+    void writeFailureShouldBeThrownToQueuedCallers() throws Exception {
+        TaskSaveQueue queue = new TaskSaveQueue(16, Duration.ofSeconds(10));
+        CountDownLatch writerStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Consumer<List<Task>> writer = snapshots -> {
+            writerStarted.countDown();
+            await(release);
+            throw new IllegalStateException("boom");
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            CompletableFuture<Void> leader = CompletableFuture.runAsync(
+                    () -> queue.save(task("failing", List.of()), writer), executor);
+            assertThat(writerStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            CompletableFuture<Void> follower = CompletableFuture.runAsync(
+                    () -> queue.save(task("failing", List.of()), writer), executor);
+            sleep(50);
+            release.countDown();
+
+            assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasRootCauseMessage("boom");
+            assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS)).hasRootCauseMessage("boom");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void callerWaitingTooLongShouldFailWithoutOverwritingANewerSnapshot() throws Exception {
+        TaskSaveQueue queue = new TaskSaveQueue(16, Duration.ofMillis(500));
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch writerStarted = new CountDownLatch(1);
+        // Last write wins, as in the database
+        AtomicReference<TaskState> stored = new AtomicReference<>();
+        List<TaskState> written = Collections.synchronizedList(new ArrayList<>());
+        Consumer<List<Task>> writer = snapshots -> snapshots.forEach(task -> {
+            if (task.getStatus().state() == TaskState.WORKING) {
+                writerStarted.countDown();
+                await(release);
+            }
+            written.add(task.getStatus().state());
+            stored.set(task.getStatus().state());
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            CompletableFuture<Void> slow = CompletableFuture.runAsync(
+                    () -> queue.save(task("slow", List.of()), writer), executor);
+            assertThat(writerStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            CompletableFuture<Void> older = CompletableFuture.runAsync(
+                    () -> queue.save(task("slow", TaskState.INPUT_REQUIRED), writer), executor);
+            sleep(200);
+            CompletableFuture<Void> newer = CompletableFuture.runAsync(
+                    () -> queue.save(task("slow", TaskState.COMPLETED), writer), executor);
+
+            assertThatThrownBy(() -> older.get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(TaskStoreOverloadedException.class);
+            release.countDown();
+            CompletableFuture.allOf(slow, newer).get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(written).containsExactly(TaskState.WORKING, TaskState.COMPLETED);
+        assertThat(stored.get()).isEqualTo(TaskState.COMPLETED);
+    }
+
+    private static Task task(String taskId, List<Message> history) {
+        return new Task.Builder()
+                .id(taskId)
+                .contextId(taskId)
+                .status(new TaskStatus(TaskState.WORKING))
+                .history(history)
+                .build();
+    }
+
+    private static Task task(String taskId, TaskState state) {
+        return new Task.Builder(task(taskId, List.of())).status(new TaskStatus(state)).build();
+    }
+
+    private static Message message(String text) {
+        return new Message.Builder()
+                .role(Message.Role.USER)
+                .parts(new TextPart(text))
+                .build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
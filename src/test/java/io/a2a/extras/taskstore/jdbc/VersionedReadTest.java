@@ -0,0 +1,100 @@
+package io.a2a.extras.taskstore.jdbc;
+
+import io.a2a.extras.taskstore.A2aTaskStoreProperties;
+import io.a2a.extras.taskstore.cache.TaskInvalidationBus;
+import io.a2a.spec.TaskState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.Optional;
+
+import static io.a2a.extras.taskstore.support.TaskTestBuilder.aTask;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VersionedReadTest extends BaseJdbcIntegrationTest {
+
+    private Cache cache;
+    private JdbcTaskStore cachedStore;
+
+    @BeforeEach
+    void setUp() {
+        A2aTaskStoreProperties customProperties = new A2aTaskStoreProperties();
+        customProperties.getCache().setValidateOnRead(true);
+        setUpTaskStoreWithProperties(customProperties);
+        cache = new ConcurrentMapCache("versioned", false);
+        cachedStore = new JdbcTaskStore(taskRepository, historyRepository, artifactRepository, properties,
+                cache, TaskInvalidationBus.NONE);
+    }
+
+    @Test
+    void saveShouldBumpVersion() {
+        taskStore.save(aTask().withId("v-1").withStatus(TaskState.SUBMITTED).build());
+        assertThat(taskStore.getVersioned("v-1").version()).isZero();
+
+        taskStore.save(aTask().withId("v-1").withStatus(TaskState.WORKING).build());
+        taskStore.save(aTask().withId("v-1").withStatus(TaskState.COMPLETED).build());
+
+        VersionedTask current = taskStore.getVersioned("v-1");
+        assertThat(current.version()).isEqualTo(2);
+        assertThat(current.task().getStatus().state()).isEqualTo(TaskState.COMPLETED);
+    }
+
+    @Test
+    void getIfModifiedShouldReturnEmptyWhenUnchanged() {
+        taskStore.save(aTask().withId("v-2").build());
+        long version = taskStore.getVersioned("v-2").version();
+
+        assertThat(taskStore.getIfModified("v-2", version)).isEmpty();
+    }
+
+    @Test
+    void getIfModifiedShouldReturnNewerTask() {
+        taskStore.save(aTask().withId("v-3").withStatus(TaskState.WORKING).build());
+        long version = taskStore.getVersioned("v-3").version();
+        taskStore.save(aTask().withId("v-3").withStatus(TaskState.INPUT_REQUIRED).build());
+
+        Optional<VersionedTask> modified = taskStore.getIfModified("v-3", version);
+
+        assertThat(modified).isPresent();
+        assertThat(modified.get().version()).isEqualTo(version + 1);
+        assertThat(modified.get().task().getStatus().state()).isEqualTo(TaskState.INPUT_REQUIRED);
+    }
+
+    @Test
+    void getIfModifiedShouldReportDeletedTask() {
+        taskStore.save(aTask().withId("v-4").build());
+        long version = taskStore.getVersioned("v-4").version();
+        taskStore.delete("v-4");
+
+        Optional<VersionedTask> modified = taskStore.getIfModified("v-4", version);
+
+        assertThat(modified).contains(VersionedTask.ABSENT);
+        assertThat(modified.get().exists()).isFalse();
+    }
+
+    @Test
+    void validateOnReadShouldDetectWritesFromOtherNodes() {
+        cachedStore.save(aTask().withId("v-5").withStatus(TaskState.WORKING).build());
+        assertThat(cachedStore.get("v-5").getStatus().state()).isEqualTo(TaskState.WORKING);
+        assertThat(cache.get("v-5")).isNotNull();
+
+        // Written through a store that does not share the cache, as another node would
+        taskStore.save(aTask().withId("v-5").withStatus(TaskState.COMPLETED).build());
+
+        assertThat(cachedStore.get("v-5").getStatus().state()).isEqualTo(TaskState.COMPLETED);
+        assertThat(cache.get("v-5", VersionedTask.class).version()).isEqualTo(1);
+    }
+
+    @Test
+    void validateOnReadShouldDropDeletedTasks() {
+        cachedStore.save(aTask().withId("v-6").build());
+        cachedStore.get("v-6");
+
+        taskStore.delete("v-6");
+
+        assertThat(cachedStore.get("v-6")).isNull();
+        assertThat(cache.get("v-6")).isNull();
+    }
+}
@@ -0,0 +1,98 @@
+package io.a2a.extras.taskstore.metrics;
+
+import io.a2a.extras.taskstore.cache.CacheConfig;
+import io.a2a.extras.taskstore.cache.CacheTestConfiguration;
+import io.a2a.extras.taskstore.jdbc.JdbcTaskStore;
+import io.a2a.extras.taskstore.jdbc.JsonUtils;
+import io.a2a.spec.Message;
+import io.a2a.spec.TaskState;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import static io.a2a.extras.taskstore.support.TaskTestBuilder.aTask;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = CacheTestConfiguration.class)
+@TestPropertySource(properties = {
+    "spring.sql.init.mode=never",
+    "spring.datasource.url=jdbc:h2:mem:metricsdb;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;INIT=RUNSCRIPT FROM 'classpath:test-schema-h2.sql'",
+    "a2a.taskstore.cache.enabled=true"
+})
+class TaskStoreMetricsTest {
+
+    @Autowired
+    private JdbcTaskStore taskStore;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TaskStoreMetrics metrics;
+
+    @Test
+    void micrometerMetricsShouldBeRegistered() {
+        assertThat(metrics).isInstanceOf(MicrometerTaskStoreMetrics.class);
+    }
+
+    @Test
+    void repositoryCallsShouldBeTimed() {
+        taskStore.save(aTask().withId("metrics-1").withStatus(TaskState.WORKING)
+                .withMessages(4, Message.Role.USER, "question")
+                .withArtifact("art-1", "Result", "Output")
+                .build());
+        taskStore.get("metrics-1");
+
+        assertThat(timer("task", "save").count()).isPositive();
+        assertThat(timer("task", "findById").count()).isPositive();
+        assertThat(timer("history", "saveAll").count()).isPositive();
+        assertThat(timer("history", "findByTaskId").count()).isPositive();
+        assertThat(timer("artifact", "saveAll").count()).isPositive();
+        assertThat(timer("artifact", "findByTaskId").count()).isPositive();
+        assertThat(timer("task", "save").takeSnapshot().percentileValues()).hasSize(3);
+    }
+
+    @Test
+    void payloadAndHistoryLengthShouldBeRecorded() {
+        taskStore.save(aTask().withId("metrics-2").withMessages(7, Message.Role.AGENT, "answer").build());
+
+        assertThat(meterRegistry.get("a2a.taskstore.history.length").summary().max()).isGreaterThanOrEqualTo(7);
+        assertThat(meterRegistry.get("a2a.taskstore.payload.size").tag("payload", "history").summary().totalAmount())
+                .isPositive();
+    }
+
+    @Test
+    void doubleEncodedReadsShouldBeCounted() {
+        double before = meterRegistry.get("a2a.taskstore.json.double.encoded").functionCounter().count();
+
+        JsonUtils.METADATA_MAP.read(JsonUtils.toJson("{\"legacy\":true}"));
+
+        assertThat(meterRegistry.get("a2a.taskstore.json.double.encoded").functionCounter().count()).isEqualTo(before + 1);
+    }
+
+    @Test
+    void cacheStatisticsShouldBeExported() {
+        taskStore.save(aTask().withId("metrics-3").build());
+        taskStore.get("metrics-3");
+        taskStore.get("metrics-3");
+
+        assertThat(meterRegistry.get("cache.gets").tag("cache", CacheConfig.TASK_CACHE).tag("result", "hit")
+                .functionCounter().count()).isPositive();
+        assertThat(meterRegistry.get("cache.gets").tag("cache", CacheConfig.TASK_CACHE).tag("result", "miss")
+                .functionCounter().count()).isPositive();
+        assertThat(meterRegistry.get("cache.evictions").tag("cache", CacheConfig.TASK_CACHE).functionCounter())
+                .isNotNull();
+        assertThat(meterRegistry.get("a2a.taskstore.cache.load").tag("cache", CacheConfig.TASK_CACHE).timer().count())
+                .isPositive();
+    }
+
+    private Timer timer(String repository, String operation) {
+        return meterRegistry.get("a2a.taskstore.repository")
+                .tag("repository", repository)
+                .tag("operation", operation)
+                .timer();
+    }
+}
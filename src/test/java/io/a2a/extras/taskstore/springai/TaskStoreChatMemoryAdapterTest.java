@@ -1,6 +1,9 @@
 package io.a2a.extras.taskstore.springai;
 
 import io.a2a.extras.taskstore.A2aTaskStoreProperties;
+import io.a2a.extras.taskstore.jdbc.JdbcTaskStore;
+import io.a2a.extras.taskstore.jdbc.VersionedTask;
+import io.a2a.server.tasks.InMemoryTaskStore;
 import io.a2a.server.tasks.TaskStore;
 import io.a2a.spec.*;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,6 +19,13 @@ import org.springframework.ai.chat.messages.UserMessage;
 
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -65,6 +75,78 @@ class TaskStoreChatMemoryAdapterTest {
         ));
     }
 
+    @Test
+    void addShouldAppendThroughJdbcTaskStore() {
+        JdbcTaskStore jdbcTaskStore = mock(JdbcTaskStore.class);
+        TaskStoreChatMemoryAdapter jdbcAdapter = new TaskStoreChatMemoryAdapter(jdbcTaskStore, properties);
+
+        jdbcAdapter.add("conv-123", List.of(new UserMessage("Hello"), new AssistantMessage("Hi")));
+
+        verify(jdbcTaskStore).appendHistory(eq("conv-123"), argThat(messages -> messages.size() == 2
+                && messages.get(1).getRole() == io.a2a.spec.Message.Role.AGENT), any());
+        verify(jdbcTaskStore, never()).get(anyString());
+        verify(jdbcTaskStore, never()).save(any(Task.class));
+    }
+
+    @Test
+    void getShouldReuseConvertedMessagesWhileTaskIsUnchanged() {
+        JdbcTaskStore jdbcTaskStore = mock(JdbcTaskStore.class);
+        TaskStoreChatMemoryAdapter jdbcAdapter = new TaskStoreChatMemoryAdapter(jdbcTaskStore, properties);
+        when(jdbcTaskStore.getVersioned("conv-123")).thenReturn(new VersionedTask(createTaskWithMultipleMessages("conv-123", 3), 7));
+        when(jdbcTaskStore.getIfModified("conv-123", 7)).thenReturn(Optional.empty());
+
+        List<Message> first = jdbcAdapter.get("conv-123");
+        List<Message> second = jdbcAdapter.get("conv-123", 2);
+
+        assertThat(first).hasSize(3);
+        assertThat(second).containsExactly(first.get(1), first.get(2));
+        verify(jdbcTaskStore).getVersioned("conv-123");
+        verify(jdbcTaskStore, never()).get(anyString());
+    }
+
+    @Test
+    void addShouldExtendCachedMessages() {
+        JdbcTaskStore jdbcTaskStore = mock(JdbcTaskStore.class);
+        TaskStoreChatMemoryAdapter jdbcAdapter = new TaskStoreChatMemoryAdapter(jdbcTaskStore, properties);
+        when(jdbcTaskStore.getVersioned("conv-123")).thenReturn(new VersionedTask(createTaskWithMultipleMessages("conv-123", 2), 7));
+        when(jdbcTaskStore.appendHistory(eq("conv-123"), any(), any())).thenReturn(8L);
+        when(jdbcTaskStore.getIfModified("conv-123", 8)).thenReturn(Optional.empty());
+        jdbcAdapter.get("conv-123");
+
+        jdbcAdapter.add("conv-123", List.of(new AssistantMessage("Hi")));
+
+        assertThat(jdbcAdapter.get("conv-123")).extracting(Message::getText)
+                .containsExactly("Message 0", "Message 1", "Hi");
+        verify(jdbcTaskStore).getVersioned("conv-123");
+    }
+
+    @Test
+    void getShouldReloadCachedMessagesWhenTaskChanged() {
+        JdbcTaskStore jdbcTaskStore = mock(JdbcTaskStore.class);
+        TaskStoreChatMemoryAdapter jdbcAdapter = new TaskStoreChatMemoryAdapter(jdbcTaskStore, properties);
+        when(jdbcTaskStore.getVersioned("conv-123")).thenReturn(new VersionedTask(createTaskWithMultipleMessages("conv-123", 2), 7));
+        when(jdbcTaskStore.getIfModified("conv-123", 7))
+                .thenReturn(Optional.of(new VersionedTask(createTaskWithMultipleMessages("conv-123", 4), 9)));
+        jdbcAdapter.get("conv-123");
+
+        assertThat(jdbcAdapter.get("conv-123")).hasSize(4);
+    }
+
+    @Test
+    void getAllShouldReadConversationsWithOneStoreCall() {
+        JdbcTaskStore jdbcTaskStore = mock(JdbcTaskStore.class);
+        TaskStoreChatMemoryAdapter jdbcAdapter = new TaskStoreChatMemoryAdapter(jdbcTaskStore, properties);
+        when(jdbcTaskStore.getHistories(List.of("conv-a", "conv-b"), 2))
+                .thenReturn(Map.of("conv-a", createTaskWithMultipleMessages("conv-a", 2).getHistory()));
+
+        Map<String, List<Message>> conversations = jdbcAdapter.getAll(List.of("conv-a", "conv-b"), 2);
+
+        assertThat(conversations).containsOnlyKeys("conv-a", "conv-b");
+        assertThat(conversations.get("conv-a")).extracting(Message::getText).containsExactly("Message 0", "Message 1");
+        assertThat(conversations.get("conv-b")).isEmpty();
+        verify(jdbcTaskStore, never()).get(anyString());
+    }
+
     @Test
     void addEmptyMessageList() {
         String taskId = "conv-123";
@@ -122,6 +204,38 @@ class TaskStoreChatMemoryAdapterTest {
         assertThat(messages).hasSize(2);
     }
 
+    @Test
+    void getWithinTokenBudgetShouldTrimToTheNewestMessagesThatFit() {
+        String taskId = "conv-123";
+        Task task = createTaskWithMultipleMessages(taskId, 5);
+
+        when(taskStore.get(taskId)).thenReturn(task);
+
+        List<Message> messages = adapter.getWithinTokenBudget(taskId, 15);
+
+        assertThat(messages).extracting(Message::getText).containsExactly("Message 3", "Message 4");
+    }
+
+    @Test
+    void concurrentAddsToOneConversationShouldKeepAllMessages() throws Exception {
+        TaskStoreChatMemoryAdapter inMemoryAdapter = new TaskStoreChatMemoryAdapter(new InMemoryTaskStore(), properties);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = IntStream.range(0, 200)
+                .mapToObj(i -> executor.submit(() -> inMemoryAdapter.add(i % 2 == 0 ? "conv-a" : "conv-b",
+                    List.of(new UserMessage("Message " + i)))))
+                .collect(Collectors.toList());
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(inMemoryAdapter.get("conv-a")).hasSize(100);
+        assertThat(inMemoryAdapter.get("conv-b")).hasSize(100);
+    }
+
     @Test
     void getLastNMessagesWhenNIsZero() {
         String taskId = "conv-123";
@@ -185,6 +299,18 @@ class TaskStoreChatMemoryAdapterTest {
         verify(taskStore, never()).save(any());
     }
 
+    @Test
+    void clearShouldDeleteHistoryThroughJdbcTaskStore() {
+        JdbcTaskStore jdbcTaskStore = mock(JdbcTaskStore.class);
+        TaskStoreChatMemoryAdapter jdbcAdapter = new TaskStoreChatMemoryAdapter(jdbcTaskStore, properties);
+
+        jdbcAdapter.clear("conv-123");
+
+        verify(jdbcTaskStore).deleteHistory("conv-123");
+        verify(jdbcTaskStore, never()).get(anyString());
+        verify(jdbcTaskStore, never()).save(any(Task.class));
+    }
+
     @Test
     void convertUserMessage() {
         String taskId = "conv-123";
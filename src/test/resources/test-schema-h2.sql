@@ -11,6 +11,7 @@ CREATE TABLE IF NOT EXISTS a2a_tasks (
     created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
     finalized_at TIMESTAMP WITH TIME ZONE,
+    version BIGINT NOT NULL DEFAULT 0,
 
     CONSTRAINT chk_status CHECK (status_state IN (
         'submitted', 'working', 'input-required', 'auth-required',
@@ -22,7 +23,11 @@ CREATE TABLE IF NOT EXISTS a2a_history (
     task_id VARCHAR(255) NOT NULL REFERENCES a2a_tasks(task_id) ON DELETE CASCADE,
     message_id VARCHAR(255) NOT NULL,
     role VARCHAR(20) NOT NULL,
-    content_json JSON NOT NULL,  -- Array of Part objects
+    content_json JSON,           -- Array of Part objects (JSON content format)
+    content_format VARCHAR(8),   -- JSON, SMILE or CBOR; null for rows written before the column existed
+    content_bin BYTEA,           -- Parts in a binary content format, or compressed parts
+    content_codec VARCHAR(8),    -- Compression of content_bin (ZSTD, DEFLATE); null if uncompressed
+    token_count INTEGER,         -- Estimated prompt tokens; null for rows written before the column existed
     metadata_json JSON,          -- Message metadata JSON object
     created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
@@ -37,7 +42,10 @@ CREATE TABLE IF NOT EXISTS a2a_artifacts (
     task_id VARCHAR(255) NOT NULL REFERENCES a2a_tasks(task_id) ON DELETE CASCADE,
     name VARCHAR(500),
     description TEXT,
-    content_json JSON NOT NULL,
+    content_json JSON,
+    content_format VARCHAR(8),
+    content_bin BYTEA,
+    content_codec VARCHAR(8),
     metadata_json JSON,
     extensions_json JSON,
     sequence_num INTEGER NOT NULL,
@@ -0,0 +1,67 @@
+package io.a2a.extras.taskstore.autoconfigure;
+
+import io.a2a.extras.taskstore.A2aTaskStoreProperties;
+import io.a2a.extras.taskstore.cache.CacheConfig;
+import io.a2a.extras.taskstore.cache.TaskInvalidationBus;
+import io.a2a.extras.taskstore.jdbc.TokenEstimator;
+import io.a2a.extras.taskstore.r2dbc.R2dbcJsonAdapter;
+import io.a2a.extras.taskstore.r2dbc.R2dbcTaskStore;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.ReactiveTransactionManager;
+
+@AutoConfiguration(afterName = {
+        "org.springframework.boot.autoconfigure.data.r2dbc.R2dbcDataAutoConfiguration",
+        "org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration",
+        "org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration"})
+@ConditionalOnClass({DatabaseClient.class, ConnectionFactory.class})
+@ConditionalOnBean({DatabaseClient.class, ReactiveTransactionManager.class})
+@ConditionalOnProperty(prefix = "a2a.taskstore", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(A2aTaskStoreProperties.class)
+@Import(CacheConfig.class)
+public class R2dbcTaskStoreAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public R2dbcJsonAdapter r2dbcJsonAdapter(ConnectionFactory connectionFactory) {
+        return R2dbcJsonAdapter.forConnectionFactory(connectionFactory);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public R2dbcTaskStore r2dbcTaskStore(
+            DatabaseClient databaseClient,
+            ReactiveTransactionManager transactionManager,
+            R2dbcJsonAdapter jsonAdapter,
+            A2aTaskStoreProperties properties,
+            ObjectProvider<CacheManager> cacheManager,
+            ObjectProvider<TaskInvalidationBus> invalidationBus,
+            ObjectProvider<TokenEstimator> tokenEstimator) {
+        Cache taskCache = resolveTaskCache(properties, cacheManager);
+        TaskInvalidationBus bus = invalidationBus.getIfAvailable(() -> TaskInvalidationBus.NONE);
+        if (taskCache != null) {
+            bus.subscribe(TaskInvalidationBus.evicting(taskCache));
+        }
+        return new R2dbcTaskStore(databaseClient, transactionManager, jsonAdapter, properties, taskCache, bus,
+                tokenEstimator.getIfAvailable(() -> TokenEstimator.DEFAULT));
+    }
+
+    private static Cache resolveTaskCache(A2aTaskStoreProperties properties, ObjectProvider<CacheManager> cacheManager) {
+        if (!properties.getCache().isEnabled()) {
+            return null;
+        }
+        CacheManager manager = cacheManager.getIfAvailable();
+        return manager != null ? manager.getCache(CacheConfig.TASK_CACHE) : null;
+    }
+}
@@ -0,0 +1,84 @@
+package io.a2a.extras.taskstore.r2dbc;
+
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Row;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binds and reads the JSON columns, the R2DBC counterpart of {@link io.a2a.extras.taskstore.jdbc.JsonbAdapter}.
+ * Values are the UTF-8 encoded documents the {@link io.a2a.extras.taskstore.jdbc.JsonUtils} codecs write and read.
+ */
+public interface R2dbcJsonAdapter {
+
+    /**
+     * The value to bind for a non-null document.
+     */
+    Object adapt(byte[] json);
+
+    /**
+     * The type to bind a null document as.
+     */
+    Class<?> nullType();
+
+    /**
+     * @return the document stored in {@code column}, or null
+     */
+    byte[] read(Row row, String column);
+
+    /**
+     * Picks the adapter for the database behind {@code connectionFactory}.
+     *
+     * @return PostgresJsonAdapter for PostgreSQL, StandardJsonAdapter otherwise
+     */
+    static R2dbcJsonAdapter forConnectionFactory(ConnectionFactory connectionFactory) {
+        String name = connectionFactory.getMetadata().getName();
+        if (name != null && name.toLowerCase().contains("postgres")) {
+            return new PostgresJsonAdapter();
+        }
+        return new StandardJsonAdapter();
+    }
+
+    /**
+     * Binds documents as bytes, which H2 parses as the JSON document itself, and reads them as text.
+     */
+    final class StandardJsonAdapter implements R2dbcJsonAdapter {
+        @Override
+        public Object adapt(byte[] json) {
+            return json;
+        }
+
+        @Override
+        public Class<?> nullType() {
+            return byte[].class;
+        }
+
+        @Override
+        public byte[] read(Row row, String column) {
+            String json = row.get(column, String.class);
+            return json != null ? json.getBytes(StandardCharsets.UTF_8) : null;
+        }
+    }
+
+    /**
+     * PostgreSQL adapter that binds {@link io.r2dbc.postgresql.codec.Json}, as the driver types other values as
+     * text or bytea, which JSONB columns reject.
+     */
+    final class PostgresJsonAdapter implements R2dbcJsonAdapter {
+        @Override
+        public Object adapt(byte[] json) {
+            return io.r2dbc.postgresql.codec.Json.of(json);
+        }
+
+        @Override
+        public Class<?> nullType() {
+            return io.r2dbc.postgresql.codec.Json.class;
+        }
+
+        @Override
+        public byte[] read(Row row, String column) {
+            io.r2dbc.postgresql.codec.Json json = row.get(column, io.r2dbc.postgresql.codec.Json.class);
+            return json != null ? json.asArray() : null;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package io.a2a.extras.taskstore.r2dbc;
+
+import io.a2a.extras.taskstore.jdbc.SqlConstants;
+
+/**
+ * The statements of {@link SqlConstants} with indexed {@code $1, $2, ...} bind markers, which the PostgreSQL and H2
+ * R2DBC drivers both accept, so that both stores run the same SQL against the same schema.
+ */
+final class R2dbcSqlConstants {
+
+    private R2dbcSqlConstants() {
+    }
+
+    static final String UPDATE_TASK = indexed(SqlConstants.UPDATE_TASK);
+    static final String INSERT_TASK = indexed(SqlConstants.INSERT_TASK);
+    static final String UPDATE_TASK_METADATA = indexed(SqlConstants.UPDATE_TASK_METADATA);
+    static final String LOCK_TASK_ROW = indexed(SqlConstants.LOCK_TASK_ROW);
+    static final String LOCK_TASK_ADVISORY = indexed(SqlConstants.LOCK_TASK_ADVISORY);
+    static final String SELECT_TASK_BY_ID = indexed(SqlConstants.SELECT_TASK_BY_ID);
+    static final String SELECT_TASK_VERSION = indexed(SqlConstants.SELECT_TASK_VERSION);
+    static final String SELECT_STATUS_STATE = indexed(SqlConstants.SELECT_STATUS_STATE);
+    static final String SELECT_FINALIZED_AT = indexed(SqlConstants.SELECT_FINALIZED_AT);
+    static final String DELETE_TASK = indexed(SqlConstants.DELETE_TASK);
+
+    static final String SELECT_HISTORY_EXTENT = indexed(SqlConstants.SELECT_HISTORY_EXTENT);
+    static final String DELETE_HISTORY = indexed(SqlConstants.DELETE_HISTORY);
+    static final String INSERT_HISTORY = indexed(SqlConstants.INSERT_HISTORY);
+    static final String SELECT_HISTORY = indexed(SqlConstants.SELECT_HISTORY);
+
+    static final String DELETE_ARTIFACTS = indexed(SqlConstants.DELETE_ARTIFACTS);
+    static final String INSERT_ARTIFACT = indexed(SqlConstants.INSERT_ARTIFACT);
+    static final String SELECT_ARTIFACTS = indexed(SqlConstants.SELECT_ARTIFACTS);
+
+    /**
+     * Replaces the JDBC {@code ?} markers with {@code $1, $2, ...}. The statements contain no other question marks.
+     */
+    static String indexed(String sql) {
+        StringBuilder converted = new StringBuilder(sql.length() + 16);
+        int index = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '?') {
+                converted.append('$').append(++index);
+            } else {
+                converted.append(c);
+            }
+        }
+        return converted.toString();
+    }
+}
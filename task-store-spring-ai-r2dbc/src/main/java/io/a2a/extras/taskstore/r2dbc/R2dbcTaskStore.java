@@ -0,0 +1,500 @@
+package io.a2a.extras.taskstore.r2dbc;
+
+import io.a2a.extras.taskstore.A2aTaskStoreProperties;
+import io.a2a.extras.taskstore.cache.TaskInvalidationBus;
+import io.a2a.extras.taskstore.jdbc.JsonUtils;
+import io.a2a.extras.taskstore.jdbc.JsonbAdapter;
+import io.a2a.extras.taskstore.jdbc.PartsColumnCodec;
+import io.a2a.extras.taskstore.jdbc.SqlConstants;
+import io.a2a.extras.taskstore.jdbc.TokenEstimator;
+import io.a2a.extras.taskstore.jdbc.VersionedTask;
+import io.a2a.extras.taskstore.metrics.TaskStoreMetrics;
+import io.a2a.spec.Artifact;
+import io.a2a.spec.Message;
+import io.a2a.spec.Part;
+import io.a2a.spec.Task;
+import io.a2a.spec.TaskState;
+import io.a2a.spec.TaskStatus;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.Statement;
+import org.springframework.cache.Cache;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Reactive task store on the schema of {@link io.a2a.extras.taskstore.jdbc.JdbcTaskStore}, using R2DBC through
+ * {@link DatabaseClient}. Both stores read each other's rows: parts are encoded by the same
+ * {@link PartsColumnCodec}, JSON columns by the same {@link JsonUtils} codecs.
+ * <p>
+ * Reads go through the task cache of the JDBC store, holding {@link VersionedTask} entries validated as configured
+ * by {@code a2a.taskstore.cache}. Writes evict the cached copy once they committed and announce the change on the
+ * {@link TaskInvalidationBus}; the next read loads and caches the task again.
+ */
+public class R2dbcTaskStore {
+
+    private static final Set<TaskState> FINAL_STATES = EnumSet.of(
+            TaskState.COMPLETED, TaskState.CANCELED, TaskState.FAILED, TaskState.REJECTED
+    );
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+    private final TransactionalOperator readOnlyOperator;
+    private final R2dbcJsonAdapter jsonAdapter;
+    private final PartsColumnCodec partsCodec;
+    private final JsonUtils.JsonCodec<Message> messageCodec;
+    private final JsonUtils.JsonCodec<Map<String, Object>> metadataCodec;
+    private final JsonUtils.JsonCodec<List<String>> extensionsCodec;
+    private final TokenEstimator tokenEstimator;
+    private final A2aTaskStoreProperties properties;
+    private final Cache taskCache;
+    private final TaskInvalidationBus invalidationBus;
+    private final boolean advisoryLocks;
+
+    public R2dbcTaskStore(DatabaseClient databaseClient, ReactiveTransactionManager transactionManager,
+                          R2dbcJsonAdapter jsonAdapter, A2aTaskStoreProperties properties) {
+        this(databaseClient, transactionManager, jsonAdapter, properties, null, TaskInvalidationBus.NONE,
+                TokenEstimator.DEFAULT);
+    }
+
+    /**
+     * @param taskCache the task cache, or null to read every task from the database
+     */
+    public R2dbcTaskStore(DatabaseClient databaseClient, ReactiveTransactionManager transactionManager,
+                          R2dbcJsonAdapter jsonAdapter, A2aTaskStoreProperties properties, Cache taskCache,
+                          TaskInvalidationBus invalidationBus, TokenEstimator tokenEstimator) {
+        DefaultTransactionDefinition readOnly = new DefaultTransactionDefinition();
+        readOnly.setReadOnly(true);
+        this.databaseClient = databaseClient;
+        this.transactionalOperator = TransactionalOperator.create(transactionManager);
+        this.readOnlyOperator = TransactionalOperator.create(transactionManager, readOnly);
+        this.jsonAdapter = jsonAdapter;
+        // The JSON column values are bound through the R2DBC adapter, so the JDBC one is never used
+        this.partsCodec = new PartsColumnCodec(properties, new JsonbAdapter.StandardJsonbAdapter(), TaskStoreMetrics.NOOP);
+        boolean doubleEncodedFallback = properties.getJson().isDoubleEncodedFallback();
+        this.messageCodec = JsonUtils.MESSAGE.withDoubleEncodedFallback(doubleEncodedFallback);
+        this.metadataCodec = JsonUtils.METADATA_MAP.withDoubleEncodedFallback(doubleEncodedFallback);
+        this.extensionsCodec = JsonUtils.EXTENSIONS.withDoubleEncodedFallback(doubleEncodedFallback);
+        this.tokenEstimator = tokenEstimator;
+        this.properties = properties;
+        this.taskCache = taskCache;
+        this.invalidationBus = invalidationBus;
+        String database = databaseClient.getConnectionFactory().getMetadata().getName();
+        this.advisoryLocks = database != null && database.toLowerCase().contains("postgres");
+    }
+
+    /**
+     * Saves the task in one transaction, with the same semantics as the JDBC store: history beyond the stored
+     * messages is appended, artifacts are replaced, concurrent saves of a task are serialized.
+     */
+    public Mono<Void> save(Task task) {
+        String taskId = task.getId();
+        Mono<Void> write = lock(taskId)
+                .then(saveTask(task))
+                .then(saveHistory(taskId, task.getHistory()))
+                .then(properties.isStoreArtifacts() ? saveArtifacts(taskId, task.getArtifacts()) : Mono.<Void>empty())
+                .then(properties.isStoreMetadata() && task.getMetadata() != null
+                        ? updateMetadata(taskId, task.getMetadata())
+                        : Mono.<Void>empty());
+        return transactionalOperator.transactional(write)
+                .then(Mono.fromRunnable(() -> changed(taskId)));
+    }
+
+    /**
+     * @return the task, or empty if it does not exist
+     */
+    public Mono<Task> get(String taskId) {
+        return getVersioned(taskId).map(VersionedTask::task);
+    }
+
+    /**
+     * Same as {@link #get} but also returns the row version.
+     *
+     * @return the task and its version, or empty if the task does not exist
+     */
+    public Mono<VersionedTask> getVersioned(String taskId) {
+        return cachedIfCurrent(taskId).switchIfEmpty(Mono.defer(() -> load(taskId)
+                .flatMap(loaded -> cache(taskId, loaded))));
+    }
+
+    /**
+     * Streams the history of a task oldest first, decoding each message as its row arrives, so that long histories
+     * need not be held in memory. Demand is passed on to the driver. The cache is not consulted.
+     *
+     * @return the messages; empty if the task does not exist
+     */
+    public Flux<Message> streamHistory(String taskId) {
+        return databaseClient.sql(R2dbcSqlConstants.SELECT_HISTORY)
+                .bind(0, taskId)
+                .map((row, metadata) -> toMessage(row))
+                .all();
+    }
+
+    /**
+     * Deletes the task together with its history and artifacts.
+     */
+    public Mono<Void> delete(String taskId) {
+        return transactionalOperator.transactional(databaseClient.sql(R2dbcSqlConstants.DELETE_TASK)
+                        .bind(0, taskId)
+                        .fetch()
+                        .rowsUpdated()
+                        .then())
+                .then(Mono.fromRunnable(() -> changed(taskId)));
+    }
+
+    /**
+     * @return whether the task exists and is not in a final state
+     */
+    public Mono<Boolean> isTaskActive(String taskId) {
+        return databaseClient.sql(R2dbcSqlConstants.SELECT_STATUS_STATE)
+                .bind(0, taskId)
+                .map((row, metadata) -> !FINAL_STATES.contains(TaskState.fromString(row.get(0, String.class))))
+                .one()
+                .defaultIfEmpty(false);
+    }
+
+    /**
+     * @return whether the task exists and has reached a final state
+     */
+    public Mono<Boolean> isTaskFinalized(String taskId) {
+        return databaseClient.sql(R2dbcSqlConstants.SELECT_FINALIZED_AT)
+                .bind(0, taskId)
+                .map((row, metadata) -> Optional.ofNullable(row.get(0, OffsetDateTime.class)))
+                .one()
+                .map(Optional::isPresent)
+                .defaultIfEmpty(false);
+    }
+
+    /**
+     * @return the version of the task row, or empty if the task does not exist
+     */
+    public Mono<Long> findVersion(String taskId) {
+        return databaseClient.sql(R2dbcSqlConstants.SELECT_TASK_VERSION)
+                .bind(0, taskId)
+                .map((row, metadata) -> row.get(0, Long.class))
+                .one();
+    }
+
+    /**
+     * The cached entry, checked against the stored version first when {@code validate-on-read} is enabled.
+     */
+    private Mono<VersionedTask> cachedIfCurrent(String taskId) {
+        if (taskCache == null) {
+            return Mono.empty();
+        }
+        return Mono.defer(() -> {
+            VersionedTask cached = taskCache.get(taskId, VersionedTask.class);
+            if (cached == null || !properties.getCache().isValidateOnRead()) {
+                return Mono.justOrEmpty(cached);
+            }
+            return findVersion(taskId)
+                    .filter(version -> version == cached.version())
+                    .map(version -> cached)
+                    .switchIfEmpty(Mono.fromRunnable(() -> taskCache.evict(taskId)));
+        });
+    }
+
+    /**
+     * Caches a loaded task without replacing an entry cached meanwhile. A save committed while the task was loaded
+     * may have evicted it before the older copy is put, so unless entries are validated on read anyway, the version
+     * is read again after the put and the entry evicted if it is no longer current.
+     */
+    private Mono<VersionedTask> cache(String taskId, VersionedTask loaded) {
+        if (taskCache == null) {
+            return Mono.just(loaded);
+        }
+        taskCache.putIfAbsent(taskId, loaded);
+        if (properties.getCache().isValidateOnRead()) {
+            return Mono.just(loaded);
+        }
+        return findVersion(taskId)
+                .defaultIfEmpty(VersionedTask.ABSENT.version())
+                .doOnNext(version -> {
+                    if (version != loaded.version()) {
+                        taskCache.evict(taskId);
+                    }
+                })
+                .thenReturn(loaded);
+    }
+
+    private Mono<VersionedTask> load(String taskId) {
+        Mono<VersionedTask> load = databaseClient.sql(R2dbcSqlConstants.SELECT_TASK_BY_ID)
+                .bind(0, taskId)
+                .map((row, metadata) -> new TaskRow(
+                        row.get(SqlConstants.COL_TASK_ID, String.class),
+                        row.get(SqlConstants.COL_CONTEXT_ID, String.class),
+                        row.get(SqlConstants.COL_STATUS_STATE, String.class),
+                        jsonAdapter.read(row, SqlConstants.COL_STATUS_MESSAGE_JSON),
+                        row.get(SqlConstants.COL_STATUS_TIMESTAMP, OffsetDateTime.class),
+                        jsonAdapter.read(row, SqlConstants.COL_METADATA_JSON),
+                        row.get(SqlConstants.COL_VERSION, Long.class)))
+                .one()
+                .flatMap(taskRow -> streamHistory(taskId).collectList()
+                        .flatMap(history -> (properties.isStoreArtifacts()
+                                ? findArtifacts(taskId).collectList()
+                                : Mono.just(List.<Artifact>of()))
+                                .map(artifacts -> toVersionedTask(taskRow, history, artifacts))));
+        return readOnlyOperator.transactional(load);
+    }
+
+    private Flux<Artifact> findArtifacts(String taskId) {
+        return databaseClient.sql(R2dbcSqlConstants.SELECT_ARTIFACTS)
+                .bind(0, taskId)
+                .map((row, metadata) -> toArtifact(row))
+                .all();
+    }
+
+    private VersionedTask toVersionedTask(TaskRow taskRow, List<Message> history, List<Artifact> artifacts) {
+        return new VersionedTask(new Task.Builder()
+                .id(taskRow.taskId())
+                .contextId(taskRow.contextId() != null ? taskRow.contextId() : taskRow.taskId())
+                .status(new TaskStatus(
+                        TaskState.fromString(taskRow.statusState()),
+                        messageCodec.read(taskRow.statusMessageJson()).orElse(null),
+                        taskRow.statusTimestamp()))
+                .history(history)
+                .artifacts(artifacts)
+                .metadata(properties.isStoreMetadata()
+                        ? metadataCodec.read(taskRow.metadataJson()).orElse(Map.of())
+                        : Map.of())
+                .build(), taskRow.version());
+    }
+
+    private Message toMessage(Row row) {
+        String taskId = row.get(SqlConstants.COL_TASK_ID, String.class);
+        return new Message.Builder()
+                .messageId(row.get(SqlConstants.COL_MESSAGE_ID, String.class))
+                .contextId(taskId)
+                .taskId(taskId)
+                .role(Message.Role.valueOf(row.get(SqlConstants.COL_ROLE, String.class)))
+                .parts(readParts(row))
+                .metadata(metadataCodec.read(jsonAdapter.read(row, SqlConstants.COL_METADATA_JSON))
+                        .orElse(Map.of()))
+                .build();
+    }
+
+    private Artifact toArtifact(Row row) {
+        return new Artifact.Builder()
+                .artifactId(row.get(SqlConstants.COL_ARTIFACT_ID, String.class))
+                .name(row.get(SqlConstants.COL_NAME, String.class))
+                .description(row.get(SqlConstants.COL_DESCRIPTION, String.class))
+                .parts(readParts(row))
+                .metadata(metadataCodec.read(jsonAdapter.read(row, SqlConstants.COL_METADATA_JSON))
+                        .orElse(Map.of()))
+                .extensions(extensionsCodec.read(jsonAdapter.read(row, SqlConstants.COL_EXTENSIONS_JSON))
+                        .orElse(List.of()))
+                .build();
+    }
+
+    private List<Part<?>> readParts(Row row) {
+        return partsCodec.decode(
+                row.get(SqlConstants.COL_CONTENT_FORMAT, String.class),
+                row.get(SqlConstants.COL_CONTENT_CODEC, String.class),
+                jsonAdapter.read(row, SqlConstants.COL_CONTENT_JSON),
+                row.get(SqlConstants.COL_CONTENT_BIN, byte[].class));
+    }
+
+    /**
+     * Serializes writers of the task for the rest of the transaction; on PostgreSQL also while the task row does
+     * not exist yet.
+     */
+    private Mono<Void> lock(String taskId) {
+        return databaseClient.sql(advisoryLocks ? R2dbcSqlConstants.LOCK_TASK_ADVISORY : R2dbcSqlConstants.LOCK_TASK_ROW)
+                .bind(0, taskId)
+                .map((row, metadata) -> taskId)
+                .all()
+                .then();
+    }
+
+    private Mono<Void> saveTask(Task task) {
+        String taskId = task.getId();
+        TaskStatus status = task.getStatus();
+        byte[] statusMessage = status.message() == null ? null : JsonUtils.MESSAGE.writeBytes(status.message());
+        OffsetDateTime finalizedAt = FINAL_STATES.contains(status.state()) ? OffsetDateTime.now() : null;
+        Object[] values = {taskId, task.getContextId(), status.state().asString(), json(statusMessage),
+                status.timestamp(), finalizedAt};
+        Class<?>[] types = {String.class, String.class, String.class, jsonAdapter.nullType(),
+                OffsetDateTime.class, OffsetDateTime.class};
+
+        Mono<Long> update = Mono.defer(() -> bindAll(databaseClient.sql(R2dbcSqlConstants.UPDATE_TASK),
+                rotate(values), rotate(types)).fetch().rowsUpdated());
+        Mono<Long> insert = Mono.defer(() -> bindAll(databaseClient.sql(R2dbcSqlConstants.INSERT_TASK),
+                values, types).fetch().rowsUpdated());
+        return update
+                .flatMap(updated -> updated > 0 ? Mono.just(updated) : insertUnlessDuplicate(insert, update))
+                .then();
+    }
+
+    /**
+     * On PostgreSQL the advisory lock already covers a task not created yet, so the insert relies on it. The row lock
+     * of other databases does not; there a concurrent creation is met with an update, which works where a failed
+     * statement leaves the transaction usable, as on H2.
+     */
+    private Mono<Long> insertUnlessDuplicate(Mono<Long> insert, Mono<Long> update) {
+        return advisoryLocks ? insert : insert.onErrorResume(DataIntegrityViolationException.class, e -> update);
+    }
+
+    /**
+     * Appends the messages beyond the stored ones after the last stored sequence number, which is past the count once
+     * older messages were deleted; an empty history deletes the stored one.
+     */
+    private Mono<Void> saveHistory(String taskId, List<Message> messages) {
+        if (messages.isEmpty()) {
+            return databaseClient.sql(R2dbcSqlConstants.DELETE_HISTORY)
+                    .bind(0, taskId)
+                    .fetch()
+                    .rowsUpdated()
+                    .then();
+        }
+        return databaseClient.sql(R2dbcSqlConstants.SELECT_HISTORY_EXTENT)
+                .bind(0, taskId)
+                .map((row, metadata) -> new int[]{
+                        row.get(0, Long.class).intValue(), row.get(1, Number.class).intValue()})
+                .one()
+                .flatMap(extent -> {
+                    int existingCount = extent[0];
+                    if (messages.size() <= existingCount) {
+                        return Mono.empty();
+                    }
+                    List<Object[]> rows = new ArrayList<>(messages.size() - existingCount);
+                    for (int index = existingCount; index < messages.size(); index++) {
+                        rows.add(historyRow(taskId, messages.get(index), extent[1] + index - existingCount));
+                    }
+                    return insertBatches(R2dbcSqlConstants.INSERT_HISTORY, rows, historyTypes());
+                });
+    }
+
+    private Mono<Void> saveArtifacts(String taskId, List<Artifact> artifacts) {
+        List<Object[]> rows = new ArrayList<>(artifacts.size());
+        for (int sequence = 0; sequence < artifacts.size(); sequence++) {
+            rows.add(artifactRow(taskId, artifacts.get(sequence), sequence));
+        }
+        return databaseClient.sql(R2dbcSqlConstants.DELETE_ARTIFACTS)
+                .bind(0, taskId)
+                .fetch()
+                .rowsUpdated()
+                .then(insertBatches(R2dbcSqlConstants.INSERT_ARTIFACT, rows, artifactTypes()));
+    }
+
+    private Mono<Void> updateMetadata(String taskId, Map<String, Object> metadata) {
+        byte[] metadataJson = metadata.isEmpty() ? null : JsonUtils.METADATA_MAP.writeBytes(metadata);
+        return bindAll(databaseClient.sql(R2dbcSqlConstants.UPDATE_TASK_METADATA),
+                new Object[]{json(metadataJson), taskId}, new Class<?>[]{jsonAdapter.nullType(), String.class})
+                .fetch()
+                .rowsUpdated()
+                .then();
+    }
+
+    private Object[] historyRow(String taskId, Message message, int sequence) {
+        PartsColumnCodec.EncodedParts parts = partsCodec.encode(message.getParts());
+        String messageId = message.getMessageId() != null ? message.getMessageId() : taskId + "-msg-" + sequence;
+        return new Object[]{taskId, messageId, message.getRole().name(), json(parts.json()),
+                json(JsonUtils.METADATA_MAP.writeBytes(message.getMetadata())), sequence, parts.format(), parts.bin(),
+                parts.codec(), tokenEstimator.estimate(message)};
+    }
+
+    private Class<?>[] historyTypes() {
+        return new Class<?>[]{String.class, String.class, String.class, jsonAdapter.nullType(),
+                jsonAdapter.nullType(), Integer.class, String.class, byte[].class, String.class, Integer.class};
+    }
+
+    private Object[] artifactRow(String taskId, Artifact artifact, int sequence) {
+        PartsColumnCodec.EncodedParts parts = partsCodec.encode(artifact.parts());
+        return new Object[]{taskId, artifact.artifactId(), artifact.name(), artifact.description(), json(parts.json()),
+                json(JsonUtils.METADATA_MAP.writeBytes(artifact.metadata())),
+                json(JsonUtils.EXTENSIONS.writeBytes(artifact.extensions())), sequence, parts.format(), parts.bin(),
+                parts.codec()};
+    }
+
+    private Class<?>[] artifactTypes() {
+        return new Class<?>[]{String.class, String.class, String.class, String.class, jsonAdapter.nullType(),
+                jsonAdapter.nullType(), jsonAdapter.nullType(), Integer.class, String.class, byte[].class, String.class};
+    }
+
+    /**
+     * Inserts the rows with one batched statement per {@code a2a.taskstore.batch-size} rows, on the connection of
+     * the current transaction.
+     */
+    private Mono<Void> insertBatches(String sql, List<Object[]> rows, Class<?>[] types) {
+        int batchSize = Math.max(1, properties.getBatchSize());
+        List<List<Object[]>> batches = new ArrayList<>();
+        for (int start = 0; start < rows.size(); start += batchSize) {
+            batches.add(rows.subList(start, Math.min(start + batchSize, rows.size())));
+        }
+        return Flux.fromIterable(batches)
+                .concatMap(batch -> databaseClient.inConnectionMany(connection -> {
+                    Statement statement = connection.createStatement(sql);
+                    for (int i = 0; i < batch.size(); i++) {
+                        if (i > 0) {
+                            statement.add();
+                        }
+                        bindAll(statement, batch.get(i), types);
+                    }
+                    return Flux.from(statement.execute()).flatMap(Result::getRowsUpdated);
+                }))
+                .then();
+    }
+
+    private Object json(byte[] json) {
+        return json != null ? jsonAdapter.adapt(json) : null;
+    }
+
+    private void changed(String taskId) {
+        invalidationBus.publish(taskId);
+        if (taskCache != null) {
+            taskCache.evict(taskId);
+        }
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindAll(DatabaseClient.GenericExecuteSpec spec, Object[] values,
+                                                             Class<?>[] types) {
+        for (int i = 0; i < values.length; i++) {
+            spec = values[i] != null ? spec.bind(i, values[i]) : spec.bindNull(i, types[i]);
+        }
+        return spec;
+    }
+
+    private static void bindAll(Statement statement, Object[] values, Class<?>[] types) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                statement.bind(i, values[i]);
+            } else {
+                statement.bindNull(i, types[i]);
+            }
+        }
+    }
+
+    /**
+     * Moves the task id from the front to the end, the parameter order of {@link SqlConstants#UPDATE_TASK}.
+     */
+    private static <T> T[] rotate(T[] insertOrder) {
+        T[] updateOrder = insertOrder.clone();
+        System.arraycopy(insertOrder, 1, updateOrder, 0, insertOrder.length - 1);
+        updateOrder[insertOrder.length - 1] = insertOrder[0];
+        return updateOrder;
+    }
+
+    private record TaskRow(
+            String taskId,
+            String contextId,
+            String statusState,
+            byte[] statusMessageJson,
+            OffsetDateTime statusTimestamp,
+            byte[] metadataJson,
+            long version
+    ) {
+    }
+}
@@ -0,0 +1,151 @@
+package io.a2a.extras.taskstore.r2dbc;
+
+import io.a2a.extras.taskstore.A2aTaskStoreProperties;
+import io.a2a.spec.Artifact;
+import io.a2a.spec.Message;
+import io.a2a.spec.Task;
+import io.a2a.spec.TaskState;
+import io.a2a.spec.TaskStatus;
+import io.a2a.spec.TextPart;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.PostgreSQLR2DBCDatabaseContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the R2DBC store against PostgreSQL in a container, covering JSONB binding and the advisory task lock.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class R2dbcTaskStorePostgresIntegrationTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private DatabaseClient databaseClient;
+    private R2dbcTaskStore taskStore;
+
+    @BeforeEach
+    void setUp() {
+        ConnectionFactory connectionFactory = ConnectionFactories.get(PostgreSQLR2DBCDatabaseContainer.getOptions(POSTGRES));
+        databaseClient = DatabaseClient.create(connectionFactory);
+        R2dbcJsonAdapter jsonAdapter = R2dbcJsonAdapter.forConnectionFactory(connectionFactory);
+        assertThat(jsonAdapter).isInstanceOf(R2dbcJsonAdapter.PostgresJsonAdapter.class);
+        taskStore = new R2dbcTaskStore(databaseClient, new R2dbcTransactionManager(connectionFactory), jsonAdapter,
+                new A2aTaskStoreProperties());
+        initializeSchema();
+    }
+
+    private void initializeSchema() {
+        Flux.concat(
+                databaseClient.sql("DROP TABLE IF EXISTS a2a_artifacts, a2a_history, a2a_tasks").then(),
+                databaseClient.sql("""
+                    CREATE TABLE a2a_tasks (
+                        task_id VARCHAR(255) PRIMARY KEY,
+                        context_id VARCHAR(255),
+                        status_state VARCHAR(50) NOT NULL DEFAULT 'submitted',
+                        status_message_json JSONB,
+                        status_timestamp TIMESTAMPTZ DEFAULT CURRENT_TIMESTAMP,
+                        metadata_json JSONB,
+                        created_at TIMESTAMPTZ DEFAULT CURRENT_TIMESTAMP,
+                        updated_at TIMESTAMPTZ DEFAULT CURRENT_TIMESTAMP,
+                        finalized_at TIMESTAMPTZ,
+                        version BIGINT NOT NULL DEFAULT 0
+                    )
+                    """).then(),
+                databaseClient.sql("""
+                    CREATE TABLE a2a_history (
+                        task_id VARCHAR(255) NOT NULL REFERENCES a2a_tasks(task_id) ON DELETE CASCADE,
+                        message_id VARCHAR(255) NOT NULL,
+                        role VARCHAR(20) NOT NULL,
+                        content_json JSONB,
+                        content_format VARCHAR(8),
+                        content_bin BYTEA,
+                        content_codec VARCHAR(8),
+                        token_count INTEGER,
+                        metadata_json JSONB,
+                        created_at TIMESTAMPTZ DEFAULT CURRENT_TIMESTAMP,
+                        updated_at TIMESTAMPTZ DEFAULT CURRENT_TIMESTAMP,
+                        sequence_num INTEGER NOT NULL,
+                        PRIMARY KEY (message_id, task_id)
+                    )
+                    """).then(),
+                databaseClient.sql("""
+                    CREATE TABLE a2a_artifacts (
+                        artifact_id VARCHAR(255) NOT NULL,
+                        task_id VARCHAR(255) NOT NULL REFERENCES a2a_tasks(task_id) ON DELETE CASCADE,
+                        name VARCHAR(500),
+                        description TEXT,
+                        content_json JSONB,
+                        content_format VARCHAR(8),
+                        content_bin BYTEA,
+                        content_codec VARCHAR(8),
+                        metadata_json JSONB,
+                        extensions_json JSONB,
+                        sequence_num INTEGER NOT NULL,
+                        created_at TIMESTAMPTZ DEFAULT CURRENT_TIMESTAMP,
+                        updated_at TIMESTAMPTZ DEFAULT CURRENT_TIMESTAMP,
+                        PRIMARY KEY (artifact_id, task_id)
+                    )
+                    """).then()
+        ).blockLast();
+    }
+
+    @Test
+    void saveAndGetTaskWithJsonbColumns() {
+        Task task = new Task.Builder()
+                .id("r2dbc-postgres-1")
+                .contextId("ctx-postgres")
+                .status(new TaskStatus(TaskState.WORKING, new Message.Builder()
+                        .role(Message.Role.AGENT)
+                        .parts(new TextPart("Working on it"))
+                        .build(), null))
+                .history(List.of(new Message.Builder()
+                        .role(Message.Role.USER)
+                        .parts(new TextPart("Hello from PostgreSQL!"))
+                        .metadata(Map.of("source", "postgres-test"))
+                        .build()))
+                .artifacts(List.of(new Artifact.Builder()
+                        .artifactId("art-postgres-1")
+                        .name("PostgreSQL Test Artifact")
+                        .parts(new TextPart("Artifact content"))
+                        .build()))
+                .metadata(Map.of("owner", "tests"))
+                .build();
+
+        StepVerifier.create(taskStore.save(task).then(taskStore.get("r2dbc-postgres-1")))
+                .assertNext(retrieved -> {
+                    assertThat(retrieved.getStatus().message()).isNotNull();
+                    assertThat(retrieved.getHistory()).singleElement().satisfies(message -> {
+                        assertThat(((TextPart) message.getParts().get(0)).getText()).isEqualTo("Hello from PostgreSQL!");
+                        assertThat(message.getMetadata()).containsEntry("source", "postgres-test");
+                    });
+                    assertThat(retrieved.getArtifacts()).singleElement()
+                            .satisfies(artifact -> assertThat(artifact.name()).isEqualTo("PostgreSQL Test Artifact"));
+                    assertThat(retrieved.getMetadata()).containsEntry("owner", "tests");
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void concurrentCreatesOfATaskShouldBothSucceed() {
+        Task first = new Task.Builder().id("r2dbc-race").contextId("ctx").status(new TaskStatus(TaskState.SUBMITTED)).build();
+        Task second = new Task.Builder().id("r2dbc-race").contextId("ctx").status(new TaskStatus(TaskState.WORKING)).build();
+
+        StepVerifier.create(Flux.merge(taskStore.save(first), taskStore.save(second)).then(taskStore.findVersion("r2dbc-race")))
+                .assertNext(version -> assertThat(version).isEqualTo(1L))
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,209 @@
+package io.a2a.extras.taskstore.r2dbc;
+
+import io.a2a.extras.taskstore.A2aTaskStoreProperties;
+import io.a2a.extras.taskstore.cache.TaskInvalidationBus;
+import io.a2a.extras.taskstore.jdbc.TokenEstimator;
+import io.a2a.extras.taskstore.jdbc.VersionedTask;
+import io.a2a.spec.Artifact;
+import io.a2a.spec.Message;
+import io.a2a.spec.Task;
+import io.a2a.spec.TaskState;
+import io.a2a.spec.TaskStatus;
+import io.a2a.spec.TextPart;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class R2dbcTaskStoreTest {
+
+    private ConnectionFactory connectionFactory;
+    private DatabaseClient databaseClient;
+    private ConcurrentMapCache taskCache;
+    private R2dbcTaskStore taskStore;
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory =
+                ConnectionFactories.get("r2dbc:h2:mem:///r2dbc-task-store;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("test-schema-h2.sql")).populate(connectionFactory).block();
+        databaseClient = DatabaseClient.create(connectionFactory);
+        useCache(new ConcurrentMapCache("a2a-tasks", false));
+    }
+
+    private void useCache(ConcurrentMapCache cache) {
+        taskCache = cache;
+        taskStore = new R2dbcTaskStore(databaseClient, new R2dbcTransactionManager(connectionFactory),
+                R2dbcJsonAdapter.forConnectionFactory(connectionFactory), new A2aTaskStoreProperties(), taskCache,
+                TaskInvalidationBus.NONE, TokenEstimator.DEFAULT);
+    }
+
+    @AfterEach
+    void tearDown() {
+        databaseClient.sql("DELETE FROM a2a_tasks").then().block();
+    }
+
+    @Test
+    void saveAndGetShouldRoundTripTask() {
+        Task task = new Task.Builder()
+                .id("r2dbc-1")
+                .contextId("ctx-1")
+                .status(new TaskStatus(TaskState.WORKING))
+                .history(List.of(message(Message.Role.USER, "Hello"), message(Message.Role.AGENT, "Hi there")))
+                .artifacts(List.of(new Artifact.Builder()
+                        .artifactId("art-1")
+                        .name("Result")
+                        .parts(new TextPart("Artifact content"))
+                        .metadata(Map.of("kind", "report"))
+                        .build()))
+                .metadata(Map.of("owner", "tests"))
+                .build();
+
+        StepVerifier.create(taskStore.save(task).then(taskStore.get("r2dbc-1")))
+                .assertNext(retrieved -> {
+                    assertThat(retrieved.getContextId()).isEqualTo("ctx-1");
+                    assertThat(retrieved.getStatus().state()).isEqualTo(TaskState.WORKING);
+                    assertThat(retrieved.getHistory()).extracting(R2dbcTaskStoreTest::text)
+                            .containsExactly("Hello", "Hi there");
+                    assertThat(retrieved.getArtifacts()).singleElement().satisfies(artifact -> {
+                        assertThat(artifact.name()).isEqualTo("Result");
+                        assertThat(artifact.metadata()).containsEntry("kind", "report");
+                    });
+                    assertThat(retrieved.getMetadata()).containsEntry("owner", "tests");
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void getShouldBeEmptyForMissingTask() {
+        StepVerifier.create(taskStore.get("missing")).verifyComplete();
+        StepVerifier.create(taskStore.isTaskActive("missing")).expectNext(false).verifyComplete();
+    }
+
+    @Test
+    void saveShouldAppendOnlyNewMessages() {
+        Message first = message(Message.Role.USER, "First");
+        Message second = message(Message.Role.AGENT, "Second");
+        Message third = message(Message.Role.USER, "Third");
+
+        StepVerifier.create(taskStore.save(task("r2dbc-append", TaskState.WORKING, List.of(first, second)))
+                        .then(taskStore.save(task("r2dbc-append", TaskState.WORKING, List.of(first, second, third))))
+                        .thenMany(taskStore.streamHistory("r2dbc-append"))
+                        .map(R2dbcTaskStoreTest::text))
+                .expectNext("First", "Second", "Third")
+                .verifyComplete();
+    }
+
+    @Test
+    void streamHistoryShouldEmitMessagesInOrderOnDemand() {
+        List<Message> history = IntStream.range(0, 250)
+                .mapToObj(i -> message(i % 2 == 0 ? Message.Role.USER : Message.Role.AGENT, "Message " + i))
+                .toList();
+        taskStore.save(task("r2dbc-stream", TaskState.WORKING, history)).block();
+
+        StepVerifier.create(taskStore.streamHistory("r2dbc-stream"), 0)
+                .thenRequest(10)
+                .expectNextCount(10)
+                .thenRequest(Long.MAX_VALUE)
+                .expectNextCount(240)
+                .verifyComplete();
+
+        List<String> texts = taskStore.streamHistory("r2dbc-stream").map(R2dbcTaskStoreTest::text).collectList().block();
+        assertThat(texts).containsExactlyElementsOf(history.stream().map(R2dbcTaskStoreTest::text).toList());
+    }
+
+    @Test
+    void readsShouldGoThroughTheTaskCache() {
+        taskStore.save(task("r2dbc-cache", TaskState.WORKING, List.of(message(Message.Role.USER, "Hello")))).block();
+
+        Task loaded = taskStore.get("r2dbc-cache").block();
+        VersionedTask cached = taskCache.get("r2dbc-cache", VersionedTask.class);
+        assertThat(cached).isNotNull();
+        assertThat(taskStore.get("r2dbc-cache").block()).isSameAs(loaded);
+
+        taskStore.save(task("r2dbc-cache", TaskState.COMPLETED, List.of(message(Message.Role.USER, "Hello")))).block();
+
+        assertThat(taskCache.get("r2dbc-cache")).isNull();
+        StepVerifier.create(taskStore.getVersioned("r2dbc-cache"))
+                .assertNext(versioned -> {
+                    assertThat(versioned.task().getStatus().state()).isEqualTo(TaskState.COMPLETED);
+                    assertThat(versioned.version()).isGreaterThan(cached.version());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void saveCommittedDuringALoadShouldNotLeaveTheOlderVersionCached() {
+        List<Message> history = List.of(message(Message.Role.USER, "Hello"));
+        AtomicBoolean saved = new AtomicBoolean();
+        useCache(new ConcurrentMapCache("a2a-tasks", false) {
+            @Override
+            public void put(Object key, Object value) {
+                saveBeforeTheLoadIsCached();
+                super.put(key, value);
+            }
+
+            @Override
+            public ValueWrapper putIfAbsent(Object key, Object value) {
+                saveBeforeTheLoadIsCached();
+                return super.putIfAbsent(key, value);
+            }
+
+            // The save commits and evicts after the load read the task, but before the load caches it
+            private void saveBeforeTheLoadIsCached() {
+                if (saved.compareAndSet(false, true)) {
+                    taskStore.save(task("r2dbc-race", TaskState.COMPLETED, history)).block();
+                }
+            }
+        });
+        taskStore.save(task("r2dbc-race", TaskState.WORKING, history)).block();
+
+        assertThat(taskStore.get("r2dbc-race").block().getStatus().state()).isEqualTo(TaskState.WORKING);
+
+        assertThat(taskCache.get("r2dbc-race")).isNull();
+        assertThat(taskStore.get("r2dbc-race").block().getStatus().state()).isEqualTo(TaskState.COMPLETED);
+    }
+
+    @Test
+    void deleteShouldRemoveTaskWithHistory() {
+        taskStore.save(task("r2dbc-delete", TaskState.COMPLETED, List.of(message(Message.Role.USER, "Bye")))).block();
+        StepVerifier.create(taskStore.isTaskFinalized("r2dbc-delete")).expectNext(true).verifyComplete();
+
+        StepVerifier.create(taskStore.delete("r2dbc-delete").then(taskStore.get("r2dbc-delete"))).verifyComplete();
+        StepVerifier.create(taskStore.streamHistory("r2dbc-delete")).verifyComplete();
+    }
+
+    private static Task task(String taskId, TaskState state, List<Message> history) {
+        return new Task.Builder()
+                .id(taskId)
+                .contextId(taskId)
+                .status(new TaskStatus(state))
+                .history(history)
+                .build();
+    }
+
+    private static Message message(Message.Role role, String text) {
+        return new Message.Builder()
+                .role(role)
+                .parts(new TextPart(text))
+                .build();
+    }
+
+    private static String text(Message message) {
+        return ((TextPart) message.getParts().get(0)).getText();
+    }
+}